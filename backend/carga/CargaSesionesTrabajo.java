@@ -0,0 +1,135 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prueba de carga de {@code POST /api/sesionesTrabajo}. Crea unas cuantas jornadas para el empleado
+ * indicado, reparte entre ellas las sesiones de trabajo y mide el rendimiento (peticiones por segundo) y
+ * la latencia (p50, p99 y máxima) con el número de peticiones concurrentes indicado.
+ * Se ejecuta directamente con el JDK, sin compilar:
+ * <pre>
+ *   java carga/CargaSesionesTrabajo.java [url] [peticiones] [concurrencia] [empleadoId] [jornadas]
+ * </pre>
+ * El script {@code carga/comparar.sh} la lanza contra el backend arrancado con hilos de plataforma y con
+ * el perfil {@code virtual}.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public class CargaSesionesTrabajo {
+
+  private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+  public static void main(String[] args) throws Exception {
+    String url = args.length > 0 ? args[0] : "http://localhost:8080";
+    int peticiones = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+    int concurrencia = args.length > 2 ? Integer.parseInt(args[2]) : 400;
+    int empleadoId = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+    int numJornadas = args.length > 4 ? Integer.parseInt(args[4]) : 100;
+    int calentamiento = Math.min(peticiones / 10, 2000);
+
+    HttpClient cliente = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    // Varias jornadas para que las sesiones no se peleen por la misma fila de jornada_totales
+    List<Integer> jornadas = new ArrayList<>();
+    for (int i = 0; i < numJornadas; i++) {
+      String jornada = "{\"fecha\":\"" + LocalDate.now() + "\",\"empleadoId\":" + empleadoId + "}";
+      HttpResponse<String> respuesta = cliente.send(post(url + "/api/jornadas", jornada),
+          HttpResponse.BodyHandlers.ofString());
+      Matcher m = ID.matcher(respuesta.body());
+      if (respuesta.statusCode() != 201 || !m.find()) {
+        throw new IllegalStateException("No se pudo crear la jornada: " + respuesta.statusCode() + " " + respuesta.body());
+      }
+      jornadas.add(Integer.parseInt(m.group(1)));
+    }
+
+    System.out.printf("Calentamiento: %d peticiones%n", calentamiento);
+    lanzar(cliente, url, jornadas, 0, calentamiento, concurrencia);
+
+    System.out.printf("Medición: %d peticiones, %d concurrentes, %d jornadas%n", peticiones, concurrencia, numJornadas);
+    long inicio = System.nanoTime();
+    // Las sesiones de la medición siguen a las del calentamiento, para que no se solapen con ellas y se rechacen
+    Resultado resultado = lanzar(cliente, url, jornadas, calentamiento, peticiones, concurrencia);
+    double segundos = (System.nanoTime() - inicio) / 1e9;
+
+    long[] latencias = resultado.latencias();
+    Arrays.sort(latencias);
+    System.out.printf("Rendimiento: %.1f peticiones/s (%.1f s)%n", peticiones / segundos, segundos);
+    if (latencias.length > 0) {
+      System.out.printf("Latencia (%d respuestas 201): p50 %.1f ms, p99 %.1f ms, máx %.1f ms%n", latencias.length,
+          percentil(latencias, 50), percentil(latencias, 99), latencias[latencias.length - 1] / 1e6);
+    }
+    System.out.printf("Errores: %d%n", resultado.errores());
+  }
+
+  private record Resultado(long[] latencias, int errores) {
+  }
+
+  // Lanza las sesiones primera..primera+peticiones-1. La sesión n va a la jornada n % jornadas y empieza
+  // n / jornadas segundos después de las 8:00, así que dos sesiones distintas nunca se solapan.
+  // Solo se guarda la latencia de las respuestas 201, para que los rechazos y los fallos no bajen los percentiles.
+  private static Resultado lanzar(HttpClient cliente, String url, List<Integer> jornadas, int primera,
+      int peticiones, int concurrencia) throws InterruptedException {
+    long[] latencias = new long[peticiones];
+    Arrays.fill(latencias, -1);
+    AtomicInteger errores = new AtomicInteger();
+    Semaphore permisos = new Semaphore(concurrencia);
+    try (var ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < peticiones; i++) {
+        int indice = i;
+        int n = primera + i;
+        permisos.acquire();
+        ejecutor.submit(() -> {
+          try {
+            LocalTime inicio = LocalTime.of(8, 0).plusSeconds((n / jornadas.size()) % 28800);
+            String sesion = "{\"idJornada\":" + jornadas.get(n % jornadas.size())
+                + ",\"tiempoInicio\":\"" + inicio + "\",\"tiempoFin\":\"" + inicio.plusSeconds(1) + "\"}";
+            long t0 = System.nanoTime();
+            HttpResponse<Void> respuesta = cliente.send(post(url + "/api/sesionesTrabajo", sesion),
+                HttpResponse.BodyHandlers.discarding());
+            long latencia = System.nanoTime() - t0;
+            if (respuesta.statusCode() == 201) {
+              latencias[indice] = latencia;
+            } else {
+              errores.incrementAndGet();
+            }
+          } catch (Exception e) {
+            errores.incrementAndGet();
+          } finally {
+            permisos.release();
+          }
+        });
+      }
+    }
+    return new Resultado(Arrays.stream(latencias).filter(latencia -> latencia >= 0).toArray(), errores.get());
+  }
+
+  private static HttpRequest post(String url, String cuerpo) {
+    return HttpRequest.newBuilder(URI.create(url))
+        .timeout(Duration.ofSeconds(60))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+        .build();
+  }
+
+  private static double percentil(long[] ordenadas, int p) {
+    int i = (int) Math.ceil(p / 100.0 * ordenadas.length) - 1;
+    return ordenadas[Math.max(i, 0)] / 1e6;
+  }
+}
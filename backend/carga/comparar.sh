@@ -0,0 +1,28 @@
+#!/usr/bin/env sh
+# Compara POST /api/sesionesTrabajo con hilos de plataforma (perfil dev) y con hilos virtuales
+# (perfiles dev,virtual). Necesita la base de datos configurada en .env.properties y Java 21.
+#
+# Uso: carga/comparar.sh [peticiones] [concurrencia] [empleadoId]
+set -e
+cd "$(dirname "$0")/.."
+
+PETICIONES=${1:-20000}
+CONCURRENCIA=${2:-400}
+EMPLEADO=${3:-1}
+PUERTO=8080
+
+./mvnw -q -DskipTests package
+JAR=$(ls target/gestionhorarios-*.jar | grep -v original | head -n 1)
+
+for PERFILES in dev dev,virtual; do
+  echo "=== Perfiles: $PERFILES ==="
+  java -jar "$JAR" --spring.profiles.active="$PERFILES" --server.port=$PUERTO > "target/carga-$PERFILES.log" 2>&1 &
+  PID=$!
+  until curl -sf "http://localhost:$PUERTO/actuator/health" > /dev/null; do
+    kill -0 $PID 2> /dev/null || { echo "El backend no arrancó, ver target/carga-$PERFILES.log"; exit 1; }
+    sleep 1
+  done
+  java carga/CargaSesionesTrabajo.java "http://localhost:$PUERTO" "$PETICIONES" "$CONCURRENCIA" "$EMPLEADO" || true
+  kill $PID
+  wait $PID 2> /dev/null || true
+done
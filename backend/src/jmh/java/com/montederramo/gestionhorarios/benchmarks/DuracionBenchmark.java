@@ -0,0 +1,49 @@
+package com.montederramo.gestionhorarios.benchmarks;
+
+import com.montederramo.gestionhorarios.services.Fechas;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el cálculo de horas trabajadas a partir de pares de {@link LocalTime}, el mismo que usan
+ * los totales por jornada en cada escritura de una sesión.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DuracionBenchmark {
+
+  @Param({"10", "1000", "100000"})
+  private int sesiones;
+
+  private LocalTime[] inicios;
+  private LocalTime[] fines;
+
+  @Setup
+  public void preparar() {
+    SplittableRandom aleatorio = new SplittableRandom(42);
+    inicios = new LocalTime[sesiones];
+    fines = new LocalTime[sesiones];
+    for (int i = 0; i < sesiones; i++) {
+      inicios[i] = LocalTime.ofSecondOfDay(aleatorio.nextInt(24 * 60 * 60));
+      // Una de cada diez sesiones sigue abierta y algunas cruzan la medianoche
+      fines[i] = i % 10 == 0 ? null : inicios[i].plusSeconds(aleatorio.nextInt(4 * 60 * 60));
+    }
+  }
+
+  @Benchmark
+  public long sumarSegundosTrabajados() {
+    long total = 0;
+    for (int i = 0; i < sesiones; i++) {
+      total += Fechas.segundosEntre(inicios[i], fines[i]);
+    }
+    return total;
+  }
+}
@@ -0,0 +1,118 @@
+package com.montederramo.gestionhorarios.benchmarks;
+
+import com.montederramo.gestionhorarios.GestionhorariosApplication;
+import com.montederramo.gestionhorarios.dto.Jornada;
+import com.montederramo.gestionhorarios.dto.SesionTrabajo;
+import com.montederramo.gestionhorarios.repositories.JornadaRepository;
+import com.montederramo.gestionhorarios.repositories.SesionTrabajoRepository;
+import com.montederramo.gestionhorarios.services.Fechas;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide las consultas de repositorio más frecuentes contra una base de datos H2 en memoria en modo MySQL,
+ * con el contexto de Spring completo para que cuenten Hibernate, las transacciones y el pool de conexiones.
+ * Las consultas nativas con funciones propias de MySQL no se incluyen porque H2 no las soporta.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RepositorioBenchmark {
+
+  private static final int EMPLEADOS = 50;
+  private static final int DIAS = 60;
+  private static final int SESIONES_POR_JORNADA = 4;
+  private static final LocalDate PRIMER_DIA = LocalDate.of(2025, 1, 1);
+
+  private ConfigurableApplicationContext contexto;
+  private JornadaRepository jornadaRepository;
+  private SesionTrabajoRepository sesionTrabajoRepository;
+  private int primeraJornada;
+  private int ultimaJornada;
+
+  @Setup(Level.Trial)
+  public void arrancar() {
+    contexto = new SpringApplicationBuilder(GestionhorariosApplication.class)
+        .web(WebApplicationType.NONE)
+        .run("--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORE_UNKNOWN_SETTINGS=TRUE",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.cloud.gcp.core.enabled=false",
+            "--logging.level.root=WARN");
+    jornadaRepository = contexto.getBean(JornadaRepository.class);
+    sesionTrabajoRepository = contexto.getBean(SesionTrabajoRepository.class);
+
+    List<Jornada> jornadas = new ArrayList<>();
+    for (int empleado = 1; empleado <= EMPLEADOS; empleado++) {
+      for (int dia = 0; dia < DIAS; dia++) {
+        Jornada jornada = new Jornada();
+        jornada.setEmpleadoId(empleado);
+        jornada.setFecha(Fechas.inicioDelDia(PRIMER_DIA.plusDays(dia)));
+        jornadas.add(jornada);
+      }
+    }
+    jornadas = jornadaRepository.saveAll(jornadas);
+
+    List<SesionTrabajo> sesiones = new ArrayList<>();
+    for (Jornada jornada : jornadas) {
+      for (int i = 0; i < SESIONES_POR_JORNADA; i++) {
+        SesionTrabajo sesion = new SesionTrabajo();
+        sesion.setIdJornada(jornada.getId());
+        sesion.setTiempoInicio(LocalTime.of(8 + 2 * i, 0));
+        sesion.setTiempoFin(LocalTime.of(9 + 2 * i, 30));
+        sesiones.add(sesion);
+      }
+    }
+    sesionTrabajoRepository.saveAll(sesiones);
+
+    primeraJornada = jornadas.get(0).getId();
+    ultimaJornada = jornadas.get(jornadas.size() - 1).getId();
+  }
+
+  @TearDown(Level.Trial)
+  public void parar() {
+    contexto.close();
+  }
+
+  @Benchmark
+  public List<SesionTrabajo> sesionesPorJornada() {
+    int idJornada = ThreadLocalRandom.current().nextInt(primeraJornada, ultimaJornada + 1);
+    return sesionTrabajoRepository.findByIdJornadaOrderByTiempoInicioAsc(idJornada);
+  }
+
+  @Benchmark
+  public List<Jornada> jornadasDeUnMesPorEmpleado() {
+    int empleadoId = ThreadLocalRandom.current().nextInt(1, EMPLEADOS + 1);
+    return jornadaRepository.findByEmpleadoIdAndFechaGreaterThanEqualAndFechaLessThanOrderByFechaAsc(empleadoId,
+        Fechas.inicioDelDia(PRIMER_DIA), Fechas.finDelDia(PRIMER_DIA.plusDays(29)));
+  }
+
+  @Benchmark
+  public List<SesionTrabajo> sesionesDeUnMesPorEmpleado() {
+    int empleadoId = ThreadLocalRandom.current().nextInt(1, EMPLEADOS + 1);
+    return sesionTrabajoRepository.findByEmpleadoIdAndFechaEnRango(empleadoId,
+        Fechas.inicioDelDia(PRIMER_DIA), Fechas.finDelDia(PRIMER_DIA.plusDays(29)));
+  }
+
+  @Benchmark
+  public List<SesionTrabajo> paginaPorCursor() {
+    int despuesDe = ThreadLocalRandom.current().nextInt(0, EMPLEADOS * DIAS * SESIONES_POR_JORNADA);
+    return sesionTrabajoRepository.findByIdGreaterThanOrderByIdAsc(despuesDe, Limit.of(100));
+  }
+}
@@ -0,0 +1,68 @@
+package com.montederramo.gestionhorarios.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.montederramo.gestionhorarios.dto.Jornada;
+import com.montederramo.gestionhorarios.dto.SesionTrabajo;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la serialización a JSON de los listados de jornadas y sesiones de trabajo, con un
+ * {@link ObjectMapper} configurado como el que usa Spring Boot en los controladores.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializacionBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  private int tamano;
+
+  private ObjectMapper objectMapper;
+  private List<Jornada> jornadas;
+  private List<SesionTrabajo> sesionesTrabajo;
+
+  @Setup
+  public void preparar() {
+    objectMapper = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+    jornadas = new ArrayList<>(tamano);
+    sesionesTrabajo = new ArrayList<>(tamano);
+    for (int i = 0; i < tamano; i++) {
+      Jornada jornada = new Jornada();
+      jornada.setId(i + 1);
+      jornada.setEmpleadoId(i % 50 + 1);
+      jornada.setFecha(new Date());
+      jornadas.add(jornada);
+
+      SesionTrabajo sesion = new SesionTrabajo();
+      sesion.setId(i + 1);
+      sesion.setIdJornada(i / 4 + 1);
+      sesion.setTiempoInicio(LocalTime.of(8, 0).plusMinutes(i % 600));
+      sesion.setTiempoFin(LocalTime.of(9, 0).plusMinutes(i % 600));
+      sesionesTrabajo.add(sesion);
+    }
+  }
+
+  @Benchmark
+  public byte[] serializarJornadas() throws Exception {
+    return objectMapper.writeValueAsBytes(jornadas);
+  }
+
+  @Benchmark
+  public byte[] serializarSesionesTrabajo() throws Exception {
+    return objectMapper.writeValueAsBytes(sesionesTrabajo);
+  }
+}
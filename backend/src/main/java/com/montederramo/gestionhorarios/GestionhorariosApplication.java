@@ -2,8 +2,10 @@ package com.montederramo.gestionhorarios;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class GestionhorariosApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,47 @@
+package com.montederramo.gestionhorarios.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+/**
+ * Configuración de la caché en memoria de los empleados.
+ * Las escrituras en la caché se aplazan hasta que confirma la transacción, para que una lectura
+ * concurrente no vuelva a cachear el valor anterior antes del commit. La caché se consulta antes de abrir la
+ * transacción del método cacheado, así que un acierto no abre ninguna.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+  /** Caché de empleados por ID. */
+  public static final String EMPLEADOS = "empleados";
+
+  /**
+   * Crea el gestor de cachés con Caffeine.
+   * Los nombres se declaran de antemano para que Actuator registre sus métricas de aciertos y fallos al arrancar.
+   *
+   * @param especificacion La especificación de Caffeine (tamaño, expiración, estadísticas).
+   * @return El gestor de cachés.
+   * @since 1.1
+   */
+  @Bean
+  public CacheManager cacheManager(@Value("${cache.empleados.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}")
+      String especificacion) {
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    cacheManager.setCacheSpecification(especificacion);
+    cacheManager.setCacheNames(List.of(EMPLEADOS));
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+}
@@ -0,0 +1,122 @@
+package com.montederramo.gestionhorarios.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Registra métricas de los servicios y repositorios de la aplicación.
+ * Se ejecuta antes que el interceptor de transacciones, de modo que la duración de un método de servicio
+ * incluye abrir y confirmar su transacción.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class MetricasAspect {
+
+  /** Duración de los métodos de servicio, transacción incluida. */
+  public static final String SERVICIOS = "gestionhorarios.servicios";
+
+  /** Filas devueltas por los métodos de repositorio. */
+  public static final String FILAS_REPOSITORIOS = "gestionhorarios.repositorios.filas";
+
+  private static final String PAQUETE_REPOSITORIOS = "com.montederramo.gestionhorarios.repositories";
+
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Constructor del aspecto.
+   *
+   * @param meterRegistry El registro donde se publican las métricas.
+   * @since 1.1
+   */
+  @Autowired
+  public MetricasAspect(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Mide la duración de cada método público de los servicios, etiquetada con el servicio, el método
+   * y la excepción lanzada, si la hay.
+   *
+   * @param joinPoint La llamada interceptada.
+   * @return El resultado del método.
+   * @throws Throwable La excepción lanzada por el método.
+   * @since 1.1
+   */
+  @Around("execution(public * com.montederramo.gestionhorarios.services.*Service.*(..))")
+  public Object medirServicio(ProceedingJoinPoint joinPoint) throws Throwable {
+    Timer.Sample muestra = Timer.start(meterRegistry);
+    String excepcion = "none";
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable e) {
+      excepcion = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      muestra.stop(Timer.builder(SERVICIOS)
+          .description("Duración de los métodos de servicio, transacción incluida")
+          .tag("servicio", joinPoint.getSignature().getDeclaringType().getSimpleName())
+          .tag("metodo", joinPoint.getSignature().getName())
+          .tag("excepcion", excepcion)
+          .register(meterRegistry));
+    }
+  }
+
+  /**
+   * Registra cuántas filas devuelve cada método de repositorio que devuelve una lista o un opcional.
+   * Los métodos en streaming no se cuentan, porque sus filas se leen después de que el método termine.
+   *
+   * @param joinPoint La llamada interceptada.
+   * @param resultado El valor devuelto por el método.
+   * @since 1.1
+   */
+  @AfterReturning(pointcut = "execution(* com.montederramo.gestionhorarios.repositories..*.*(..))",
+      returning = "resultado")
+  public void contarFilas(JoinPoint joinPoint, Object resultado) {
+    long filas;
+    if (resultado instanceof Collection<?> coleccion) {
+      filas = coleccion.size();
+    } else if (resultado instanceof Optional<?> opcional) {
+      filas = opcional.isPresent() ? 1 : 0;
+    } else {
+      return;
+    }
+    DistributionSummary.builder(FILAS_REPOSITORIOS)
+        .description("Filas devueltas por los métodos de repositorio")
+        .baseUnit("filas")
+        .tag("repositorio", repositorio(joinPoint))
+        .tag("metodo", joinPoint.getSignature().getName())
+        .register(meterRegistry)
+        .record(filas);
+  }
+
+  /**
+   * Devuelve el nombre del repositorio de la aplicación al que pertenece la llamada. Los repositorios de
+   * Spring Data son proxies, y los métodos heredados como {@code findAll} se declaran en interfaces de Spring.
+   */
+  private static String repositorio(JoinPoint joinPoint) {
+    for (Class<?> interfaz : joinPoint.getThis().getClass().getInterfaces()) {
+      if (interfaz.getPackageName().equals(PAQUETE_REPOSITORIOS)) {
+        return interfaz.getSimpleName();
+      }
+    }
+    return joinPoint.getSignature().getDeclaringType().getSimpleName();
+  }
+}
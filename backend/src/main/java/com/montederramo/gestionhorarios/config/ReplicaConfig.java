@@ -0,0 +1,103 @@
+package com.montederramo.gestionhorarios.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuración de la réplica de lectura.
+ * Solo se activa si se indica {@code replica.datasource.jdbc-url}; sin ella la aplicación usa un único pool como hasta ahora.
+ * Las transacciones de solo lectura ({@code @Transactional(readOnly = true)}: listados, informes y exportaciones)
+ * leen de la réplica y el resto de operaciones van a la base de datos principal. Si la réplica se retrasa más de
+ * {@code replica.retraso-maximo} o no responde, las lecturas vuelven a la principal hasta que se recupere.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "replica.datasource", name = "jdbc-url")
+public class ReplicaConfig {
+
+  /**
+   * Crea el pool de la base de datos principal con las propiedades {@code spring.datasource.*}, igual que lo haría
+   * Spring Boot si no hubiera réplica.
+   *
+   * @param propiedades Las propiedades {@code spring.datasource.*}.
+   * @return El pool de la base de datos principal.
+   * @since 1.1
+   */
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource principalDataSource(DataSourceProperties propiedades) {
+    return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  /**
+   * Lee la configuración del pool de la réplica de las propiedades {@code replica.datasource.*}, con los mismos
+   * nombres que {@code spring.datasource.hikari.*} ({@code jdbc-url}, {@code username}, {@code password}...).
+   *
+   * @return La configuración del pool de la réplica.
+   * @since 1.1
+   */
+  @Bean
+  @ConfigurationProperties("replica.datasource")
+  public HikariConfig replicaHikariConfig() {
+    HikariConfig config = new HikariConfig();
+    config.setPoolName("replica");
+    config.setReadOnly(true);
+    // Si la réplica no responde al arrancar, la aplicación arranca igualmente y lee de la principal.
+    config.setInitializationFailTimeout(-1);
+    return config;
+  }
+
+  /**
+   * Crea el pool de la réplica, que comprueba periódicamente su retraso y deriva las conexiones a la base de datos
+   * principal mientras no esté disponible.
+   *
+   * @param principal El pool de la base de datos principal.
+   * @param retrasoMaximo El retraso máximo admitido antes de dejar de leer de la réplica.
+   * @param meterRegistry El registro donde se publica el retraso.
+   * @return El origen de datos de las lecturas.
+   * @since 1.1
+   */
+  @Bean
+  public ReplicaDataSource replicaDataSource(HikariDataSource principal,
+      @Value("${replica.retraso-maximo:5s}") Duration retrasoMaximo, MeterRegistry meterRegistry) {
+    ReplicaDataSource replica =
+        new ReplicaDataSource(new HikariDataSource(replicaHikariConfig()), principal, retrasoMaximo);
+    meterRegistry.gauge(ReplicaDataSource.RETRASO, replica, ReplicaDataSource::retrasoEnSegundos);
+    return replica;
+  }
+
+  /**
+   * Crea el origen de datos que usan JPA y los repositorios JDBC.
+   * El proxy no pide la conexión hasta la primera sentencia; para entonces el gestor de transacciones ya ha marcado
+   * la conexión como de solo lectura si la transacción lo es, y el proxy la pide a la réplica en lugar de a la
+   * principal. Los repositorios JDBC que abren su propio {@code JdbcTemplate} con este origen de datos comparten
+   * la conexión de la transacción, así que siguen a la réplica o a la principal igual que JPA.
+   *
+   * @param principal El pool de la base de datos principal.
+   * @param replica El origen de datos de las lecturas.
+   * @return El origen de datos de la aplicación.
+   * @since 1.1
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(HikariDataSource principal, ReplicaDataSource replica) {
+    LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(principal);
+    proxy.setReadOnlyDataSource(replica);
+    return proxy;
+  }
+}
@@ -0,0 +1,137 @@
+package com.montederramo.gestionhorarios.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Origen de datos de las lecturas: entrega conexiones de la réplica mientras esté al día, y de la base de datos
+ * principal cuando se retrasa, deja de replicar o no responde.
+ * El retraso se comprueba periódicamente con {@code SHOW REPLICA STATUS} (MySQL 8.0.22 o posterior); si la consulta no
+ * devuelve filas, la base de datos no es una réplica y se considera al día. Hasta la primera comprobación las lecturas
+ * van a la principal.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+final class ReplicaDataSource extends DelegatingDataSource implements AutoCloseable {
+
+  /** Retraso de la réplica en segundos, o NaN si no se está leyendo de ella. */
+  static final String RETRASO = "gestionhorarios.replica.retraso";
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+  private final HikariDataSource replica;
+  private final DataSource principal;
+  private final long retrasoMaximo;
+  private final JdbcTemplate jdbcTemplate;
+
+  private volatile boolean disponible;
+  private volatile double retraso = Double.NaN;
+
+  /**
+   * Constructor del origen de datos.
+   *
+   * @param replica El pool de la réplica.
+   * @param principal El origen de datos al que se derivan las lecturas cuando la réplica no está disponible.
+   * @param retrasoMaximo El retraso máximo admitido.
+   * @since 1.1
+   */
+  ReplicaDataSource(HikariDataSource replica, DataSource principal, Duration retrasoMaximo) {
+    super(replica);
+    this.replica = replica;
+    this.principal = principal;
+    this.retrasoMaximo = retrasoMaximo.toSeconds();
+    this.jdbcTemplate = new JdbcTemplate(replica);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (disponible) {
+      try {
+        return replica.getConnection();
+      } catch (SQLException e) {
+        marcarNoDisponible("no responde: " + e.getMessage());
+      }
+    }
+    return principal.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    if (disponible) {
+      try {
+        return replica.getConnection(username, password);
+      } catch (SQLException e) {
+        marcarNoDisponible("no responde: " + e.getMessage());
+      }
+    }
+    return principal.getConnection(username, password);
+  }
+
+  /**
+   * Consulta el retraso de la réplica y decide si las lecturas pueden ir a ella.
+   *
+   * @since 1.1
+   */
+  @Scheduled(fixedDelayString = "${replica.comprobacion:5s}")
+  public void comprobarRetraso() {
+    Long segundos;
+    try {
+      segundos = jdbcTemplate.query("SHOW REPLICA STATUS",
+          rs -> rs.next() ? rs.getObject("Seconds_Behind_Source", Long.class) : Long.valueOf(0));
+    } catch (DataAccessException e) {
+      marcarNoDisponible("no responde: " + e.getMessage());
+      return;
+    }
+    if (segundos == null) {
+      marcarNoDisponible("no está replicando");
+    } else if (segundos > retrasoMaximo) {
+      marcarNoDisponible("lleva " + segundos + " s de retraso");
+    } else {
+      retraso = segundos;
+      if (!disponible) {
+        log.info("La réplica está al día ({} s de retraso); las lecturas vuelven a ella", segundos);
+        disponible = true;
+      }
+    }
+  }
+
+  /**
+   * Devuelve el último retraso medido mientras se lee de la réplica.
+   *
+   * @return El retraso en segundos, o NaN si las lecturas van a la base de datos principal.
+   * @since 1.1
+   */
+  double retrasoEnSegundos() {
+    return retraso;
+  }
+
+  /**
+   * Cierra el pool de la réplica al parar la aplicación.
+   *
+   * @since 1.1
+   */
+  @Override
+  public void close() {
+    replica.close();
+  }
+
+  private void marcarNoDisponible(String motivo) {
+    retraso = Double.NaN;
+    if (disponible) {
+      log.warn("La réplica {}; las lecturas van a la base de datos principal", motivo);
+      disponible = false;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.montederramo.gestionhorarios.controllers;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Lectura de los cuerpos de las peticiones PATCH, que solo traen los campos que cambian.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+final class CambiosParciales {
+
+  private CambiosParciales() {
+  }
+
+  /**
+   * Convierte los campos recibidos en una entidad, para que cada valor llegue con su tipo (fechas, horas...).
+   * Los campos que no aparecen en la petición quedan a null en la entidad; el servicio solo usa los recibidos.
+   *
+   * @param objectMapper El mapper JSON de la aplicación.
+   * @param cambios Los campos recibidos y sus nuevos valores.
+   * @param tipo La clase de la entidad.
+   * @param <T> El tipo de la entidad.
+   * @return Una entidad con los valores recibidos.
+   * @throws ResponseStatusException Con estado 400 (Bad Request) si se intenta cambiar el ID, si algún campo
+   *     no existe o es de solo lectura, o si algún valor no tiene el formato esperado.
+   * @since 1.1
+   */
+  static <T> T leer(ObjectMapper objectMapper, Map<String, Object> cambios, Class<T> tipo) {
+    if (cambios.containsKey("id")) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El campo id no se puede modificar");
+    }
+    try {
+      JsonNode arbol = objectMapper.valueToTree(cambios);
+      return objectMapper.readerFor(tipo)
+          .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES)
+          .readValue(arbol);
+    } catch (IOException | IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+    }
+  }
+}
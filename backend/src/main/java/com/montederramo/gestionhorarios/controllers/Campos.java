@@ -0,0 +1,59 @@
+package com.montederramo.gestionhorarios.controllers;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Lectura del parámetro {@code fields} de los listados, que elige qué campos de cada elemento se devuelven.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+final class Campos {
+
+  private Campos() {
+  }
+
+  /**
+   * Convierte una lista de campos separados por comas en un conjunto, comprobando que todos son campos
+   * que la entidad incluye en su JSON.
+   *
+   * @param objectMapper El mapper JSON de la aplicación.
+   * @param fields Los campos pedidos, separados por comas.
+   * @param tipo La clase de la entidad.
+   * @return Los campos pedidos, sin repetir y en el orden en que se pidieron.
+   * @throws ResponseStatusException Con estado 400 (Bad Request) si algún campo no existe o la lista está vacía.
+   * @since 1.1
+   */
+  static Set<String> leer(ObjectMapper objectMapper, String fields, Class<?> tipo) {
+    BeanDescription descripcion = objectMapper.getSerializationConfig()
+        .introspect(objectMapper.constructType(tipo));
+    Set<String> disponibles = descripcion.findProperties().stream()
+        .filter(BeanPropertyDefinition::couldSerialize)
+        .map(BeanPropertyDefinition::getName)
+        .collect(Collectors.toSet());
+    Set<String> campos = new LinkedHashSet<>();
+    for (String campo : fields.split(",")) {
+      String nombre = campo.trim();
+      if (nombre.isEmpty()) {
+        continue;
+      }
+      if (!disponibles.contains(nombre)) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El campo " + nombre + " no existe");
+      }
+      campos.add(nombre);
+    }
+    if (campos.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No se ha indicado ningún campo");
+    }
+    return campos;
+  }
+}
@@ -0,0 +1,35 @@
+package com.montederramo.gestionhorarios.controllers;
+
+import com.montederramo.gestionhorarios.services.VersionesTablas;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Cabeceras de las respuestas que admiten peticiones condicionales ({@code If-None-Match}, {@code If-Modified-Since}).
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+final class Condicionales {
+
+  private Condicionales() {
+  }
+
+  /**
+   * Crea las cabeceras de validación de una respuesta a partir de la versión de su tabla.
+   * {@code Cache-Control: no-cache} hace que el navegador guarde la respuesta pero la revalide en cada uso,
+   * de modo que solo la descarga de nuevo cuando la tabla ha cambiado.
+   *
+   * @param version La versión de la tabla leída antes de consultar los datos.
+   * @return Las cabeceras {@code ETag}, {@code Last-Modified} y {@code Cache-Control}.
+   * @since 1.1
+   */
+  static HttpHeaders cabeceras(VersionesTablas.Version version) {
+    HttpHeaders cabeceras = new HttpHeaders();
+    cabeceras.setETag(version.etag());
+    cabeceras.setLastModified(version.modificada());
+    cabeceras.setCacheControl(CacheControl.noCache().cachePrivate());
+    return cabeceras;
+  }
+}
@@ -0,0 +1,64 @@
+package com.montederramo.gestionhorarios.controllers;
+
+import com.montederramo.gestionhorarios.services.DisponibilidadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Controlador que consulta qué empleados están disponibles, es decir, trabajando y no en un descanso.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@RestController
+@RequestMapping("/api/disponibilidad")
+@CrossOrigin
+public class DisponibilidadController {
+
+  private final DisponibilidadService disponibilidadService;
+
+  /**
+   * Constructor del controlador.
+   *
+   * @param disponibilidadService Servicio que mantiene el índice de disponibilidad.
+   * @since 1.1
+   */
+  @Autowired
+  public DisponibilidadController(DisponibilidadService disponibilidadService) {
+    this.disponibilidadService = disponibilidadService;
+  }
+
+  /**
+   * Obtiene los IDs de los empleados que están trabajando, y no en un descanso, durante todo un intervalo de un día.
+   * Si el intervalo no es válido, devuelve un estado 400 (Bad Request).
+   * Si no hay ningún empleado disponible, devuelve un estado 204 (No Content).
+   *
+   * @param fecha El día, en formato ISO (yyyy-MM-dd).
+   * @param desde La hora de inicio del intervalo, en formato ISO (HH:mm).
+   * @param hasta La hora de fin del intervalo, en formato ISO (HH:mm), posterior a la de inicio.
+   * @return Los IDs de los empleados disponibles en formato JSON, o un estado 204 (No Content) si no hay ninguno.
+   * @since 1.1
+   */
+  @GetMapping
+  public ResponseEntity<List<Integer>> obtenerEmpleadosDisponibles(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime desde,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime hasta) {
+    if (!hasta.isAfter(desde)) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+    List<Integer> empleados = disponibilidadService.obtenerEmpleadosDisponibles(fecha, desde, hasta);
+    if (empleados.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(empleados, HttpStatus.OK); // 200 OK
+  }
+}
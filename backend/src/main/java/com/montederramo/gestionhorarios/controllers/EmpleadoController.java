@@ -1,23 +1,42 @@
 package com.montederramo.gestionhorarios.controllers;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.montederramo.gestionhorarios.dto.Empleado;
+import com.montederramo.gestionhorarios.dto.Jornada;
+import com.montederramo.gestionhorarios.dto.JornadaCompleta;
+import com.montederramo.gestionhorarios.dto.JornadaTotales;
+import com.montederramo.gestionhorarios.dto.SesionDescanso;
+import com.montederramo.gestionhorarios.dto.SesionTrabajo;
 import com.montederramo.gestionhorarios.services.EmpleadoService;
+import com.montederramo.gestionhorarios.services.JornadaService;
+import com.montederramo.gestionhorarios.services.JornadaTotalesService;
+import com.montederramo.gestionhorarios.services.SesionDescansoService;
+import com.montederramo.gestionhorarios.services.SesionTrabajoService;
+import com.montederramo.gestionhorarios.services.VersionesTablas;
 
 import jakarta.validation.Valid;
 
@@ -35,33 +54,87 @@ import jakarta.validation.Valid;
 public class EmpleadoController {
 
   private final EmpleadoService empleadoService;
+  private final JornadaService jornadaService;
+  private final SesionTrabajoService sesionTrabajoService;
+  private final SesionDescansoService sesionDescansoService;
+  private final JornadaTotalesService jornadaTotalesService;
+  private final ObjectMapper objectMapper;
+  private final VersionesTablas versionesTablas;
 
   /**
    * Constructor del controlador.
    *
    * @param empleadoService Servicio para gestionar las operaciones relacionadas con los empleados.
+   * @param jornadaService Servicio para consultar las jornadas de cada empleado.
+   * @param sesionTrabajoService Servicio para consultar las sesiones de trabajo de cada empleado.
+   * @param sesionDescansoService Servicio para consultar las sesiones de descanso de cada empleado.
+   * @param jornadaTotalesService Servicio para consultar los totales precalculados de cada jornada.
+   * @param objectMapper El mapper JSON usado en los listados en streaming.
+   * @param versionesTablas El contador de versiones de las tablas, con el que se calculan los ETags.
    * @since 1.0
    */
   @Autowired
-  public EmpleadoController(EmpleadoService empleadoService) {
+  public EmpleadoController(EmpleadoService empleadoService, JornadaService jornadaService,
+      SesionTrabajoService sesionTrabajoService, SesionDescansoService sesionDescansoService,
+      JornadaTotalesService jornadaTotalesService, ObjectMapper objectMapper, VersionesTablas versionesTablas) {
     this.empleadoService = empleadoService;
+    this.jornadaService = jornadaService;
+    this.sesionTrabajoService = sesionTrabajoService;
+    this.sesionDescansoService = sesionDescansoService;
+    this.jornadaTotalesService = jornadaTotalesService;
+    this.objectMapper = objectMapper;
+    this.versionesTablas = versionesTablas;
   }
 
   /**
    * Obtiene una lista de todos los empleados.
    * Si la lista está vacía, devuelve un estado 204 (No Content).
    * De lo contrario, devuelve la lista con un estado 200 (OK).
+   * Si se indica {@code after} o {@code limit}, devuelve solo una página ordenada por ID que empieza
+   * justo después de {@code after}; el último ID de la página sirve como cursor para pedir la siguiente.
+   * La respuesta lleva un ETag que cambia con cada escritura en la tabla; si la petición trae ese ETag en
+   * {@code If-None-Match}, devuelve un estado 304 (Not Modified) sin consultar la base de datos.
    *
+   * @param after El ID a partir del cual se devuelve la página (excluido). Opcional.
+   * @param limit El tamaño de página, entre 1 y {@value Paginacion#LIMITE_MAXIMO}. Opcional.
+   * @param fields Los campos de cada elemento que se devuelven, separados por comas (por ejemplo
+   *     {@code fields=nombre,apellido}); el id se incluye siempre. Solo se leen esas columnas. Opcional.
+   * @param peticion La petición, con sus cabeceras condicionales.
    * @return Una lista de empleados en formato JSON o un estado 204 (No Content) si no hay empleados.
    * @since 1.0
    */
   @GetMapping
-  public ResponseEntity<List<Empleado>> obtenerEmpleados() {
-    List<Empleado> empleados = empleadoService.obtenerEmpleados();
+  public ResponseEntity<List<?>> obtenerEmpleados(@RequestParam(required = false) Integer after,
+      @RequestParam(required = false) Integer limit, @RequestParam(required = false) String fields,
+      WebRequest peticion) {
+    VersionesTablas.Version version = versionesTablas.version(VersionesTablas.EMPLEADOS);
+    if (peticion.checkNotModified(version.etag(), version.modificada())) {
+      return new ResponseEntity<>(Condicionales.cabeceras(version), HttpStatus.NOT_MODIFIED); // 304 Not Modified
+    }
+    Integer limite = (after == null && limit == null) ? null : Paginacion.limite(limit);
+    List<?> empleados;
+    if (fields != null) {
+      empleados = empleadoService.obtenerEmpleados(Campos.leer(objectMapper, fields, Empleado.class), after, limite);
+    } else {
+      empleados = limite == null ? empleadoService.obtenerEmpleados() : empleadoService.obtenerEmpleados(after, limite);
+    }
     if (empleados.isEmpty()) {
-      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+      return new ResponseEntity<>(Condicionales.cabeceras(version), HttpStatus.NO_CONTENT); // 204 No Content
     }
-    return new ResponseEntity<>(empleados, HttpStatus.OK); // 200 OK
+    return new ResponseEntity<>(empleados, Condicionales.cabeceras(version), HttpStatus.OK); // 200 OK
+  }
+
+  /**
+   * Devuelve todos los empleados como un array JSON escrito en streaming.
+   * Las filas se serializan según se leen del cursor de la base de datos, por lo que la memoria usada
+   * no depende del tamaño de la tabla.
+   *
+   * @return Un array JSON con los empleados, con un estado 200 (OK).
+   * @since 1.1
+   */
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamEmpleados() {
+    return new ResponseEntity<>(Paginacion.enStreaming(objectMapper, empleadoService::recorrerEmpleados), HttpStatus.OK); // 200 OK
   }
 
   /**
@@ -115,6 +188,27 @@ public class EmpleadoController {
     return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
   }
 
+  /**
+   * Actualiza solo los campos enviados de el empleado, sin tocar el resto.
+   * Si la actualización es exitosa, devuelve un estado 204 (No Content).
+   * Si el empleado no se encuentra, devuelve un estado 404 (Not Found), y si algún campo no existe o no es válido,
+   * un estado 400 (Bad Request).
+   * Si se envía {@code version} y el empleado ha cambiado desde esa versión, devuelve un estado 409 (Conflict).
+   *
+   * @param id El ID de el empleado a actualizar.
+   * @param cambios Los campos a cambiar y sus nuevos valores.
+   * @return Un estado indicando si la operación fue exitosa o no.
+   * @since 1.1
+   */
+  @PatchMapping("/{id}")
+  public ResponseEntity<Void> actualizarParcialmenteEmpleado(@PathVariable Integer id, @RequestBody Map<String, Object> cambios) {
+    Empleado empleado = CambiosParciales.leer(objectMapper, cambios, Empleado.class);
+    if (empleadoService.actualizarParcialmenteEmpleado(id, empleado, cambios.keySet())) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
+  }
+
   /**
    * Elimina un empleado por su ID.
    * Si el empleado se elimina con éxito, devuelve un estado 204 (No Content).
@@ -131,4 +225,131 @@ public class EmpleadoController {
     }
     return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
   }
+
+  /**
+   * Obtiene las jornadas de un empleado entre dos días, ambos incluidos.
+   * Si el rango no es válido, devuelve un estado 400 (Bad Request).
+   * Si no hay jornadas en el rango, devuelve un estado 204 (No Content).
+   *
+   * @param id El ID del empleado.
+   * @param from El primer día del rango, en formato ISO (yyyy-MM-dd).
+   * @param to El último día del rango, en formato ISO (yyyy-MM-dd).
+   * @return Una lista de jornadas en formato JSON, o un estado 204 (No Content) si no hay ninguna.
+   * @since 1.1
+   */
+  @GetMapping("/{id}/jornadas")
+  public ResponseEntity<List<Jornada>> obtenerJornadasDeEmpleado(@PathVariable Integer id,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    if (to.isBefore(from)) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+    List<Jornada> jornadas = jornadaService.obtenerJornadasPorEmpleado(id, from, to);
+    if (jornadas.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(jornadas, HttpStatus.OK); // 200 OK
+  }
+
+  /**
+   * Obtiene las jornadas de un empleado entre dos días, ambos incluidos, cada una con sus sesiones de trabajo
+   * y de descanso, en una sola petición.
+   * Si el rango no es válido, devuelve un estado 400 (Bad Request).
+   * Si no hay jornadas en el rango, devuelve un estado 204 (No Content).
+   *
+   * @param id El ID del empleado.
+   * @param from El primer día del rango, en formato ISO (yyyy-MM-dd).
+   * @param to El último día del rango, en formato ISO (yyyy-MM-dd).
+   * @return Una lista de jornadas completas en formato JSON, o un estado 204 (No Content) si no hay ninguna.
+   * @since 1.1
+   */
+  @GetMapping("/{id}/jornadas/completas")
+  public ResponseEntity<List<JornadaCompleta>> obtenerJornadasCompletasDeEmpleado(@PathVariable Integer id,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    if (to.isBefore(from)) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+    List<JornadaCompleta> jornadas = jornadaService.obtenerJornadasCompletasPorEmpleado(id, from, to);
+    if (jornadas.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(jornadas, HttpStatus.OK); // 200 OK
+  }
+
+  /**
+   * Obtiene las sesiones de trabajo de un empleado entre dos días, ambos incluidos.
+   * Si el rango no es válido, devuelve un estado 400 (Bad Request).
+   * Si no hay sesiones de trabajo en el rango, devuelve un estado 204 (No Content).
+   *
+   * @param id El ID del empleado.
+   * @param from El primer día del rango, en formato ISO (yyyy-MM-dd).
+   * @param to El último día del rango, en formato ISO (yyyy-MM-dd).
+   * @return Una lista de sesiones de trabajo en formato JSON, o un estado 204 (No Content) si no hay ninguna.
+   * @since 1.1
+   */
+  @GetMapping("/{id}/sesionesTrabajo")
+  public ResponseEntity<List<SesionTrabajo>> obtenerSesionesTrabajoDeEmpleado(@PathVariable Integer id,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    if (to.isBefore(from)) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+    List<SesionTrabajo> sesionesTrabajo = sesionTrabajoService.obtenerSesionTrabajosPorEmpleado(id, from, to);
+    if (sesionesTrabajo.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(sesionesTrabajo, HttpStatus.OK); // 200 OK
+  }
+
+  /**
+   * Obtiene las sesiones de descanso de un empleado entre dos días, ambos incluidos.
+   * Si el rango no es válido, devuelve un estado 400 (Bad Request).
+   * Si no hay sesiones de descanso en el rango, devuelve un estado 204 (No Content).
+   *
+   * @param id El ID del empleado.
+   * @param from El primer día del rango, en formato ISO (yyyy-MM-dd).
+   * @param to El último día del rango, en formato ISO (yyyy-MM-dd).
+   * @return Una lista de sesiones de descanso en formato JSON, o un estado 204 (No Content) si no hay ninguna.
+   * @since 1.1
+   */
+  @GetMapping("/{id}/sesionesDescanso")
+  public ResponseEntity<List<SesionDescanso>> obtenerSesionesDescansoDeEmpleado(@PathVariable Integer id,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    if (to.isBefore(from)) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+    List<SesionDescanso> sesionesDescanso = sesionDescansoService.obtenerSesionDescansosPorEmpleado(id, from, to);
+    if (sesionesDescanso.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(sesionesDescanso, HttpStatus.OK); // 200 OK
+  }
+
+  /**
+   * Obtiene los totales precalculados de las jornadas de un empleado entre dos días, ambos incluidos.
+   * Cada jornada se resuelve con una sola fila, sin recorrer sus sesiones.
+   * Si el rango no es válido, devuelve un estado 400 (Bad Request).
+   * Si no hay totales en el rango, devuelve un estado 204 (No Content).
+   *
+   * @param id El ID del empleado.
+   * @param from El primer día del rango, en formato ISO (yyyy-MM-dd).
+   * @param to El último día del rango, en formato ISO (yyyy-MM-dd).
+   * @return Una lista con los totales de cada jornada en formato JSON, o un estado 204 (No Content) si no hay ninguno.
+   * @since 1.1
+   */
+  @GetMapping("/{id}/totales")
+  public ResponseEntity<List<JornadaTotales>> obtenerTotalesDeEmpleado(@PathVariable Integer id,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    if (to.isBefore(from)) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+    List<JornadaTotales> totales = jornadaTotalesService.obtenerTotalesPorEmpleado(id, from, to);
+    if (totales.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(totales, HttpStatus.OK); // 200 OK
+  }
 }
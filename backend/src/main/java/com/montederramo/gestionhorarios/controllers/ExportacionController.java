@@ -0,0 +1,75 @@
+package com.montederramo.gestionhorarios.controllers;
+
+import com.montederramo.gestionhorarios.services.ExportacionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Controlador que expone las exportaciones de horas para nóminas.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@RestController
+@RequestMapping("/api/exportaciones")
+@CrossOrigin
+public class ExportacionController {
+
+  /** Tipo MIME de los ficheros CSV. */
+  private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+  private final ExportacionService exportacionService;
+
+  /**
+   * Constructor del controlador.
+   *
+   * @param exportacionService Servicio que genera las exportaciones.
+   * @since 1.1
+   */
+  @Autowired
+  public ExportacionController(ExportacionService exportacionService) {
+    this.exportacionService = exportacionService;
+  }
+
+  /**
+   * Descarga una fila por cada sesión de trabajo de las jornadas entre dos días, ambos incluidos,
+   * con los datos del empleado y la duración de la sesión en segundos.
+   * El fichero se escribe en streaming según se lee de la base de datos, así que la descarga empieza
+   * de inmediato y la memoria usada no depende del rango.
+   * Si el rango o el formato no son válidos, devuelve un estado 400 (Bad Request).
+   *
+   * @param from El primer día de la exportación, en formato ISO (yyyy-MM-dd).
+   * @param to El último día de la exportación, en formato ISO (yyyy-MM-dd).
+   * @param formato El formato del fichero. Solo se admite {@code csv}, que es el valor por defecto.
+   * @param empleadoId Limita la exportación a un empleado. Opcional.
+   * @return El fichero como adjunto.
+   * @since 1.1
+   */
+  @GetMapping("/horas")
+  public ResponseEntity<StreamingResponseBody> exportarHoras(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(defaultValue = "csv") String formato,
+      @RequestParam(required = false) Integer empleadoId) {
+    if (to.isBefore(from) || !formato.equalsIgnoreCase("csv")) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+    HttpHeaders cabeceras = new HttpHeaders();
+    cabeceras.setContentType(TEXT_CSV);
+    cabeceras.setContentDisposition(ContentDisposition.attachment()
+        .filename("horas-" + from + "-" + to + ".csv").build());
+    StreamingResponseBody cuerpo = salida -> exportacionService.exportarHorasCsv(from, to, empleadoId, salida);
+    return new ResponseEntity<>(cuerpo, cabeceras, HttpStatus.OK); // 200 OK
+  }
+}
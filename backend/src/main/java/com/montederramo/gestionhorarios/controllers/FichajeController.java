@@ -0,0 +1,105 @@
+package com.montederramo.gestionhorarios.controllers;
+
+import com.montederramo.gestionhorarios.dto.Fichaje;
+import com.montederramo.gestionhorarios.services.EmpleadoService;
+import com.montederramo.gestionhorarios.services.FichajeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+/**
+ * Controlador para los fichajes de los empleados.
+ * Cada acción del reloj de fichaje es una sola llamada; el servidor busca o crea la jornada
+ * y abre o cierra la sesión correspondiente.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@RestController
+@RequestMapping("/api/fichajes")
+@CrossOrigin
+public class FichajeController {
+
+  private final FichajeService fichajeService;
+  private final EmpleadoService empleadoService;
+
+  /**
+   * Constructor del controlador.
+   *
+   * @param fichajeService Servicio que registra los fichajes.
+   * @param empleadoService Servicio para comprobar que el empleado existe.
+   * @since 1.1
+   */
+  @Autowired
+  public FichajeController(FichajeService fichajeService, EmpleadoService empleadoService) {
+    this.fichajeService = fichajeService;
+    this.empleadoService = empleadoService;
+  }
+
+  /**
+   * Empieza a trabajar.
+   * Devuelve un estado 200 (OK) con el fichaje, 404 (Not Found) si el empleado no existe
+   * o 409 (Conflict) si ya estaba trabajando o su jornada de hoy tiene una sesión que termina después de ahora.
+   *
+   * @param empleadoId El ID del empleado.
+   * @return El fichaje registrado en formato JSON.
+   * @since 1.1
+   */
+  @PostMapping("/{empleadoId}/inicio")
+  public ResponseEntity<Fichaje> iniciar(@PathVariable Integer empleadoId) {
+    if (empleadoService.obtenerEmpleadoPorId(empleadoId).isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
+    }
+    return responder(fichajeService.iniciar(empleadoId));
+  }
+
+  /**
+   * Empieza un descanso.
+   * Devuelve un estado 200 (OK) con el fichaje o 409 (Conflict) si el empleado no estaba trabajando.
+   *
+   * @param empleadoId El ID del empleado.
+   * @return El fichaje registrado en formato JSON.
+   * @since 1.1
+   */
+  @PostMapping("/{empleadoId}/pausa")
+  public ResponseEntity<Fichaje> pausar(@PathVariable Integer empleadoId) {
+    return responder(fichajeService.pausar(empleadoId));
+  }
+
+  /**
+   * Termina el descanso y vuelve al trabajo.
+   * Devuelve un estado 200 (OK) con el fichaje o 409 (Conflict) si el empleado no estaba en un descanso.
+   *
+   * @param empleadoId El ID del empleado.
+   * @return El fichaje registrado en formato JSON.
+   * @since 1.1
+   */
+  @PostMapping("/{empleadoId}/reanudar")
+  public ResponseEntity<Fichaje> reanudar(@PathVariable Integer empleadoId) {
+    return responder(fichajeService.reanudar(empleadoId));
+  }
+
+  /**
+   * Termina el trabajo, cerrando también el descanso abierto si lo hay.
+   * Devuelve un estado 200 (OK) con el fichaje o 409 (Conflict) si el empleado no estaba trabajando.
+   *
+   * @param empleadoId El ID del empleado.
+   * @return El fichaje registrado en formato JSON.
+   * @since 1.1
+   */
+  @PostMapping("/{empleadoId}/fin")
+  public ResponseEntity<Fichaje> finalizar(@PathVariable Integer empleadoId) {
+    return responder(fichajeService.finalizar(empleadoId));
+  }
+
+  private ResponseEntity<Fichaje> responder(Optional<Fichaje> fichaje) {
+    if (fichaje.isPresent()) {
+      return new ResponseEntity<>(fichaje.get(), HttpStatus.OK); // 200 OK
+    }
+    return new ResponseEntity<>(HttpStatus.CONFLICT); // 409 Conflict
+  }
+}
@@ -0,0 +1,108 @@
+package com.montederramo.gestionhorarios.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.montederramo.gestionhorarios.dto.ProgresoImportacion;
+import com.montederramo.gestionhorarios.services.ImportadorCsv;
+import com.montederramo.gestionhorarios.services.LectorCsv;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Controlador que expone las importaciones masivas en CSV.
+ * El fichero se envía como cuerpo de la petición ({@code Content-Type: text/csv}) y se procesa según llega,
+ * y la respuesta es un flujo NDJSON con una línea de {@link ProgresoImportacion} por cada lote guardado.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@RestController
+@RequestMapping("/api/importaciones")
+@CrossOrigin
+public class ImportacionController {
+
+  private final ImportadorCsv importadorCsv;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Constructor del controlador.
+   *
+   * @param importadorCsv El componente que procesa los ficheros por lotes.
+   * @param objectMapper El mapper JSON con el que se escribe el progreso.
+   * @since 1.1
+   */
+  @Autowired
+  public ImportacionController(ImportadorCsv importadorCsv, ObjectMapper objectMapper) {
+    this.importadorCsv = importadorCsv;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Importa empleados desde un CSV con las columnas {@code nombre} (obligatoria), {@code apellido}, {@code correo},
+   * {@code rol}, {@code equipo} y {@code foto_url}, y opcionalmente {@code id} para actualizar empleados existentes.
+   * Si falta alguna columna obligatoria, devuelve un estado 400 (Bad Request).
+   *
+   * @param cuerpo El contenido del fichero.
+   * @return El progreso de la importación en formato NDJSON.
+   * @throws IOException Si falla la lectura de la cabecera.
+   * @since 1.1
+   */
+  @PostMapping(value = "/empleados", consumes = "text/csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> importarEmpleados(InputStream cuerpo) throws IOException {
+    return importar(cuerpo, ImportadorCsv.COLUMNAS_EMPLEADOS, importadorCsv::importarEmpleados);
+  }
+
+  /**
+   * Importa sesiones históricas desde un CSV con las columnas {@code empleado_id}, {@code fecha} e {@code inicio}
+   * (obligatorias), {@code fin} y {@code tipo}. Acepta directamente los ficheros de la exportación de horas.
+   * Si falta alguna columna obligatoria, devuelve un estado 400 (Bad Request).
+   *
+   * @param cuerpo El contenido del fichero.
+   * @return El progreso de la importación en formato NDJSON.
+   * @throws IOException Si falla la lectura de la cabecera.
+   * @since 1.1
+   */
+  @PostMapping(value = "/sesiones", consumes = "text/csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> importarSesiones(InputStream cuerpo) throws IOException {
+    return importar(cuerpo, ImportadorCsv.COLUMNAS_SESIONES, importadorCsv::importarSesiones);
+  }
+
+  private ResponseEntity<StreamingResponseBody> importar(InputStream cuerpo, Set<String> columnas,
+      Importacion importacion) throws IOException {
+    LectorCsv lector = new LectorCsv(cuerpo);
+    if (!lector.tieneColumnas(columnas)) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+    StreamingResponseBody respuesta = salida -> {
+      try (lector; JsonGenerator generador = objectMapper.createGenerator(salida)) {
+        importacion.importar(lector, progreso -> {
+          try {
+            generador.writeObject(progreso);
+            generador.writeRaw('\n');
+            generador.flush();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      }
+    };
+    return new ResponseEntity<>(respuesta, HttpStatus.OK); // 200 OK
+  }
+
+  /** Una de las importaciones de {@link ImportadorCsv}. */
+  @FunctionalInterface
+  private interface Importacion {
+    void importar(LectorCsv lector, Consumer<ProgresoImportacion> progreso) throws IOException;
+  }
+}
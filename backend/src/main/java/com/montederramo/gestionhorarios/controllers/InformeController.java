@@ -0,0 +1,76 @@
+package com.montederramo.gestionhorarios.controllers;
+
+import com.montederramo.gestionhorarios.dto.AgrupacionInforme;
+import com.montederramo.gestionhorarios.dto.InformeHoras;
+import com.montederramo.gestionhorarios.dto.PeriodoInforme;
+import com.montederramo.gestionhorarios.services.InformeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Controlador que expone los informes de horas trabajadas.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@RestController
+@RequestMapping("/api/informes")
+@CrossOrigin
+public class InformeController {
+
+  private final InformeService informeService;
+
+  /**
+   * Constructor del controlador.
+   *
+   * @param informeService Servicio que calcula los informes.
+   * @since 1.1
+   */
+  @Autowired
+  public InformeController(InformeService informeService) {
+    this.informeService = informeService;
+  }
+
+  /**
+   * Obtiene los minutos trabajados, de descanso y extra entre dos días, ambos incluidos.
+   * Si el rango, el periodo o la agrupación no son válidos, devuelve un estado 400 (Bad Request).
+   * Si no hay sesiones en el rango, devuelve un estado 204 (No Content).
+   *
+   * @param from El primer día del informe, en formato ISO (yyyy-MM-dd).
+   * @param to El último día del informe, en formato ISO (yyyy-MM-dd).
+   * @param periodo {@code dia}, {@code semana} o {@code mes}. Por defecto {@code dia}.
+   * @param agrupacion {@code empleado} o {@code equipo}. Por defecto {@code empleado}.
+   * @param empleadoId Limita el informe a un empleado. Opcional.
+   * @param equipo Limita el informe a un equipo. Opcional.
+   * @return Las filas del informe en formato JSON.
+   * @since 1.1
+   */
+  @GetMapping("/horas")
+  public ResponseEntity<List<InformeHoras>> obtenerInformeHoras(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(defaultValue = "dia") String periodo,
+      @RequestParam(defaultValue = "empleado") String agrupacion,
+      @RequestParam(required = false) Integer empleadoId,
+      @RequestParam(required = false) String equipo) {
+    Optional<PeriodoInforme> periodoInforme = PeriodoInforme.desde(periodo);
+    Optional<AgrupacionInforme> agrupacionInforme = AgrupacionInforme.desde(agrupacion);
+    if (to.isBefore(from) || periodoInforme.isEmpty() || agrupacionInforme.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+    List<InformeHoras> informe = informeService.calcularHoras(from, to, periodoInforme.get(),
+        agrupacionInforme.get(), empleadoId, equipo);
+    if (informe.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(informe, HttpStatus.OK); // 200 OK
+  }
+}
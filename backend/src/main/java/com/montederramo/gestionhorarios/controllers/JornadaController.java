@@ -1,14 +1,25 @@
 package com.montederramo.gestionhorarios.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.montederramo.gestionhorarios.dto.Jornada;
+import com.montederramo.gestionhorarios.dto.JornadaCompleta;
+import com.montederramo.gestionhorarios.dto.JornadaTotales;
+import com.montederramo.gestionhorarios.dto.SesionDescanso;
+import com.montederramo.gestionhorarios.dto.SesionTrabajo;
 import com.montederramo.gestionhorarios.services.JornadaService;
+import com.montederramo.gestionhorarios.services.JornadaTotalesService;
+import com.montederramo.gestionhorarios.services.SesionDescansoService;
+import com.montederramo.gestionhorarios.services.SesionTrabajoService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -25,35 +36,75 @@ import java.util.Optional;
 public class JornadaController {
 
   private final JornadaService jornadaService;
+  private final SesionTrabajoService sesionTrabajoService;
+  private final SesionDescansoService sesionDescansoService;
+  private final JornadaTotalesService jornadaTotalesService;
+  private final ObjectMapper objectMapper;
 
   /**
    * Constructor del controlador.
    *
    * @param jornadaService Servicio para gestionar las operaciones relacionadas con los jornadas.
+   * @param sesionTrabajoService Servicio para consultar las sesiones de trabajo de cada jornada.
+   * @param sesionDescansoService Servicio para consultar las sesiones de descanso de cada jornada.
+   * @param jornadaTotalesService Servicio para consultar los totales precalculados de cada jornada.
+   * @param objectMapper El mapper JSON usado en los listados en streaming.
    * @since 1.0
    */
   @Autowired
-  public JornadaController(JornadaService jornadaService) {
+  public JornadaController(JornadaService jornadaService, SesionTrabajoService sesionTrabajoService,
+      SesionDescansoService sesionDescansoService, JornadaTotalesService jornadaTotalesService,
+      ObjectMapper objectMapper) {
     this.jornadaService = jornadaService;
+    this.sesionTrabajoService = sesionTrabajoService;
+    this.sesionDescansoService = sesionDescansoService;
+    this.jornadaTotalesService = jornadaTotalesService;
+    this.objectMapper = objectMapper;
   }
 
   /**
    * Obtiene una lista de todos los jornadas.
    * Si la lista está vacía, devuelve un estado 204 (No Content).
    * De lo contrario, devuelve la lista con un estado 200 (OK).
+   * Si se indica {@code after} o {@code limit}, devuelve solo una página ordenada por ID que empieza
+   * justo después de {@code after}; el último ID de la página sirve como cursor para pedir la siguiente.
    *
+   * @param after El ID a partir del cual se devuelve la página (excluido). Opcional.
+   * @param limit El tamaño de página, entre 1 y {@value Paginacion#LIMITE_MAXIMO}. Opcional.
+   * @param fields Los campos de cada elemento que se devuelven, separados por comas (por ejemplo
+   *     {@code fields=fecha,empleadoId}); el id se incluye siempre. Solo se leen esas columnas. Opcional.
    * @return Una lista de jornadas en formato JSON o un estado 204 (No Content) si no hay jornadas.
    * @since 1.0
    */
   @GetMapping
-  public ResponseEntity<List<Jornada>> obtenerJornadas() {
-    List<Jornada> jornadas = jornadaService.obtenerJornadas();
+  public ResponseEntity<List<?>> obtenerJornadas(@RequestParam(required = false) Integer after,
+      @RequestParam(required = false) Integer limit, @RequestParam(required = false) String fields) {
+    Integer limite = (after == null && limit == null) ? null : Paginacion.limite(limit);
+    List<?> jornadas;
+    if (fields != null) {
+      jornadas = jornadaService.obtenerJornadas(Campos.leer(objectMapper, fields, Jornada.class), after, limite);
+    } else {
+      jornadas = limite == null ? jornadaService.obtenerJornadas() : jornadaService.obtenerJornadas(after, limite);
+    }
     if (jornadas.isEmpty()) {
       return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
     }
     return new ResponseEntity<>(jornadas, HttpStatus.OK); // 200 OK
   }
 
+  /**
+   * Devuelve todas las jornadas como un array JSON escrito en streaming.
+   * Las filas se serializan según se leen del cursor de la base de datos, por lo que la memoria usada
+   * no depende del tamaño de la tabla.
+   *
+   * @return Un array JSON con las jornadas, con un estado 200 (OK).
+   * @since 1.1
+   */
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamJornadas() {
+    return new ResponseEntity<>(Paginacion.enStreaming(objectMapper, jornadaService::recorrerJornadas), HttpStatus.OK); // 200 OK
+  }
+
   /**
    * Obtiene una jornada específico por su ID.
    * Si la jornada existe, devuelve un estado 200 (OK).
@@ -72,6 +123,24 @@ public class JornadaController {
     return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
   }
 
+  /**
+   * Obtiene una jornada con su empleado y todas sus sesiones de trabajo y de descanso, en una sola petición.
+   * Si la jornada existe, devuelve un estado 200 (OK).
+   * Si no se encuentra la jornada, devuelve un estado 404 (Not Found).
+   *
+   * @param id El ID de la jornada.
+   * @return La jornada completa en formato JSON, o un error 404 si no se encuentra.
+   * @since 1.1
+   */
+  @GetMapping("/{id}/completa")
+  public ResponseEntity<JornadaCompleta> obtenerJornadaCompleta(@PathVariable Integer id) {
+    Optional<JornadaCompleta> jornada = jornadaService.obtenerJornadaCompleta(id);
+    if (jornada.isPresent()) {
+      return new ResponseEntity<>(jornada.get(), HttpStatus.OK); // 200 OK
+    }
+    return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
+  }
+
   /**
    * Crea un nuevo jornada.
    * Si la creación es exitosa, devuelve un estado 201 (Created).
@@ -105,6 +174,27 @@ public class JornadaController {
     return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
   }
 
+  /**
+   * Actualiza solo los campos enviados de la jornada, sin tocar el resto.
+   * Si la actualización es exitosa, devuelve un estado 204 (No Content).
+   * Si la jornada no se encuentra, devuelve un estado 404 (Not Found), y si algún campo no existe o no es válido,
+   * un estado 400 (Bad Request).
+   * Si se envía {@code version} y la jornada ha cambiado desde esa versión, devuelve un estado 409 (Conflict).
+   *
+   * @param id El ID de la jornada a actualizar.
+   * @param cambios Los campos a cambiar y sus nuevos valores.
+   * @return Un estado indicando si la operación fue exitosa o no.
+   * @since 1.1
+   */
+  @PatchMapping("/{id}")
+  public ResponseEntity<Void> actualizarParcialmenteJornada(@PathVariable Integer id, @RequestBody Map<String, Object> cambios) {
+    Jornada jornada = CambiosParciales.leer(objectMapper, cambios, Jornada.class);
+    if (jornadaService.actualizarParcialmenteJornada(id, jornada, cambios.keySet())) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
+  }
+
   /**
    * Elimina una jornada por su ID.
    * Si la jornada se elimina con éxito, devuelve un estado 204 (No Content).
@@ -121,4 +211,55 @@ public class JornadaController {
     }
     return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
   }
+
+  /**
+   * Obtiene las sesiones de trabajo de una jornada ordenadas por hora de inicio.
+   * Si la jornada no tiene sesiones de trabajo, devuelve un estado 204 (No Content).
+   *
+   * @param id El ID de la jornada.
+   * @return Una lista de sesiones de trabajo en formato JSON, o un estado 204 (No Content) si no hay ninguna.
+   * @since 1.1
+   */
+  @GetMapping("/{id}/sesionesTrabajo")
+  public ResponseEntity<List<SesionTrabajo>> obtenerSesionesTrabajoDeJornada(@PathVariable Integer id) {
+    List<SesionTrabajo> sesionesTrabajo = sesionTrabajoService.obtenerSesionTrabajosPorJornada(id);
+    if (sesionesTrabajo.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(sesionesTrabajo, HttpStatus.OK); // 200 OK
+  }
+
+  /**
+   * Obtiene las sesiones de descanso de una jornada ordenadas por hora de inicio.
+   * Si la jornada no tiene sesiones de descanso, devuelve un estado 204 (No Content).
+   *
+   * @param id El ID de la jornada.
+   * @return Una lista de sesiones de descanso en formato JSON, o un estado 204 (No Content) si no hay ninguna.
+   * @since 1.1
+   */
+  @GetMapping("/{id}/sesionesDescanso")
+  public ResponseEntity<List<SesionDescanso>> obtenerSesionesDescansoDeJornada(@PathVariable Integer id) {
+    List<SesionDescanso> sesionesDescanso = sesionDescansoService.obtenerSesionDescansosPorJornada(id);
+    if (sesionesDescanso.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(sesionesDescanso, HttpStatus.OK); // 200 OK
+  }
+
+  /**
+   * Obtiene los totales precalculados de una jornada: segundos trabajados, de descanso y número de sesiones.
+   * Si la jornada todavía no tiene sesiones, devuelve un estado 404 (Not Found).
+   *
+   * @param id El ID de la jornada.
+   * @return Los totales de la jornada en formato JSON, o un error 404 si no hay.
+   * @since 1.1
+   */
+  @GetMapping("/{id}/totales")
+  public ResponseEntity<JornadaTotales> obtenerTotalesDeJornada(@PathVariable Integer id) {
+    Optional<JornadaTotales> totales = jornadaTotalesService.obtenerTotalesPorJornada(id);
+    if (totales.isPresent()) {
+      return new ResponseEntity<>(totales.get(), HttpStatus.OK); // 200 OK
+    }
+    return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
+  }
 }
@@ -0,0 +1,46 @@
+package com.montederramo.gestionhorarios.controllers;
+
+import com.montederramo.gestionhorarios.services.SesionSolapadaException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Traduce a un estado 409 (Conflict) las escrituras que chocan con el estado actual de los datos,
+ * en cualquiera de los controladores.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@RestControllerAdvice
+public class ManejadorConflictos {
+
+  /**
+   * Responde cuando la petición trae una versión que ya no es la actual, porque otra petición
+   * modificó la misma fila entre medias.
+   *
+   * @param e La excepción lanzada al escribir.
+   * @return El motivo del rechazo.
+   * @since 1.1
+   */
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<String> manejarVersionAntigua(OptimisticLockingFailureException e) {
+    return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT); // 409 Conflict
+  }
+
+  /**
+   * Responde cuando la sesión que se intenta crear o actualizar se solapa con otra sesión de trabajo de la
+   * misma jornada, o es un descanso que no cae dentro de ninguna sesión de trabajo.
+   *
+   * @param e La excepción lanzada por el servicio.
+   * @return El motivo del rechazo.
+   * @since 1.1
+   */
+  @ExceptionHandler(SesionSolapadaException.class)
+  public ResponseEntity<String> manejarSesionSolapada(SesionSolapadaException e) {
+    return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT); // 409 Conflict
+  }
+}
@@ -0,0 +1,71 @@
+package com.montederramo.gestionhorarios.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Utilidades compartidas por los controladores para los listados paginados y en streaming.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+final class Paginacion {
+
+  /** Tamaño de página usado cuando el cliente no indica {@code limit}. */
+  static final int LIMITE_POR_DEFECTO = 100;
+
+  /** Tamaño de página máximo que se permite pedir en una sola llamada. */
+  static final int LIMITE_MAXIMO = 1000;
+
+  private Paginacion() {
+  }
+
+  /**
+   * Normaliza el tamaño de página pedido por el cliente.
+   *
+   * @param limite El límite recibido en la petición, o null si no se indicó.
+   * @return Un límite entre 1 y {@link #LIMITE_MAXIMO}.
+   * @since 1.1
+   */
+  static int limite(Integer limite) {
+    if (limite == null || limite < 1) {
+      return LIMITE_POR_DEFECTO;
+    }
+    return Math.min(limite, LIMITE_MAXIMO);
+  }
+
+  /**
+   * Crea un cuerpo de respuesta que escribe un array JSON elemento a elemento.
+   * El recorrido se ejecuta mientras se escribe la respuesta, así que los elementos se serializan
+   * según llegan de la base de datos y nunca se acumulan en una lista. Los métodos de los repositorios que
+   * alimentan estos recorridos piden un tamaño de fetch de {@code Integer.MIN_VALUE}, que hace que el driver de
+   * MySQL entregue las filas una a una en lugar de cargar el resultado entero.
+   *
+   * @param objectMapper El mapper usado para serializar cada elemento.
+   * @param recorrido La operación que entrega cada elemento al consumidor que recibe.
+   * @param <T> El tipo de los elementos.
+   * @return El cuerpo de la respuesta.
+   * @since 1.1
+   */
+  static <T> StreamingResponseBody enStreaming(ObjectMapper objectMapper, Consumer<Consumer<T>> recorrido) {
+    return salida -> {
+      try (JsonGenerator generador = objectMapper.createGenerator(salida)) {
+        generador.writeStartArray();
+        recorrido.accept(elemento -> {
+          try {
+            generador.writeObject(elemento);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+        generador.writeEndArray();
+      }
+    };
+  }
+}
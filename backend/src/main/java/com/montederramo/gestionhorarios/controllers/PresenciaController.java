@@ -0,0 +1,46 @@
+package com.montederramo.gestionhorarios.controllers;
+
+import com.montederramo.gestionhorarios.services.PresenciaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controlador que envía en tiempo real quién está trabajando, en pausa o fuera.
+ * Sustituye el sondeo periódico de cada pestaña por una sola conexión Server-Sent Events.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@RestController
+@RequestMapping("/api/presencia")
+@CrossOrigin
+public class PresenciaController {
+
+  private final PresenciaService presenciaService;
+
+  /**
+   * Constructor del controlador.
+   *
+   * @param presenciaService Servicio que reparte los cambios de presencia.
+   * @since 1.1
+   */
+  @Autowired
+  public PresenciaController(PresenciaService presenciaService) {
+    this.presenciaService = presenciaService;
+  }
+
+  /**
+   * Abre una conexión Server-Sent Events por la que llega un evento {@code presencia} cada vez que
+   * un empleado empieza a trabajar, hace una pausa, vuelve de ella o termina.
+   *
+   * @return El emisor de eventos de la conexión.
+   * @since 1.1
+   */
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter suscribirse() {
+    return presenciaService.suscribir();
+  }
+}
@@ -1,15 +1,26 @@
 package com.montederramo.gestionhorarios.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.montederramo.gestionhorarios.dto.Hueco;
 import com.montederramo.gestionhorarios.dto.Reunion;
 import com.montederramo.gestionhorarios.services.ReunionService;
+import com.montederramo.gestionhorarios.services.VersionesTablas;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Controlador que maneja las operaciones CRUD relacionadas con los reuniones.
@@ -25,33 +36,141 @@ import java.util.Optional;
 public class ReunionController {
 
   private final ReunionService reunionService;
+  private final ObjectMapper objectMapper;
+  private final VersionesTablas versionesTablas;
 
   /**
    * Constructor del controlador.
    *
    * @param reunionService Servicio para gestionar las operaciones relacionadas con los reuniones.
+   * @param objectMapper El mapper JSON usado en los listados en streaming.
+   * @param versionesTablas El contador de versiones de las tablas, con el que se calculan los ETags.
    * @since 1.0
    */
   @Autowired
-  public ReunionController(ReunionService reunionService) {
+  public ReunionController(ReunionService reunionService, ObjectMapper objectMapper,
+      VersionesTablas versionesTablas) {
     this.reunionService = reunionService;
+    this.objectMapper = objectMapper;
+    this.versionesTablas = versionesTablas;
   }
 
   /**
    * Obtiene una lista de todos los reuniones.
    * Si la lista está vacía, devuelve un estado 204 (No Content).
    * De lo contrario, devuelve la lista con un estado 200 (OK).
+   * Si se indica {@code after} o {@code limit}, devuelve solo una página ordenada por ID que empieza
+   * justo después de {@code after}; el último ID de la página sirve como cursor para pedir la siguiente.
+   * La respuesta lleva un ETag que cambia con cada escritura en la tabla; si la petición trae ese ETag en
+   * {@code If-None-Match}, devuelve un estado 304 (Not Modified) sin consultar la base de datos.
    *
+   * @param after El ID a partir del cual se devuelve la página (excluido). Opcional.
+   * @param limit El tamaño de página, entre 1 y {@value Paginacion#LIMITE_MAXIMO}. Opcional.
+   * @param fields Los campos de cada elemento que se devuelven, separados por comas (por ejemplo
+   *     {@code fields=fecha,titulo}); el id se incluye siempre. Solo se leen esas columnas. Opcional.
+   * @param peticion La petición, con sus cabeceras condicionales.
    * @return Una lista de reuniones en formato JSON o un estado 204 (No Content) si no hay reuniones.
    * @since 1.0
    */
   @GetMapping
-  public ResponseEntity<List<Reunion>> obtenerReunions() {
-    List<Reunion> reuniones = reunionService.obtenerReunions();
+  public ResponseEntity<List<?>> obtenerReunions(@RequestParam(required = false) Integer after,
+      @RequestParam(required = false) Integer limit, @RequestParam(required = false) String fields,
+      WebRequest peticion) {
+    VersionesTablas.Version version = versionesTablas.version(VersionesTablas.REUNIONES);
+    if (peticion.checkNotModified(version.etag(), version.modificada())) {
+      return new ResponseEntity<>(Condicionales.cabeceras(version), HttpStatus.NOT_MODIFIED); // 304 Not Modified
+    }
+    Integer limite = (after == null && limit == null) ? null : Paginacion.limite(limit);
+    List<?> reuniones;
+    if (fields != null) {
+      reuniones = reunionService.obtenerReunions(Campos.leer(objectMapper, fields, Reunion.class), after, limite);
+    } else {
+      reuniones = limite == null ? reunionService.obtenerReunions() : reunionService.obtenerReunions(after, limite);
+    }
     if (reuniones.isEmpty()) {
+      return new ResponseEntity<>(Condicionales.cabeceras(version), HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(reuniones, Condicionales.cabeceras(version), HttpStatus.OK); // 200 OK
+  }
+
+  /**
+   * Obtiene las reuniones entre dos días, ambos incluidos, agrupadas por día, para pintar una vista de calendario.
+   * La respuesta es un objeto cuyas claves son los días con reuniones, en formato ISO (yyyy-MM-dd), y cuyos valores
+   * son las reuniones de ese día ordenadas por hora; los días sin reuniones no aparecen.
+   * Si el rango no es válido, devuelve un estado 400 (Bad Request).
+   * Si no hay reuniones en el rango, devuelve un estado 204 (No Content).
+   * Usa el mismo ETag que el listado de reuniones, así que al volver a un mes ya visto se responde con 304 (Not Modified)
+   * mientras no cambie ninguna reunión.
+   *
+   * @param desde El primer día del rango, en formato ISO (yyyy-MM-dd).
+   * @param hasta El último día del rango, en formato ISO (yyyy-MM-dd).
+   * @param peticion La petición, con sus cabeceras condicionales.
+   * @return Las reuniones de cada día en formato JSON, o un estado 204 (No Content) si no hay ninguna.
+   * @since 1.1
+   */
+  @GetMapping("/calendario")
+  public ResponseEntity<Map<LocalDate, List<Reunion>>> obtenerCalendario(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta, WebRequest peticion) {
+    if (hasta.isBefore(desde)) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+    VersionesTablas.Version version = versionesTablas.version(VersionesTablas.REUNIONES);
+    if (peticion.checkNotModified(version.etag(), version.modificada())) {
+      return new ResponseEntity<>(Condicionales.cabeceras(version), HttpStatus.NOT_MODIFIED); // 304 Not Modified
+    }
+    Map<LocalDate, List<Reunion>> calendario = reunionService.obtenerCalendario(desde, hasta);
+    if (calendario.isEmpty()) {
+      return new ResponseEntity<>(Condicionales.cabeceras(version), HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(calendario, Condicionales.cabeceras(version), HttpStatus.OK); // 200 OK
+  }
+
+  /**
+   * Busca los primeros huecos de un rango de días en los que ninguno de los empleados indicados tiene una reunion
+   * ni un descanso, y en los que cabe una reunion de la duración pedida.
+   * Si algún parámetro no es válido, devuelve un estado 400 (Bad Request).
+   * Si no hay ningún hueco, devuelve un estado 204 (No Content).
+   *
+   * @param empleados Los IDs de los empleados que tienen que asistir, separados por comas.
+   * @param duracion La duración de la reunion, en minutos.
+   * @param desde El primer día del rango, en formato ISO (yyyy-MM-dd).
+   * @param hasta El último día del rango, en formato ISO (yyyy-MM-dd).
+   * @param horaInicio La hora a partir de la cual se buscan huecos cada día, en formato ISO (HH:mm). Por defecto, 09:00.
+   * @param horaFin La hora hasta la que se buscan huecos cada día, en formato ISO (HH:mm). Por defecto, 18:00.
+   * @param limit El número máximo de huecos, entre 1 y {@value Paginacion#LIMITE_MAXIMO}. Opcional.
+   * @return Los huecos por orden de inicio en formato JSON, o un estado 204 (No Content) si no hay ninguno.
+   * @since 1.1
+   */
+  @GetMapping("/huecos")
+  public ResponseEntity<List<Hueco>> buscarHuecos(@RequestParam List<Integer> empleados, @RequestParam int duracion,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+      @RequestParam(defaultValue = "09:00") @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime horaInicio,
+      @RequestParam(defaultValue = "18:00") @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime horaFin,
+      @RequestParam(required = false) Integer limit) {
+    if (empleados.isEmpty() || duracion < 1 || hasta.isBefore(desde) || !horaFin.isAfter(horaInicio)) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+    List<Hueco> huecos = reunionService.buscarHuecos(empleados, duracion, desde, hasta, horaInicio, horaFin,
+        Paginacion.limite(limit));
+    if (huecos.isEmpty()) {
       return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
     }
-    return new ResponseEntity<>(reuniones, HttpStatus.OK); // 200 OK
+    return new ResponseEntity<>(huecos, HttpStatus.OK); // 200 OK
+  }
+
+  /**
+   * Devuelve todas las reuniones como un array JSON escrito en streaming.
+   * Las filas se serializan según se leen del cursor de la base de datos, por lo que la memoria usada
+   * no depende del tamaño de la tabla.
+   *
+   * @return Un array JSON con las reuniones, con un estado 200 (OK).
+   * @since 1.1
+   */
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamReuniones() {
+    return new ResponseEntity<>(Paginacion.enStreaming(objectMapper, reunionService::recorrerReuniones), HttpStatus.OK); // 200 OK
   }
 
   /**
@@ -105,6 +224,66 @@ public class ReunionController {
     return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
   }
 
+  /**
+   * Actualiza solo los campos enviados de la reunion, sin tocar el resto.
+   * Si la actualización es exitosa, devuelve un estado 204 (No Content).
+   * Si la reunion no se encuentra, devuelve un estado 404 (Not Found), y si algún campo no existe o no es válido,
+   * un estado 400 (Bad Request).
+   * Si se envía {@code version} y la reunion ha cambiado desde esa versión, devuelve un estado 409 (Conflict).
+   *
+   * @param id El ID de la reunion a actualizar.
+   * @param cambios Los campos a cambiar y sus nuevos valores.
+   * @return Un estado indicando si la operación fue exitosa o no.
+   * @since 1.1
+   */
+  @PatchMapping("/{id}")
+  public ResponseEntity<Void> actualizarParcialmenteReunion(@PathVariable Integer id, @RequestBody Map<String, Object> cambios) {
+    Reunion reunion = CambiosParciales.leer(objectMapper, cambios, Reunion.class);
+    if (reunionService.actualizarParcialmenteReunion(id, reunion, cambios.keySet())) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
+  }
+
+  /**
+   * Obtiene los IDs de los empleados convocados a una reunion.
+   * Si la reunion no se encuentra, devuelve un estado 404 (Not Found).
+   *
+   * @param id El ID de la reunion.
+   * @return Los IDs de los asistentes en formato JSON, o un error 404 si la reunion no existe.
+   * @since 1.1
+   */
+  @GetMapping("/{id}/asistentes")
+  public ResponseEntity<List<Integer>> obtenerAsistentes(@PathVariable Integer id) {
+    Optional<List<Integer>> asistentes = reunionService.obtenerAsistentes(id);
+    if (asistentes.isPresent()) {
+      return new ResponseEntity<>(asistentes.get(), HttpStatus.OK); // 200 OK
+    }
+    return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
+  }
+
+  /**
+   * Sustituye los empleados convocados a una reunion por los de la lista enviada.
+   * Si la actualización es exitosa, devuelve un estado 204 (No Content).
+   * Si la reunion no se encuentra, devuelve un estado 404 (Not Found), y si la lista contiene un null,
+   * un estado 400 (Bad Request).
+   *
+   * @param id El ID de la reunion.
+   * @param asistentes Los IDs de los empleados convocados.
+   * @return Un estado indicando si la operación fue exitosa o no.
+   * @since 1.1
+   */
+  @PutMapping("/{id}/asistentes")
+  public ResponseEntity<Void> asignarAsistentes(@PathVariable Integer id, @RequestBody Set<Integer> asistentes) {
+    if (asistentes.contains(null)) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+    if (reunionService.asignarAsistentes(id, asistentes)) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
+  }
+
   /**
    * Elimina una reunion por su ID.
    * Si la reunion se elimina con éxito, devuelve un estado 204 (No Content).
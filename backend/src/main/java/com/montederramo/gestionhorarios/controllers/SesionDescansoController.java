@@ -1,14 +1,20 @@
 package com.montederramo.gestionhorarios.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.montederramo.gestionhorarios.dto.ResultadoLote;
 import com.montederramo.gestionhorarios.dto.SesionDescanso;
 import com.montederramo.gestionhorarios.services.SesionDescansoService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -25,35 +31,68 @@ import java.util.Optional;
 public class SesionDescansoController {
 
   private final SesionDescansoService sesionDescansoService;
+  private final ObjectMapper objectMapper;
+  private final int maximoFilasLote;
 
   /**
    * Constructor del controlador.
    *
    * @param sesionDescansoService Servicio para gestionar las operaciones relacionadas con las sesiones de descanso.
+   * @param objectMapper El mapper JSON usado en los listados en streaming.
+   * @param maximoFilasLote El número máximo de filas que se aceptan en una escritura en lote.
    * @since 1.0
    */
   @Autowired
-  public SesionDescansoController(SesionDescansoService sesionDescansoService) {
+  public SesionDescansoController(SesionDescansoService sesionDescansoService, ObjectMapper objectMapper,
+      @Value("${lotes.maximo-filas:10000}") int maximoFilasLote) {
     this.sesionDescansoService = sesionDescansoService;
+    this.objectMapper = objectMapper;
+    this.maximoFilasLote = maximoFilasLote;
   }
 
   /**
    * Obtiene una lista de todos las sesiones de descanso.
    * Si la lista está vacía, devuelve un estado 204 (No Content).
    * De lo contrario, devuelve la lista con un estado 200 (OK).
+   * Si se indica {@code after} o {@code limit}, devuelve solo una página ordenada por ID que empieza
+   * justo después de {@code after}; el último ID de la página sirve como cursor para pedir la siguiente.
    *
+   * @param after El ID a partir del cual se devuelve la página (excluido). Opcional.
+   * @param limit El tamaño de página, entre 1 y {@value Paginacion#LIMITE_MAXIMO}. Opcional.
+   * @param fields Los campos de cada elemento que se devuelven, separados por comas (por ejemplo
+   *     {@code fields=idJornada,tiempoInicio,tiempoFin}); el id se incluye siempre. Solo se leen esas columnas. Opcional.
    * @return Una lista de sesiones de descanso en formato JSON o un estado 204 (No Content) si no hay sesiones de descanso.
    * @since 1.0
    */
   @GetMapping
-  public ResponseEntity<List<SesionDescanso>> obtenerSesionDescansos() {
-    List<SesionDescanso> sesionesDescanso = sesionDescansoService.obtenerSesionDescansos();
+  public ResponseEntity<List<?>> obtenerSesionDescansos(@RequestParam(required = false) Integer after,
+      @RequestParam(required = false) Integer limit, @RequestParam(required = false) String fields) {
+    Integer limite = (after == null && limit == null) ? null : Paginacion.limite(limit);
+    List<?> sesionesDescanso;
+    if (fields != null) {
+      sesionesDescanso = sesionDescansoService.obtenerSesionDescansos(Campos.leer(objectMapper, fields, SesionDescanso.class), after, limite);
+    } else {
+      sesionesDescanso = limite == null ? sesionDescansoService.obtenerSesionDescansos() : sesionDescansoService.obtenerSesionDescansos(after, limite);
+    }
     if (sesionesDescanso.isEmpty()) {
       return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
     }
     return new ResponseEntity<>(sesionesDescanso, HttpStatus.OK); // 200 OK
   }
 
+  /**
+   * Devuelve todas las sesiones de descanso como un array JSON escrito en streaming.
+   * Las filas se serializan según se leen del cursor de la base de datos, por lo que la memoria usada
+   * no depende del tamaño de la tabla.
+   *
+   * @return Un array JSON con las sesiones de descanso, con un estado 200 (OK).
+   * @since 1.1
+   */
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamSesionesDescanso() {
+    return new ResponseEntity<>(Paginacion.enStreaming(objectMapper, sesionDescansoService::recorrerSesionesDescanso), HttpStatus.OK); // 200 OK
+  }
+
   /**
    * Obtiene una sesion de descanso específico por su ID.
    * Si la sesion de descanso existe, devuelve un estado 200 (OK).
@@ -86,6 +125,26 @@ public class SesionDescansoController {
     return new ResponseEntity<>(createdSesionDescanso, HttpStatus.CREATED); // 201 Created
   }
 
+  /**
+   * Crea o actualiza varias sesiones de descanso en una sola petición, pensado para los relojes de fichaje que
+   * reenvían los fichajes acumulados sin conexión.
+   * Las filas sin ID se crean y las que tienen el ID de una sesión existente se actualizan. Devuelve un estado 200
+   * (OK) con el número de filas guardadas y las rechazadas, o un estado 413 (Payload Too Large) si el lote supera el
+   * máximo.
+   *
+   * @param sesiones Las sesiones de descanso a guardar.
+   * @return El resultado del lote en formato JSON.
+   * @since 1.1
+   */
+  @PostMapping("/batch")
+  public ResponseEntity<ResultadoLote> guardarSesionDescansosEnLote(@RequestBody List<SesionDescanso> sesiones) {
+    if (sesiones.size() > maximoFilasLote) {
+      return new ResponseEntity<>(HttpStatus.PAYLOAD_TOO_LARGE); // 413 Payload Too Large
+    }
+    ResultadoLote resultado = sesionDescansoService.guardarSesionDescansosEnLote(sesiones);
+    return new ResponseEntity<>(resultado, HttpStatus.OK); // 200 OK
+  }
+
   /**
    * Actualiza una sesion de descanso existente.
    * Si la actualización es exitosa, devuelve la sesion de descanso actualizado con un estado 200 (OK).
@@ -105,6 +164,28 @@ public class SesionDescansoController {
     return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
   }
 
+  /**
+   * Actualiza solo los campos enviados de la sesion de descanso, sin tocar el resto.
+   * Si la actualización es exitosa, devuelve un estado 204 (No Content).
+   * Si la sesion de descanso no se encuentra, devuelve un estado 404 (Not Found), y si algún campo no existe o no es válido,
+   * un estado 400 (Bad Request).
+   * Si se envía {@code version} y la sesion de descanso ha cambiado desde esa versión, devuelve un estado 409 (Conflict).
+   * Si la sesión resultante se solapa con otras de su jornada, devuelve un estado 409 (Conflict).
+   *
+   * @param id El ID de la sesion de descanso a actualizar.
+   * @param cambios Los campos a cambiar y sus nuevos valores.
+   * @return Un estado indicando si la operación fue exitosa o no.
+   * @since 1.1
+   */
+  @PatchMapping("/{id}")
+  public ResponseEntity<Void> actualizarParcialmenteSesionDescanso(@PathVariable Integer id, @RequestBody Map<String, Object> cambios) {
+    SesionDescanso sesionDescanso = CambiosParciales.leer(objectMapper, cambios, SesionDescanso.class);
+    if (sesionDescansoService.actualizarParcialmenteSesionDescanso(id, sesionDescanso, cambios.keySet())) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
+  }
+
   /**
    * Elimina una sesion de descanso por su ID.
    * Si la sesion de descanso se elimina con éxito, devuelve un estado 204 (No Content).
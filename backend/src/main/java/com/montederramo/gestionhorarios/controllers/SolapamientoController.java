@@ -0,0 +1,53 @@
+package com.montederramo.gestionhorarios.controllers;
+
+import com.montederramo.gestionhorarios.dto.Solapamiento;
+import com.montederramo.gestionhorarios.services.SolapamientoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador que expone la búsqueda de sesiones en conflicto: sesiones de trabajo solapadas
+ * y sesiones de descanso fuera de cualquier sesión de trabajo.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@RestController
+@RequestMapping("/api/solapamientos")
+@CrossOrigin
+public class SolapamientoController {
+
+  private final SolapamientoService solapamientoService;
+
+  /**
+   * Constructor del controlador.
+   *
+   * @param solapamientoService Servicio que busca los solapamientos.
+   * @since 1.1
+   */
+  @Autowired
+  public SolapamientoController(SolapamientoService solapamientoService) {
+    this.solapamientoService = solapamientoService;
+  }
+
+  /**
+   * Obtiene todas las sesiones en conflicto de todas las jornadas, recorriendo las sesiones una sola vez.
+   * Si no hay ninguna, devuelve un estado 204 (No Content).
+   *
+   * @return Los conflictos encontrados en formato JSON o un estado 204 (No Content) si no hay ninguno.
+   * @since 1.1
+   */
+  @GetMapping
+  public ResponseEntity<List<Solapamiento>> obtenerSolapamientos() {
+    List<Solapamiento> solapamientos = solapamientoService.buscarSolapamientos();
+    if (solapamientos.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(solapamientos, HttpStatus.OK); // 200 OK
+  }
+}
@@ -1,14 +1,22 @@
 package com.montederramo.gestionhorarios.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.montederramo.gestionhorarios.dto.ColumnaTablero;
 import com.montederramo.gestionhorarios.dto.Tarea;
 import com.montederramo.gestionhorarios.services.TareaService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -25,35 +33,123 @@ import java.util.Optional;
 public class TareaController {
 
   private final TareaService tareaService;
+  private final ObjectMapper objectMapper;
 
   /**
    * Constructor del controlador.
    *
    * @param tareaService Servicio para gestionar las operaciones relacionadas con los tareas.
+   * @param objectMapper El mapper JSON usado en los listados en streaming.
    * @since 1.0
    */
   @Autowired
-  public TareaController(TareaService tareaService) {
+  public TareaController(TareaService tareaService, ObjectMapper objectMapper) {
     this.tareaService = tareaService;
+    this.objectMapper = objectMapper;
   }
 
   /**
    * Obtiene una lista de todos los tareas.
    * Si la lista está vacía, devuelve un estado 204 (No Content).
    * De lo contrario, devuelve la lista con un estado 200 (OK).
+   * Si se indica {@code after} o {@code limit}, devuelve solo una página ordenada por ID que empieza
+   * justo después de {@code after}; el último ID de la página sirve como cursor para pedir la siguiente.
    *
+   * @param after El ID a partir del cual se devuelve la página (excluido). Opcional.
+   * @param limit El tamaño de página, entre 1 y {@value Paginacion#LIMITE_MAXIMO}. Opcional.
+   * @param fields Los campos de cada elemento que se devuelven, separados por comas (por ejemplo
+   *     {@code fields=titulo,estado}); el id se incluye siempre. Solo se leen esas columnas. Opcional.
    * @return Una lista de tareas en formato JSON o un estado 204 (No Content) si no hay tareas.
    * @since 1.0
    */
   @GetMapping
-  public ResponseEntity<List<Tarea>> obtenerTareas() {
-    List<Tarea> tareas = tareaService.obtenerTareas();
+  public ResponseEntity<List<?>> obtenerTareas(@RequestParam(required = false) Integer after,
+      @RequestParam(required = false) Integer limit, @RequestParam(required = false) String fields) {
+    Integer limite = (after == null && limit == null) ? null : Paginacion.limite(limit);
+    List<?> tareas;
+    if (fields != null) {
+      tareas = tareaService.obtenerTareas(Campos.leer(objectMapper, fields, Tarea.class), after, limite);
+    } else {
+      tareas = limite == null ? tareaService.obtenerTareas() : tareaService.obtenerTareas(after, limite);
+    }
+    if (tareas.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(tareas, HttpStatus.OK); // 200 OK
+  }
+
+  /**
+   * Obtiene el tablero de las tareas entre dos días, ambos incluidos: una columna por estado con el número total
+   * de tareas del estado y su primera página, ordenada por fecha.
+   * Si el rango no es válido, devuelve un estado 400 (Bad Request).
+   * Si no hay tareas en el rango, devuelve un estado 204 (No Content).
+   *
+   * @param desde El primer día del rango, en formato ISO (yyyy-MM-dd).
+   * @param hasta El último día del rango, en formato ISO (yyyy-MM-dd).
+   * @param limit El número de tareas de cada columna, entre 1 y {@value Paginacion#LIMITE_MAXIMO}. Opcional.
+   * @return Las columnas del tablero en formato JSON, o un estado 204 (No Content) si no hay ninguna.
+   * @since 1.1
+   */
+  @GetMapping("/tablero")
+  public ResponseEntity<List<ColumnaTablero>> obtenerTablero(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+      @RequestParam(required = false) Integer limit) {
+    if (hasta.isBefore(desde)) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+    List<ColumnaTablero> columnas = tareaService.obtenerTablero(desde, hasta, Paginacion.limite(limit));
+    if (columnas.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(columnas, HttpStatus.OK); // 200 OK
+  }
+
+  /**
+   * Obtiene la siguiente página de una columna del tablero, a partir de la fecha y el ID de la última tarea recibida.
+   * Si el rango no es válido, o solo se indica una de las dos partes del cursor, devuelve un estado 400 (Bad Request).
+   * Si no quedan más tareas, devuelve un estado 204 (No Content).
+   *
+   * @param estado El estado de la columna.
+   * @param desde El primer día del rango, en formato ISO (yyyy-MM-dd).
+   * @param hasta El último día del rango, en formato ISO (yyyy-MM-dd).
+   * @param afterFecha La fecha de la última tarea recibida de la columna, en formato ISO
+   *     (yyyy-MM-dd'T'HH:mm:ss.SSSXXX), tal como llega en su JSON. Opcional, junto con {@code after}.
+   * @param after El ID de la última tarea recibida de la columna (excluida). Opcional, junto con {@code afterFecha}.
+   * @param limit El tamaño de página, entre 1 y {@value Paginacion#LIMITE_MAXIMO}. Opcional.
+   * @return Una lista de tareas en formato JSON, o un estado 204 (No Content) si no hay más.
+   * @since 1.1
+   */
+  @GetMapping("/tablero/{estado}")
+  public ResponseEntity<List<Tarea>> obtenerColumnaTablero(@PathVariable String estado,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date afterFecha,
+      @RequestParam(required = false) Integer after, @RequestParam(required = false) Integer limit) {
+    if (hasta.isBefore(desde) || (afterFecha == null) != (after == null)) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+    List<Tarea> tareas = tareaService.obtenerColumnaTablero(estado, desde, hasta, afterFecha, after,
+        Paginacion.limite(limit));
     if (tareas.isEmpty()) {
       return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
     }
     return new ResponseEntity<>(tareas, HttpStatus.OK); // 200 OK
   }
 
+  /**
+   * Devuelve todas las tareas como un array JSON escrito en streaming.
+   * Las filas se serializan según se leen del cursor de la base de datos, por lo que la memoria usada
+   * no depende del tamaño de la tabla.
+   *
+   * @return Un array JSON con las tareas, con un estado 200 (OK).
+   * @since 1.1
+   */
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamTareas() {
+    return new ResponseEntity<>(Paginacion.enStreaming(objectMapper, tareaService::recorrerTareas), HttpStatus.OK); // 200 OK
+  }
+
   /**
    * Obtiene una tarea específico por su ID.
    * Si la tarea existe, devuelve un estado 200 (OK).
@@ -105,6 +201,27 @@ public class TareaController {
     return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
   }
 
+  /**
+   * Actualiza solo los campos enviados de la tarea, sin tocar el resto.
+   * Si la actualización es exitosa, devuelve un estado 204 (No Content).
+   * Si la tarea no se encuentra, devuelve un estado 404 (Not Found), y si algún campo no existe o no es válido,
+   * un estado 400 (Bad Request).
+   * Si se envía {@code version} y la tarea ha cambiado desde esa versión, devuelve un estado 409 (Conflict).
+   *
+   * @param id El ID de la tarea a actualizar.
+   * @param cambios Los campos a cambiar y sus nuevos valores.
+   * @return Un estado indicando si la operación fue exitosa o no.
+   * @since 1.1
+   */
+  @PatchMapping("/{id}")
+  public ResponseEntity<Void> actualizarParcialmenteTarea(@PathVariable Integer id, @RequestBody Map<String, Object> cambios) {
+    Tarea tarea = CambiosParciales.leer(objectMapper, cambios, Tarea.class);
+    if (tareaService.actualizarParcialmenteTarea(id, tarea, cambios.keySet())) {
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
+    }
+    return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404 Not Found
+  }
+
   /**
    * Elimina una tarea por su ID.
    * Si la tarea se elimina con éxito, devuelve un estado 204 (No Content).
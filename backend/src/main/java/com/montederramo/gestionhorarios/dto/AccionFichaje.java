@@ -0,0 +1,15 @@
+package com.montederramo.gestionhorarios.dto;
+
+/**
+ * Acciones que un empleado puede registrar en el reloj de fichaje.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public enum AccionFichaje {
+  INICIO,
+  PAUSA,
+  REANUDAR,
+  FIN
+}
@@ -0,0 +1,27 @@
+package com.montederramo.gestionhorarios.dto;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Criterios por los que se pueden agrupar los informes de horas.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public enum AgrupacionInforme {
+  EMPLEADO,
+  EQUIPO;
+
+  /**
+   * Busca la agrupación por su nombre sin distinguir mayúsculas.
+   *
+   * @param nombre El nombre recibido en la petición.
+   * @return La agrupación, o vacío si el nombre no corresponde a ninguna.
+   * @since 1.1
+   */
+  public static Optional<AgrupacionInforme> desde(String nombre) {
+    return Arrays.stream(values()).filter(a -> a.name().equalsIgnoreCase(nombre)).findFirst();
+  }
+}
@@ -0,0 +1,17 @@
+package com.montederramo.gestionhorarios.dto;
+
+import java.time.LocalTime;
+
+/**
+ * Un cambio de estado de un empleado, tal como se envía a los supervisores conectados.
+ *
+ * @param empleadoId El ID del empleado, o null si su jornada ya no existe.
+ * @param idJornada El ID de la jornada en la que se produjo el cambio.
+ * @param estado El nuevo estado del empleado.
+ * @param hora La hora del cambio.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public record CambioPresencia(Integer empleadoId, Integer idJornada, EstadoPresencia estado, LocalTime hora) {
+}
@@ -0,0 +1,28 @@
+package com.montederramo.gestionhorarios.dto;
+
+import java.util.List;
+
+/**
+ * Una columna del tablero de tareas: las tareas de un estado en un rango de fechas.
+ *
+ * @param estado El estado de las tareas de la columna.
+ * @param total El número de tareas con ese estado en el rango, aunque no todas vengan en {@code tareas}.
+ * @param tareas La primera página de tareas de la columna, por orden de fecha; el ID de la última sirve de cursor
+ *     para pedir la siguiente.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public record ColumnaTablero(String estado, long total, List<Tarea> tareas) {
+
+  /**
+   * Crea una columna sin tareas, tal como sale de la consulta de recuentos.
+   *
+   * @param estado El estado de las tareas de la columna.
+   * @param total El número de tareas con ese estado en el rango.
+   * @since 1.1
+   */
+  public ColumnaTablero(String estado, long total) {
+    this(estado, total, List.of());
+  }
+}
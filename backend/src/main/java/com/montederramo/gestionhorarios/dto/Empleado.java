@@ -37,6 +37,10 @@ public class Empleado {
   @Column(name = "foto_url")
   private String fotoUrl;
 
+  @Version
+  @Column(name = "version")
+  private Integer version;
+
   public void setId(Integer id) {
     this.id = id;
   }
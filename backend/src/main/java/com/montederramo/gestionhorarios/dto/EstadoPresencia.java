@@ -0,0 +1,14 @@
+package com.montederramo.gestionhorarios.dto;
+
+/**
+ * Estados en los que puede estar un empleado según sus sesiones abiertas.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public enum EstadoPresencia {
+  TRABAJANDO,
+  EN_PAUSA,
+  FUERA
+}
@@ -0,0 +1,17 @@
+package com.montederramo.gestionhorarios.dto;
+
+import java.time.LocalTime;
+
+/**
+ * Un fichaje registrado: qué hizo el empleado, en qué jornada y a qué hora.
+ *
+ * @param empleadoId El ID del empleado que fichó.
+ * @param idJornada El ID de la jornada en la que se registró.
+ * @param accion La acción registrada.
+ * @param hora La hora del fichaje.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public record Fichaje(Integer empleadoId, Integer idJornada, AccionFichaje accion, LocalTime hora) {
+}
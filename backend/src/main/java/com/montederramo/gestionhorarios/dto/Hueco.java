@@ -0,0 +1,15 @@
+package com.montederramo.gestionhorarios.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Un intervalo en el que ninguno de los empleados buscados tiene reuniones ni descansos.
+ *
+ * @param inicio El inicio del intervalo.
+ * @param fin El fin del intervalo; hasta él cabe al menos una reunión de la duración pedida.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public record Hueco(LocalDateTime inicio, LocalDateTime fin) {
+}
@@ -0,0 +1,25 @@
+package com.montederramo.gestionhorarios.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Una fila del informe de horas: los totales de un empleado o de un equipo en un periodo.
+ *
+ * @param empleadoId El ID del empleado, o null si el informe se agrupa por equipo.
+ * @param equipo El equipo del empleado o el equipo agrupado.
+ * @param periodo El primer día del periodo (el propio día, el lunes de la semana o el día 1 del mes).
+ * @param minutosTrabajados Los minutos trabajados, descontando los descansos.
+ * @param minutosDescanso Los minutos de descanso.
+ * @param minutosExtra Los minutos que exceden la jornada ordinaria, sumados día a día.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public record InformeHoras(
+    Integer empleadoId,
+    String equipo,
+    LocalDate periodo,
+    long minutosTrabajados,
+    long minutosDescanso,
+    long minutosExtra) {
+}
@@ -1,19 +1,27 @@
 package com.montederramo.gestionhorarios.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.RequiredArgsConstructor;
 import lombok.NoArgsConstructor;
 
 import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Getter
 @Setter
 @RequiredArgsConstructor
 @Entity
-@Table(name = "jornada")
+@Table(name = "jornada", indexes = {
+    @Index(name = "idx_jornada_empleado_fecha", columnList = "empleado_id, fecha"),
+    @Index(name = "idx_jornada_fecha", columnList = "fecha")
+})
 public class Jornada {
 
   @Id
@@ -27,6 +35,30 @@ public class Jornada {
   @Column(name = "empleado_id")
   private int empleadoId;
 
+  @Version
+  @Column(name = "version")
+  private Integer version;
+
+  // Sesiones de la jornada, solo de lectura: se escriben a través de SesionTrabajo.idJornada y SesionDescanso.idJornada,
+  // y se cargan únicamente en las consultas que las piden. No se crea clave foránea para no rechazar sesiones cuya
+  // jornada se borró. Las de trabajo se traen con un grafo de entidad; las de descanso, con una segunda consulta para
+  // todas las jornadas leídas a la vez (SUBSELECT), porque traer las dos colecciones en el mismo JOIN devolvería una
+  // fila por cada combinación de sesión de trabajo y de descanso.
+  @OneToMany(fetch = FetchType.LAZY)
+  @JoinColumn(name = "id_jornada", insertable = false, updatable = false,
+      foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+  @OrderBy("tiempoInicio")
+  @JsonIgnore
+  private Set<SesionTrabajo> sesionesTrabajo = new LinkedHashSet<>();
+
+  @OneToMany(fetch = FetchType.LAZY)
+  @Fetch(FetchMode.SUBSELECT)
+  @JoinColumn(name = "id_jornada", insertable = false, updatable = false,
+      foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+  @OrderBy("tiempoInicio")
+  @JsonIgnore
+  private Set<SesionDescanso> sesionesDescanso = new LinkedHashSet<>();
+
   public void setId(Integer id) {
     this.id = id;
   }
@@ -0,0 +1,48 @@
+package com.montederramo.gestionhorarios.dto;
+
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Una jornada con su empleado y todas sus sesiones, para mostrarla en una sola petición.
+ *
+ * @param id El ID de la jornada.
+ * @param fecha La fecha de la jornada.
+ * @param version La versión de la jornada.
+ * @param empleado El empleado de la jornada, o null si ya no existe.
+ * @param sesionesTrabajo Las sesiones de trabajo, ordenadas por hora de inicio.
+ * @param sesionesDescanso Las sesiones de descanso, ordenadas por hora de inicio.
+ * @param segundosTrabajo La duración total de las sesiones de trabajo cerradas.
+ * @param segundosDescanso La duración total de las sesiones de descanso cerradas.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public record JornadaCompleta(Integer id, Date fecha, Integer version, EmpleadoResumen empleado,
+    List<Sesion> sesionesTrabajo, List<Sesion> sesionesDescanso, long segundosTrabajo, long segundosDescanso) {
+
+  /**
+   * Los datos de un empleado que se muestran junto a sus jornadas.
+   *
+   * @param id El ID del empleado.
+   * @param nombre El nombre.
+   * @param apellido El apellido.
+   * @param equipo El equipo.
+   * @since 1.1
+   */
+  public record EmpleadoResumen(Integer id, String nombre, String apellido, String equipo) {
+  }
+
+  /**
+   * Una sesión de trabajo o de descanso de la jornada.
+   *
+   * @param id El ID de la sesión.
+   * @param tiempoInicio La hora de inicio.
+   * @param tiempoFin La hora de fin, o null si la sesión sigue abierta.
+   * @param version La versión de la sesión.
+   * @since 1.1
+   */
+  public record Sesion(Integer id, LocalTime tiempoInicio, LocalTime tiempoFin, Integer version) {
+  }
+}
@@ -0,0 +1,30 @@
+package com.montederramo.gestionhorarios.dto;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@Setter
+@RequiredArgsConstructor
+@Entity
+@Table(name = "jornada_totales")
+public class JornadaTotales {
+
+  @Id
+  @Column(name = "id_jornada")
+  private Integer idJornada;
+
+  @Column(name = "segundos_trabajo", nullable = false)
+  private long segundosTrabajo;
+
+  @Column(name = "segundos_descanso", nullable = false)
+  private long segundosDescanso;
+
+  @Column(name = "sesiones_trabajo", nullable = false)
+  private int sesionesTrabajo;
+
+  @Column(name = "sesiones_descanso", nullable = false)
+  private int sesionesDescanso;
+}
@@ -0,0 +1,16 @@
+package com.montederramo.gestionhorarios.dto;
+
+import java.util.Collection;
+
+/**
+ * Aviso de que han cambiado las sesiones de unas jornadas, o el empleado o la fecha de las propias jornadas.
+ * Lo publican los servicios al escribir, para que las estructuras en memoria derivadas de las sesiones se actualicen
+ * cuando confirma la transacción.
+ *
+ * @param idsJornada Los IDs de las jornadas afectadas, existan todavía o no.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public record JornadasModificadas(Collection<Integer> idsJornada) {
+}
@@ -0,0 +1,28 @@
+package com.montederramo.gestionhorarios.dto;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Periodos en los que se pueden agrupar los informes de horas.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public enum PeriodoInforme {
+  DIA,
+  SEMANA,
+  MES;
+
+  /**
+   * Busca el periodo por su nombre sin distinguir mayúsculas.
+   *
+   * @param nombre El nombre recibido en la petición.
+   * @return El periodo, o vacío si el nombre no corresponde a ninguno.
+   * @since 1.1
+   */
+  public static Optional<PeriodoInforme> desde(String nombre) {
+    return Arrays.stream(values()).filter(p -> p.name().equalsIgnoreCase(nombre)).findFirst();
+  }
+}
@@ -0,0 +1,29 @@
+package com.montederramo.gestionhorarios.dto;
+
+import java.util.List;
+
+/**
+ * Progreso de una importación CSV, que se envía al cliente cada vez que se guarda un lote.
+ *
+ * @param lote El número del lote que se acaba de guardar, empezando en 1.
+ * @param leidas Las filas leídas hasta ahora, sin contar la cabecera.
+ * @param guardadas Las filas guardadas hasta ahora.
+ * @param rechazadas Las filas de este lote que no se guardaron, con el motivo de cada una.
+ * @param terminada Si es el último mensaje de la importación.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public record ProgresoImportacion(int lote, long leidas, long guardadas, List<LineaRechazada> rechazadas,
+    boolean terminada) {
+
+  /**
+   * Una fila del fichero que no se pudo importar.
+   *
+   * @param linea El número de línea del fichero en el que empieza la fila, contando la cabecera como línea 1.
+   * @param motivo El motivo por el que se rechazó.
+   * @since 1.1
+   */
+  public record LineaRechazada(long linea, String motivo) {
+  }
+}
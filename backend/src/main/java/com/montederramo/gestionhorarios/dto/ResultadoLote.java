@@ -0,0 +1,25 @@
+package com.montederramo.gestionhorarios.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de una escritura en lote: cuántas filas se guardaron y cuáles se rechazaron.
+ *
+ * @param procesadas El número de filas guardadas.
+ * @param rechazadas Las filas que no se guardaron, con el motivo de cada una.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public record ResultadoLote(int procesadas, List<FilaRechazada> rechazadas) {
+
+  /**
+   * Una fila rechazada en una escritura en lote.
+   *
+   * @param indice La posición de la fila en la petición, empezando en 0.
+   * @param motivo El motivo por el que se rechazó.
+   * @since 1.1
+   */
+  public record FilaRechazada(int indice, String motivo) {
+  }
+}
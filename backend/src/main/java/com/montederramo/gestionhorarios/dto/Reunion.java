@@ -1,5 +1,6 @@
 package com.montederramo.gestionhorarios.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.Getter;
@@ -7,12 +8,16 @@ import lombok.Setter;
 import lombok.RequiredArgsConstructor;
 import lombok.NoArgsConstructor;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
 
 @Getter
 @Setter
 @RequiredArgsConstructor
 @Entity
-@Table(name = "reuniones")
+@Table(name = "reuniones", indexes = {
+    @Index(name = "idx_reuniones_fecha", columnList = "fecha")
+})
 public class Reunion {
 
   @Id
@@ -26,6 +31,26 @@ public class Reunion {
   @Column(name = "titulo")
   private String titulo;
 
+  // Duración en minutos; si falta, la búsqueda de huecos la considera de una hora.
+  @Column(name = "duracion")
+  private Integer duracion;
+
+  @Version
+  @Column(name = "version")
+  private Integer version;
+
+  // IDs de los empleados convocados. Se leen y se escriben en /api/reuniones/{id}/asistentes, no en el JSON de la
+  // reunión, para que los listados no tengan que cargarlos. La clave primaria (id_reunion, empleado_id) sirve a la
+  // carga de los asistentes de cada reunión, y el índice (empleado_id, id_reunion), a la búsqueda de huecos.
+  @ElementCollection(fetch = FetchType.LAZY)
+  @CollectionTable(name = "reuniones_asistentes",
+      joinColumns = @JoinColumn(name = "id_reunion"),
+      foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT),
+      indexes = @Index(name = "idx_reuniones_asistentes_empleado", columnList = "empleado_id, id_reunion"))
+  @Column(name = "empleado_id", nullable = false)
+  @JsonIgnore
+  private Set<Integer> asistentes = new HashSet<>();
+
   public void setId(Integer id) {
     this.id = id;
   }
@@ -12,7 +12,9 @@ import java.time.LocalTime;
 @Setter
 @RequiredArgsConstructor
 @Entity
-@Table(name = "sesiones_descanso")
+@Table(name = "sesiones_descanso", indexes = {
+    @Index(name = "idx_sesiones_descanso_jornada", columnList = "id_jornada, tiempo_inicio")
+})
 public class SesionDescanso {
 
   @Id
@@ -29,6 +31,10 @@ public class SesionDescanso {
   @Column(name = "tiempo_fin")
   private LocalTime tiempoFin;
 
+  @Version
+  @Column(name = "version")
+  private Integer version;
+
   public void setId(Integer id) {
     this.id = id;
   }
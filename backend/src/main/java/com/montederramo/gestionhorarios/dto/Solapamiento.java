@@ -0,0 +1,19 @@
+package com.montederramo.gestionhorarios.dto;
+
+/**
+ * Una sesión que entra en conflicto con las demás sesiones de su jornada.
+ *
+ * @param tipo El tipo de conflicto.
+ * @param idJornada El ID de la jornada.
+ * @param idSesion El ID de la sesión en conflicto (de trabajo o de descanso, según el tipo).
+ * @param idSesionConflicto El ID de la sesión de trabajo con la que se solapa, o null si es un descanso fuera de trabajo.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public record Solapamiento(
+    TipoSolapamiento tipo,
+    Integer idJornada,
+    Integer idSesion,
+    Integer idSesionConflicto) {
+}
@@ -12,7 +12,9 @@ import java.util.Date;
 @Setter
 @RequiredArgsConstructor
 @Entity
-@Table(name = "tareas")
+@Table(name = "tareas", indexes = {
+    @Index(name = "idx_tareas_estado_fecha", columnList = "estado, fecha")
+})
 public class Tarea {
 
   @Id
@@ -29,6 +31,10 @@ public class Tarea {
   @Column(name = "estado")
   private String estado;
 
+  @Version
+  @Column(name = "version")
+  private Integer version;
+
   public void setId(Integer id) {
     this.id = id;
   }
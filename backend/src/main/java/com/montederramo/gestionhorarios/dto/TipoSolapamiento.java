@@ -0,0 +1,15 @@
+package com.montederramo.gestionhorarios.dto;
+
+/**
+ * Tipos de incoherencia entre las sesiones de una jornada.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public enum TipoSolapamiento {
+  /** Dos sesiones de trabajo de la misma jornada se solapan. */
+  TRABAJO_SOLAPADO,
+  /** Una sesión de descanso no está dentro de ninguna sesión de trabajo de su jornada. */
+  DESCANSO_FUERA_DE_TRABAJO
+}
@@ -0,0 +1,103 @@
+package com.montederramo.gestionhorarios.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Acceso a las tablas de archivo, donde se mueven las jornadas y sesiones de los meses cerrados para que las
+ * tablas de uso diario no crezcan sin límite. Son tablas InnoDB comprimidas con las mismas columnas que las
+ * originales, así que los informes pueden leerlas junto a ellas.
+ * Las tablas de uso diario se regeneran al arrancar y sus IDs vuelven a empezar, así que las de archivo tienen
+ * su propio ID autoincremental y guardan el original en {@code id_origen}. El {@code id_jornada} de las sesiones
+ * archivadas apunta al ID de la jornada en {@code jornada_archivo}.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Repository
+public class ArchivoRepository {
+
+  /** Tabla de archivo de las jornadas. */
+  public static final String JORNADA = "jornada_archivo";
+
+  /** Tabla de archivo de las sesiones de trabajo. */
+  public static final String SESIONES_TRABAJO = "sesiones_trabajo_archivo";
+
+  /** Tabla de archivo de las sesiones de descanso. */
+  public static final String SESIONES_DESCANSO = "sesiones_descanso_archivo";
+
+  private static final String TABLA_SESIONES = "CREATE TABLE IF NOT EXISTS %s ("
+      + "id INT NOT NULL AUTO_INCREMENT PRIMARY KEY, id_origen INT NOT NULL, id_jornada INT, "
+      + "tiempo_inicio TIME(6), tiempo_fin TIME(6), version INT, "
+      + "INDEX idx_%s_jornada (id_jornada, tiempo_inicio)) ROW_FORMAT=COMPRESSED";
+
+  // Las jornadas de esta pasada son las de ID mayor que el último que había antes de copiarlas.
+  private static final String ARCHIVAR_SESIONES = "INSERT INTO %s (id_origen, id_jornada, tiempo_inicio, tiempo_fin, "
+      + "version) SELECT s.id, ja.id, s.tiempo_inicio, s.tiempo_fin, s.version FROM %s s "
+      + "JOIN " + JORNADA + " ja ON ja.id_origen = s.id_jornada WHERE ja.id > ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param jdbcTemplate La plantilla JDBC con la que se lanzan las sentencias.
+   * @since 1.1
+   */
+  @Autowired
+  public ArchivoRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Crea las tablas de archivo si todavía no existen.
+   * No son entidades JPA para que el esquema que regenera Hibernate no las borre al arrancar.
+   *
+   * @since 1.1
+   */
+  public void crearTablas() {
+    jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + JORNADA + " ("
+        + "id INT NOT NULL AUTO_INCREMENT PRIMARY KEY, id_origen INT NOT NULL, fecha DATETIME(6), "
+        + "empleado_id INT NOT NULL, version INT, "
+        + "INDEX idx_jornada_archivo_origen (id_origen), "
+        + "INDEX idx_jornada_archivo_fecha (fecha), "
+        + "INDEX idx_jornada_archivo_empleado_fecha (empleado_id, fecha)) ROW_FORMAT=COMPRESSED");
+    jdbcTemplate.execute(TABLA_SESIONES.formatted(SESIONES_TRABAJO, SESIONES_TRABAJO));
+    jdbcTemplate.execute(TABLA_SESIONES.formatted(SESIONES_DESCANSO, SESIONES_DESCANSO));
+  }
+
+  /**
+   * Devuelve la fecha de la jornada más antigua que queda en las tablas de uso diario.
+   *
+   * @return La fecha más antigua, o vacío si no hay jornadas.
+   * @since 1.1
+   */
+  public Optional<Date> primeraFechaActiva() {
+    return Optional.ofNullable(jdbcTemplate.queryForObject("SELECT MIN(fecha) FROM jornada", Timestamp.class));
+  }
+
+  /**
+   * Copia en las tablas de archivo las jornadas anteriores a un instante y todas sus sesiones.
+   * Primero se copian las jornadas, y después las sesiones enlazadas con los IDs que acaban de recibir.
+   * No borra nada: las filas copiadas se borran después de las tablas de uso diario en la misma transacción.
+   *
+   * @param hasta El primer instante que se conserva en las tablas de uso diario.
+   * @return El número de jornadas copiadas.
+   * @since 1.1
+   */
+  public int archivarAnterioresA(Date hasta) {
+    Timestamp limite = new Timestamp(hasta.getTime());
+    Integer ultimoId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + JORNADA, Integer.class);
+    int archivadas = jdbcTemplate.update("INSERT INTO " + JORNADA + " (id_origen, fecha, empleado_id, version) "
+        + "SELECT id, fecha, empleado_id, version FROM jornada WHERE fecha < ?", limite);
+    jdbcTemplate.update(ARCHIVAR_SESIONES.formatted(SESIONES_TRABAJO, "sesiones_trabajo"), ultimoId);
+    jdbcTemplate.update(ARCHIVAR_SESIONES.formatted(SESIONES_DESCANSO, "sesiones_descanso"), ultimoId);
+    return archivadas;
+  }
+}
@@ -0,0 +1,81 @@
+package com.montederramo.gestionhorarios.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Lectura de las sesiones de un día con su empleado, para construir el índice de disponibilidad.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Repository
+public class DisponibilidadRepository {
+
+  // Las dos ramas recorren el índice de la fecha de las jornadas y el de la jornada de las sesiones.
+  private static final String SESIONES = "SELECT j.id AS id_jornada, j.empleado_id, 1 AS trabajo, "
+      + "s.tiempo_inicio, s.tiempo_fin FROM jornada j JOIN sesiones_trabajo s ON s.id_jornada = j.id "
+      + "WHERE j.fecha >= ? AND j.fecha < ?%1$s "
+      + "UNION ALL SELECT j.id, j.empleado_id, 0, s.tiempo_inicio, s.tiempo_fin "
+      + "FROM jornada j JOIN sesiones_descanso s ON s.id_jornada = j.id "
+      + "WHERE j.fecha >= ? AND j.fecha < ?%1$s";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param jdbcTemplate La plantilla JDBC con la que se leen las sesiones.
+   * @since 1.1
+   */
+  @Autowired
+  public DisponibilidadRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+  }
+
+  /**
+   * Recorre las sesiones de trabajo y de descanso de las jornadas de un día.
+   * Cada fila tiene las columnas {@code id_jornada}, {@code empleado_id}, {@code trabajo} (1 para las sesiones
+   * de trabajo y 0 para las de descanso), {@code tiempo_inicio} y {@code tiempo_fin} (null si sigue abierta).
+   *
+   * @param desde El primer instante del día (incluido).
+   * @param hasta El primer instante del día siguiente (excluido).
+   * @param empleadoId Si no es null, limita el recorrido a ese empleado.
+   * @param manejador La operación a aplicar a cada fila.
+   * @since 1.1
+   */
+  public void recorrerSesiones(Date desde, Date hasta, Integer empleadoId, RowCallbackHandler manejador) {
+    if (empleadoId == null) {
+      jdbcTemplate.query(SESIONES.formatted(""), manejador, desde, hasta, desde, hasta);
+    } else {
+      jdbcTemplate.query(SESIONES.formatted(" AND j.empleado_id = ?"), manejador,
+          desde, hasta, empleadoId, desde, hasta, empleadoId);
+    }
+  }
+
+  /**
+   * Recorre el empleado y la fecha de las jornadas indicadas que todavía existen.
+   * Cada fila tiene las columnas {@code id}, {@code empleado_id} y {@code fecha}.
+   *
+   * @param idsJornada Los IDs de las jornadas.
+   * @param manejador La operación a aplicar a cada fila.
+   * @since 1.1
+   */
+  public void recorrerJornadas(Collection<Integer> idsJornada, RowCallbackHandler manejador) {
+    if (idsJornada.isEmpty()) {
+      return;
+    }
+    namedParameterJdbcTemplate.query("SELECT id, empleado_id, fecha FROM jornada WHERE id IN (:ids)",
+        Map.of("ids", idsJornada), manejador);
+  }
+}
@@ -1,10 +1,22 @@
 package com.montederramo.gestionhorarios.repositories;
 
 import com.montederramo.gestionhorarios.dto.Empleado; // Use dto.Empleado
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * @author Lucas V. (k4ts0v@protonmail.com)
@@ -14,5 +26,23 @@ import java.util.Optional;
 @Repository
 public interface EmpleadoRepository extends JpaRepository<Empleado, String> {
   public Optional<Empleado> findEmpleadoById(int id);
-  void deleteEmpleadoById(int id);
+
+  @Modifying
+  @Query("delete from Empleado e where e.id = :id")
+  int deleteEmpleadoById(@Param("id") int id);
+
+  List<Empleado> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+
+  // Bloquea la fila del empleado hasta el final de la transacción, para que dos fichajes del mismo empleado
+  // no busquen o creen su jornada a la vez.
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select e from Empleado e where e.id = :id")
+  Optional<Empleado> bloquearEmpleadoById(@Param("id") int id);
+
+  @QueryHints({
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select e from Empleado e order by e.id")
+  Stream<Empleado> streamAllByOrderByIdAsc();
 }
@@ -0,0 +1,72 @@
+package com.montederramo.gestionhorarios.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Lectura en streaming de las sesiones de trabajo con su jornada y su empleado, para las exportaciones.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Repository
+public class ExportacionRepository {
+
+  // Las filas archivadas se exportan con los IDs que tenían en las tablas de uso diario (id_origen).
+  private static final String SESIONES_TRABAJO = "SELECT j.empleado_id, e.nombre, e.apellido, e.equipo, "
+      + "DATE(j.fecha) AS dia, j.%4$s AS id_jornada, s.%4$s AS id_sesion, s.tiempo_inicio, s.tiempo_fin, "
+      + InformeRepository.DURACION_SESION + " AS segundos "
+      + "FROM %1$s j JOIN %2$s s ON s.id_jornada = j.id LEFT JOIN empleados e ON e.id = j.empleado_id "
+      + "WHERE j.fecha >= ? AND j.fecha < ?%3$s ORDER BY j.fecha, j.id";
+
+  private final JdbcTemplate cursor;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param dataSource El origen de datos sobre el que se abre el cursor.
+   * @since 1.1
+   */
+  @Autowired
+  public ExportacionRepository(DataSource dataSource) {
+    this.cursor = new JdbcTemplate(dataSource);
+    this.cursor.setFetchSize(Integer.MIN_VALUE);
+  }
+
+  /**
+   * Recorre las sesiones de trabajo de las jornadas de un rango, ordenadas por fecha y jornada.
+   * Si se incluye el archivo, primero se recorren las jornadas archivadas y después las de uso diario.
+   * Cada fila tiene las columnas {@code empleado_id}, {@code nombre}, {@code apellido}, {@code equipo}, {@code dia},
+   * {@code id_jornada}, {@code id_sesion}, {@code tiempo_inicio}, {@code tiempo_fin} y {@code segundos}
+   * (null si la sesión sigue abierta).
+   *
+   * @param desde El primer instante del rango (incluido).
+   * @param hasta El último instante del rango (excluido).
+   * @param empleadoId Si no es null, limita el recorrido a ese empleado.
+   * @param incluirArchivo Si también se leen las tablas de archivo.
+   * @param manejador La operación a aplicar a cada fila.
+   * @since 1.1
+   */
+  public void recorrerSesionesTrabajo(Date desde, Date hasta, Integer empleadoId, boolean incluirArchivo,
+      RowCallbackHandler manejador) {
+    String filtroEmpleado = empleadoId != null ? " AND j.empleado_id = ?" : "";
+    List<Object> parametros = new ArrayList<>(List.of(desde, hasta));
+    if (empleadoId != null) {
+      parametros.add(empleadoId);
+    }
+    if (incluirArchivo) {
+      cursor.query(SESIONES_TRABAJO.formatted(ArchivoRepository.JORNADA, ArchivoRepository.SESIONES_TRABAJO,
+          filtroEmpleado, "id_origen"), manejador, parametros.toArray());
+    }
+    cursor.query(SESIONES_TRABAJO.formatted("jornada", "sesiones_trabajo", filtroEmpleado, "id"), manejador,
+        parametros.toArray());
+  }
+}
@@ -0,0 +1,76 @@
+package com.montederramo.gestionhorarios.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Lectura de los intervalos ocupados de un grupo de empleados (reuniones y descansos), para buscar huecos comunes.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Repository
+public class HuecosRepository {
+
+  // Se sirve del índice (empleado_id, id_reunion) de los asistentes. Una reunión con varios de los empleados aparece
+  // una sola vez.
+  private static final String REUNIONES = "SELECT DISTINCT r.id, r.fecha, r.duracion FROM reuniones_asistentes a "
+      + "JOIN reuniones r ON r.id = a.id_reunion "
+      + "WHERE a.empleado_id IN (:empleados) AND r.fecha >= :desde AND r.fecha < :hasta";
+
+  private static final String DESCANSOS = "SELECT j.fecha, s.tiempo_inicio, s.tiempo_fin FROM jornada j "
+      + "JOIN sesiones_descanso s ON s.id_jornada = j.id "
+      + "WHERE j.empleado_id IN (:empleados) AND j.fecha >= :desde AND j.fecha < :hasta";
+
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param jdbcTemplate La plantilla JDBC con la que se leen los intervalos.
+   * @since 1.1
+   */
+  @Autowired
+  public HuecosRepository(JdbcTemplate jdbcTemplate) {
+    this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+  }
+
+  /**
+   * Recorre las reuniones de un rango a las que está convocado alguno de los empleados.
+   * Cada fila tiene las columnas {@code id}, {@code fecha} y {@code duracion} (en minutos, o null).
+   *
+   * @param empleados Los IDs de los empleados.
+   * @param desde El primer instante del rango (incluido).
+   * @param hasta El último instante del rango (excluido).
+   * @param manejador La operación a aplicar a cada fila.
+   * @since 1.1
+   */
+  public void recorrerReuniones(Collection<Integer> empleados, Date desde, Date hasta, RowCallbackHandler manejador) {
+    namedParameterJdbcTemplate.query(REUNIONES, Map.of("empleados", empleados, "desde", desde, "hasta", hasta),
+        manejador);
+  }
+
+  /**
+   * Recorre las sesiones de descanso de las jornadas de un rango de los empleados.
+   * Cada fila tiene las columnas {@code fecha} (la de la jornada), {@code tiempo_inicio} y {@code tiempo_fin}
+   * (null si sigue abierta).
+   *
+   * @param empleados Los IDs de los empleados.
+   * @param desde El primer instante del rango (incluido).
+   * @param hasta El último instante del rango (excluido).
+   * @param manejador La operación a aplicar a cada fila.
+   * @since 1.1
+   */
+  public void recorrerDescansos(Collection<Integer> empleados, Date desde, Date hasta, RowCallbackHandler manejador) {
+    namedParameterJdbcTemplate.query(DESCANSOS, Map.of("empleados", empleados, "desde", desde, "hasta", hasta),
+        manejador);
+  }
+}
@@ -0,0 +1,125 @@
+package com.montederramo.gestionhorarios.repositories;
+
+import com.montederramo.gestionhorarios.dto.Empleado;
+import com.montederramo.gestionhorarios.dto.Jornada;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Escrituras en lote de las importaciones CSV de empleados y jornadas mediante JDBC.
+ * Como en {@link SesionLoteRepository}, las entidades usan {@code GenerationType.IDENTITY}, así que
+ * las filas se envían con {@code batchUpdate} directamente sobre las tablas.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Repository
+public class ImportacionRepository {
+
+  // Igual que en los lotes de sesiones, una fila con ID sobrescribe el empleado sin comprobar la versión.
+  private static final String UPSERT_EMPLEADO = "INSERT INTO empleados "
+      + "(id, nombre, apellido, correo, rol, equipo, foto_url, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0) "
+      + "ON DUPLICATE KEY UPDATE nombre = VALUES(nombre), apellido = VALUES(apellido), correo = VALUES(correo), "
+      + "rol = VALUES(rol), equipo = VALUES(equipo), foto_url = VALUES(foto_url), version = version + 1";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+  private final int tamanoLote;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param jdbcTemplate La plantilla JDBC con la que se envían los lotes.
+   * @param tamanoLote El número de filas que se envían al servidor en cada lote JDBC.
+   * @since 1.1
+   */
+  @Autowired
+  public ImportacionRepository(JdbcTemplate jdbcTemplate, @Value("${lotes.tamano:500}") int tamanoLote) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    this.tamanoLote = tamanoLote;
+  }
+
+  /**
+   * Inserta los empleados sin ID y actualiza los que ya tienen uno.
+   *
+   * @param empleados Los empleados a guardar.
+   * @since 1.1
+   */
+  public void guardarEmpleados(List<Empleado> empleados) {
+    jdbcTemplate.batchUpdate(UPSERT_EMPLEADO, empleados, tamanoLote, (ps, empleado) -> {
+      ps.setObject(1, empleado.getId());
+      ps.setString(2, empleado.getNombre());
+      ps.setString(3, empleado.getApellido());
+      ps.setString(4, empleado.getCorreo());
+      ps.setString(5, empleado.getRol());
+      ps.setString(6, empleado.getEquipo());
+      ps.setString(7, empleado.getFotoUrl());
+    });
+  }
+
+  /**
+   * Devuelve cuáles de los IDs indicados corresponden a empleados existentes.
+   *
+   * @param idsEmpleado Los IDs a comprobar.
+   * @return El subconjunto de IDs que existen.
+   * @since 1.1
+   */
+  public Set<Integer> filtrarEmpleadosExistentes(Collection<Integer> idsEmpleado) {
+    if (idsEmpleado.isEmpty()) {
+      return Set.of();
+    }
+    return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+        "SELECT id FROM empleados WHERE id IN (:ids)", Map.of("ids", idsEmpleado), Integer.class));
+  }
+
+  /**
+   * Busca las jornadas de varios empleados en un rango de fechas.
+   *
+   * @param idsEmpleado Los IDs de los empleados.
+   * @param desde El primer instante del rango (incluido).
+   * @param hasta El último instante del rango (excluido).
+   * @return Las jornadas encontradas, con su ID, fecha y empleado.
+   * @since 1.1
+   */
+  public List<Jornada> buscarJornadas(Collection<Integer> idsEmpleado, Date desde, Date hasta) {
+    if (idsEmpleado.isEmpty()) {
+      return List.of();
+    }
+    return namedParameterJdbcTemplate.query(
+        "SELECT id, fecha, empleado_id FROM jornada WHERE empleado_id IN (:ids) AND fecha >= :desde AND fecha < :hasta",
+        Map.of("ids", idsEmpleado, "desde", desde, "hasta", hasta), (rs, fila) -> {
+          Jornada jornada = new Jornada();
+          jornada.setId(rs.getInt("id"));
+          jornada.setFecha(rs.getTimestamp("fecha"));
+          jornada.setEmpleadoId(rs.getInt("empleado_id"));
+          return jornada;
+        });
+  }
+
+  /**
+   * Inserta jornadas nuevas.
+   *
+   * @param jornadas Las jornadas a insertar, con fecha y empleado.
+   * @since 1.1
+   */
+  public void crearJornadas(List<Jornada> jornadas) {
+    jdbcTemplate.batchUpdate("INSERT INTO jornada (fecha, empleado_id, version) VALUES (?, ?, 0)", jornadas,
+        tamanoLote, (ps, jornada) -> {
+          ps.setTimestamp(1, new Timestamp(jornada.getFecha().getTime()));
+          ps.setInt(2, jornada.getEmpleadoId());
+        });
+  }
+}
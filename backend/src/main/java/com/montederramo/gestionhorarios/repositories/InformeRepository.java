@@ -0,0 +1,141 @@
+package com.montederramo.gestionhorarios.repositories;
+
+import com.montederramo.gestionhorarios.dto.AgrupacionInforme;
+import com.montederramo.gestionhorarios.dto.InformeHoras;
+import com.montederramo.gestionhorarios.dto.PeriodoInforme;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Consultas de agregación para los informes de horas.
+ * Se escriben en SQL nativo porque agrupan sobre varias tablas en una sola pasada,
+ * algo que las consultas derivadas de Spring Data no permiten expresar.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Repository
+public class InformeRepository {
+
+  /** Duración en segundos de una sesión; las que cruzan la medianoche se cuentan hasta la hora de fin del día siguiente. */
+  static final String DURACION_SESION =
+      "MOD(TIME_TO_SEC(s.tiempo_fin) - TIME_TO_SEC(s.tiempo_inicio) + 86400, 86400)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param jdbcTemplate La plantilla JDBC con la que se lanzan las consultas.
+   * @since 1.1
+   */
+  @Autowired
+  public InformeRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Calcula los minutos trabajados, de descanso y extra por empleado o equipo y periodo.
+   * La consulta suma primero las sesiones cerradas de cada empleado y día (para poder calcular
+   * las horas extra día a día) y después agrupa esos días por periodo, todo en una sola sentencia.
+   * Cada jornada está o en las tablas de uso diario o en las de archivo, nunca en las dos, así que
+   * leer ambas da el mismo resultado aunque el archivado vaya por detrás del periodo activo.
+   *
+   * @param desde El primer instante del rango (incluido).
+   * @param hasta El último instante del rango (excluido).
+   * @param periodo El periodo por el que se agrupa.
+   * @param agrupacion El criterio por el que se agrupa.
+   * @param empleadoId Si no es null, limita el informe a ese empleado.
+   * @param equipo Si no es null, limita el informe a ese equipo.
+   * @param segundosJornadaOrdinaria Los segundos diarios a partir de los cuales el trabajo cuenta como extra.
+   * @param incluirArchivo Si también se leen las tablas de archivo, porque el rango empieza en un mes archivado.
+   * @return Las filas del informe ordenadas por empleado o equipo y periodo.
+   * @since 1.1
+   */
+  public List<InformeHoras> calcularHoras(Date desde, Date hasta, PeriodoInforme periodo,
+      AgrupacionInforme agrupacion, Integer empleadoId, String equipo, long segundosJornadaOrdinaria,
+      boolean incluirArchivo) {
+    String filtroEmpleado = empleadoId != null ? " AND j.empleado_id = ?" : "";
+    String columnasClave = switch (agrupacion) {
+      case EMPLEADO -> "d.empleado_id AS empleado_id, MAX(e.equipo) AS equipo";
+      case EQUIPO -> "NULL AS empleado_id, e.equipo AS equipo";
+    };
+    String grupoClave = switch (agrupacion) {
+      case EMPLEADO -> "d.empleado_id";
+      case EQUIPO -> "e.equipo";
+    };
+    String inicioPeriodo = switch (periodo) {
+      case DIA -> "d.dia";
+      case SEMANA -> "DATE_SUB(d.dia, INTERVAL WEEKDAY(d.dia) DAY)";
+      case MES -> "DATE_SUB(d.dia, INTERVAL DAYOFMONTH(d.dia) - 1 DAY)";
+    };
+
+    List<String> ramasSesiones = new ArrayList<>();
+    ramasSesiones.add(ramaSesiones("jornada", "sesiones_trabajo", true, filtroEmpleado));
+    ramasSesiones.add(ramaSesiones("jornada", "sesiones_descanso", false, filtroEmpleado));
+    if (incluirArchivo) {
+      ramasSesiones.add(ramaSesiones(ArchivoRepository.JORNADA, ArchivoRepository.SESIONES_TRABAJO, true,
+          filtroEmpleado));
+      ramasSesiones.add(ramaSesiones(ArchivoRepository.JORNADA, ArchivoRepository.SESIONES_DESCANSO, false,
+          filtroEmpleado));
+    }
+    String ramas = String.join(" UNION ALL", ramasSesiones);
+
+    String sql = "SELECT " + columnasClave + ", " + inicioPeriodo + " AS periodo,"
+        + " SUM(GREATEST(d.trabajo - d.descanso, 0)) AS trabajo,"
+        + " SUM(d.descanso) AS descanso,"
+        + " SUM(GREATEST(d.trabajo - d.descanso - ?, 0)) AS extra"
+        + " FROM ("
+        + "   SELECT x.empleado_id, x.dia, SUM(x.trabajo) AS trabajo, SUM(x.descanso) AS descanso FROM ("
+        + ramas
+        + "   ) x GROUP BY x.empleado_id, x.dia"
+        + " ) d LEFT JOIN empleados e ON e.id = d.empleado_id"
+        + (equipo != null ? " WHERE e.equipo = ?" : "")
+        + " GROUP BY " + grupoClave + ", periodo"
+        + " ORDER BY " + grupoClave + ", periodo";
+
+    List<Object> parametros = new ArrayList<>();
+    parametros.add(segundosJornadaOrdinaria);
+    for (int rama = 0; rama < ramasSesiones.size(); rama++) {
+      parametros.add(desde);
+      parametros.add(hasta);
+      if (empleadoId != null) {
+        parametros.add(empleadoId);
+      }
+    }
+    if (equipo != null) {
+      parametros.add(equipo);
+    }
+
+    return jdbcTemplate.query(sql, (rs, fila) -> new InformeHoras(
+        rs.getObject("empleado_id", Integer.class),
+        rs.getString("equipo"),
+        rs.getDate("periodo").toLocalDate(),
+        rs.getLong("trabajo") / 60,
+        rs.getLong("descanso") / 60,
+        rs.getLong("extra") / 60), parametros.toArray());
+  }
+
+  /**
+   * Devuelve la parte de la consulta que lee las sesiones cerradas de una tabla de jornadas y otra de sesiones.
+   *
+   * @param tablaJornadas La tabla de jornadas.
+   * @param tablaSesiones La tabla de sesiones de trabajo o de descanso.
+   * @param trabajo Si las sesiones son de trabajo; si no, su duración cuenta como descanso.
+   * @param filtroEmpleado El filtro por empleado, o una cadena vacía.
+   * @return El SELECT de esa rama, con los parámetros de fechas y empleado sin rellenar.
+   */
+  private static String ramaSesiones(String tablaJornadas, String tablaSesiones, boolean trabajo,
+      String filtroEmpleado) {
+    String duraciones = trabajo ? DURACION_SESION + " AS trabajo, 0 AS descanso" : "0, " + DURACION_SESION;
+    return "     SELECT j.empleado_id, DATE(j.fecha)" + (trabajo ? " AS dia" : "") + ", " + duraciones
+        + "     FROM " + tablaJornadas + " j JOIN " + tablaSesiones + " s ON s.id_jornada = j.id"
+        + "     WHERE j.fecha >= ? AND j.fecha < ? AND s.tiempo_fin IS NOT NULL" + filtroEmpleado;
+  }
+}
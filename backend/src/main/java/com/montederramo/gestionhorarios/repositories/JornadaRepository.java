@@ -1,10 +1,25 @@
 package com.montederramo.gestionhorarios.repositories;
 
 import com.montederramo.gestionhorarios.dto.Jornada; // Use dto.Jornada
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * @author Lucas V. (k4ts0v@protonmail.com)
@@ -14,5 +29,51 @@ import java.util.Optional;
 @Repository
 public interface JornadaRepository extends JpaRepository<Jornada, String> {
   public Optional<Jornada> findJornadaById(int id);
-  void deleteJornadaById(int id);
+
+  @Modifying
+  @Query("delete from Jornada j where j.id = :id")
+  int deleteJornadaById(@Param("id") int id);
+
+  @Modifying
+  @Query("delete from Jornada j where j.fecha < :hasta")
+  int deleteByFechaAnterior(@Param("hasta") Date hasta);
+
+  List<Jornada> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+  List<Jornada> findByEmpleadoIdAndFechaGreaterThanEqualAndFechaLessThanOrderByFechaAsc(int empleadoId, Date desde, Date hasta);
+  Optional<Jornada> findFirstByEmpleadoIdAndFechaGreaterThanEqualAndFechaLessThanOrderByFechaDesc(int empleadoId,
+      Date desde, Date hasta);
+
+  // Cargan la jornada con sus sesiones de trabajo en una consulta con JOIN. Las de descanso se leen al recorrerlas,
+  // con una sola consulta más para todas las jornadas devueltas (ver Jornada.sesionesDescanso).
+  @EntityGraph(attributePaths = "sesionesTrabajo")
+  @Query("select j from Jornada j where j.id = :id")
+  Optional<Jornada> findCompletaById(@Param("id") int id);
+
+  @EntityGraph(attributePaths = "sesionesTrabajo")
+  @Query("select j from Jornada j where j.empleadoId = :empleadoId and j.fecha >= :desde and j.fecha < :hasta "
+      + "order by j.fecha")
+  List<Jornada> findCompletasByEmpleadoIdAndFechaEnRango(@Param("empleadoId") int empleadoId,
+      @Param("desde") Date desde, @Param("hasta") Date hasta);
+
+  @Query("select j from Jornada j where j.empleadoId = :empleadoId and exists "
+      + "(select s.id from SesionTrabajo s where s.idJornada = j.id and s.tiempoFin is null) order by j.fecha desc")
+  List<Jornada> findConSesionTrabajoAbierta(@Param("empleadoId") int empleadoId, Limit limit);
+
+  // Bloquea la fila de la jornada hasta el final de la transacción, para que dos escrituras de sesiones
+  // de la misma jornada no comprueben los solapamientos a la vez.
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select j from Jornada j where j.id = :id")
+  Optional<Jornada> bloquearJornadaById(@Param("id") int id);
+
+  // Igual, para varias jornadas a la vez; el orden por ID evita interbloqueos entre dos lotes.
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select j from Jornada j where j.id in :ids order by j.id")
+  List<Jornada> bloquearJornadasByIds(@Param("ids") Collection<Integer> ids);
+
+  @QueryHints({
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select j from Jornada j order by j.id")
+  Stream<Jornada> streamAllByOrderByIdAsc();
 }
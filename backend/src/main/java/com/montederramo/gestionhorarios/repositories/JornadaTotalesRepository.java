@@ -0,0 +1,89 @@
+package com.montederramo.gestionhorarios.repositories;
+
+import com.montederramo.gestionhorarios.dto.JornadaTotales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * @author Lucas V. (k4ts0v@protonmail.com)
+ * @version 1.1
+ * @project montedarramo
+ */
+@Repository
+public interface JornadaTotalesRepository extends JpaRepository<JornadaTotales, Integer> {
+  Optional<JornadaTotales> findJornadaTotalesByIdJornada(int idJornada);
+
+  @Modifying
+  @Query("delete from JornadaTotales t where t.idJornada = :idJornada")
+  int deleteJornadaTotalesByIdJornada(@Param("idJornada") int idJornada);
+
+  @Modifying
+  @Query("delete from JornadaTotales t where t.idJornada in (select j.id from Jornada j where j.fecha < :hasta)")
+  int deleteByFechaJornadaAnterior(@Param("hasta") Date hasta);
+
+  @Query("select t from JornadaTotales t where t.idJornada in "
+      + "(select j.id from Jornada j where j.empleadoId = :empleadoId and j.fecha >= :desde and j.fecha < :hasta) "
+      + "order by t.idJornada")
+  List<JornadaTotales> findByEmpleadoIdAndFechaEnRango(@Param("empleadoId") int empleadoId, @Param("desde") Date desde,
+      @Param("hasta") Date hasta);
+
+  // Suma los incrementos a la fila de la jornada, creándola si todavía no existe, en una sola sentencia.
+  @Modifying
+  @Query(value = "INSERT INTO jornada_totales "
+      + "(id_jornada, segundos_trabajo, segundos_descanso, sesiones_trabajo, sesiones_descanso) "
+      + "VALUES (:idJornada, :segundosTrabajo, :segundosDescanso, :sesionesTrabajo, :sesionesDescanso) "
+      + "ON DUPLICATE KEY UPDATE "
+      + "segundos_trabajo = segundos_trabajo + VALUES(segundos_trabajo), "
+      + "segundos_descanso = segundos_descanso + VALUES(segundos_descanso), "
+      + "sesiones_trabajo = sesiones_trabajo + VALUES(sesiones_trabajo), "
+      + "sesiones_descanso = sesiones_descanso + VALUES(sesiones_descanso)", nativeQuery = true)
+  void sumar(@Param("idJornada") int idJornada, @Param("segundosTrabajo") long segundosTrabajo,
+      @Param("segundosDescanso") long segundosDescanso, @Param("sesionesTrabajo") int sesionesTrabajo,
+      @Param("sesionesDescanso") int sesionesDescanso);
+
+  // Vuelve a calcular desde cero los totales de las jornadas indicadas, para escrituras que no conocen los valores anteriores.
+  @Modifying
+  @Query(value = "INSERT INTO jornada_totales "
+      + "(id_jornada, segundos_trabajo, segundos_descanso, sesiones_trabajo, sesiones_descanso) "
+      + "SELECT j.id, "
+      + "COALESCE((SELECT SUM(" + InformeRepository.DURACION_SESION + ") FROM sesiones_trabajo s "
+      + "WHERE s.id_jornada = j.id AND s.tiempo_fin IS NOT NULL), 0), "
+      + "COALESCE((SELECT SUM(" + InformeRepository.DURACION_SESION + ") FROM sesiones_descanso s "
+      + "WHERE s.id_jornada = j.id AND s.tiempo_fin IS NOT NULL), 0), "
+      + "(SELECT COUNT(*) FROM sesiones_trabajo s WHERE s.id_jornada = j.id), "
+      + "(SELECT COUNT(*) FROM sesiones_descanso s WHERE s.id_jornada = j.id) "
+      + "FROM jornada j WHERE j.id IN (:idsJornada) "
+      + "ON DUPLICATE KEY UPDATE "
+      + "segundos_trabajo = VALUES(segundos_trabajo), "
+      + "segundos_descanso = VALUES(segundos_descanso), "
+      + "sesiones_trabajo = VALUES(sesiones_trabajo), "
+      + "sesiones_descanso = VALUES(sesiones_descanso)", nativeQuery = true)
+  void recalcular(@Param("idsJornada") Collection<Integer> idsJornada);
+
+  // Resta de los totales de su jornada una sesión que se va a borrar, leyendo sus horas en la misma sentencia.
+  @Modifying
+  @Query(value = "UPDATE jornada_totales t JOIN sesiones_trabajo s ON s.id_jornada = t.id_jornada "
+      + "SET t.segundos_trabajo = t.segundos_trabajo - COALESCE(" + InformeRepository.DURACION_SESION + ", 0), "
+      + "t.sesiones_trabajo = t.sesiones_trabajo - 1 WHERE s.id = :idSesion", nativeQuery = true)
+  int descontarSesionTrabajo(@Param("idSesion") int idSesion);
+
+  @Query("select s.idJornada from SesionTrabajo s where s.id = :idSesion")
+  Optional<Integer> findIdJornadaBySesionTrabajo(@Param("idSesion") int idSesion);
+
+  @Query("select s.idJornada from SesionDescanso s where s.id = :idSesion")
+  Optional<Integer> findIdJornadaBySesionDescanso(@Param("idSesion") int idSesion);
+
+  @Modifying
+  @Query(value = "UPDATE jornada_totales t JOIN sesiones_descanso s ON s.id_jornada = t.id_jornada "
+      + "SET t.segundos_descanso = t.segundos_descanso - COALESCE(" + InformeRepository.DURACION_SESION + ", 0), "
+      + "t.sesiones_descanso = t.sesiones_descanso - 1 WHERE s.id = :idSesion", nativeQuery = true)
+  int descontarSesionDescanso(@Param("idSesion") int idSesion);
+}
@@ -1,10 +1,21 @@
 package com.montederramo.gestionhorarios.repositories;
 
 import com.montederramo.gestionhorarios.dto.Reunion;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * @author Lucas V. (k4ts0v@protonmail.com)
@@ -14,5 +25,25 @@ import java.util.Optional;
 @Repository
 public interface ReunionRepository extends JpaRepository<Reunion, String> {
   public Optional<Reunion> findReunionById(int id);
-  void deleteReunionById(int id);
+
+  @Modifying
+  @Query("delete from Reunion r where r.id = :id")
+  int deleteReunionById(@Param("id") int id);
+
+  @Modifying
+  @Query(value = "DELETE FROM reuniones_asistentes WHERE id_reunion = :idReunion", nativeQuery = true)
+  int deleteAsistentesByIdReunion(@Param("idReunion") int idReunion);
+
+  List<Reunion> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+
+  // Rango semiabierto [desde, hasta) sobre la columna indexada, para que MySQL lea solo las filas del rango.
+  @Query("select r from Reunion r where r.fecha >= :desde and r.fecha < :hasta order by r.fecha, r.id")
+  List<Reunion> findByFechaEnRango(@Param("desde") Date desde, @Param("hasta") Date hasta);
+
+  @QueryHints({
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select r from Reunion r order by r.id")
+  Stream<Reunion> streamAllByOrderByIdAsc();
 }
@@ -1,10 +1,22 @@
 package com.montederramo.gestionhorarios.repositories;
 
 import com.montederramo.gestionhorarios.dto.SesionDescanso;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * @author Lucas V. (k4ts0v@protonmail.com)
@@ -14,5 +26,43 @@ import java.util.Optional;
 @Repository
 public interface SesionDescansoRepository extends JpaRepository<SesionDescanso, String> {
   public Optional<SesionDescanso> findSesionDescansoById(int id);
-  void deleteSesionDescansoById(int id);
+
+  @Modifying
+  @Query("delete from SesionDescanso s where s.id = :id")
+  int deleteSesionDescansoById(@Param("id") int id);
+
+  @Modifying
+  @Query("delete from SesionDescanso s where s.idJornada = :idJornada")
+  int deleteByIdJornada(@Param("idJornada") int idJornada);
+
+  @Modifying
+  @Query("delete from SesionDescanso s where s.idJornada in (select j.id from Jornada j where j.fecha < :hasta)")
+  int deleteByFechaJornadaAnterior(@Param("hasta") Date hasta);
+
+  List<SesionDescanso> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+  List<SesionDescanso> findByIdJornadaOrderByTiempoInicioAsc(Integer idJornada);
+
+  @Query("select s from SesionDescanso s where s.idJornada in "
+      + "(select j.id from Jornada j where j.empleadoId = :empleadoId and j.fecha >= :desde and j.fecha < :hasta) "
+      + "order by s.idJornada, s.tiempoInicio")
+  List<SesionDescanso> findByEmpleadoIdAndFechaEnRango(@Param("empleadoId") int empleadoId, @Param("desde") Date desde,
+      @Param("hasta") Date hasta);
+
+  // Abre un descanso solo si hay una sesión de trabajo abierta y ningún descanso abierto, en la misma sentencia.
+  @Modifying
+  @Query(value = "INSERT INTO sesiones_descanso (id_jornada, tiempo_inicio, version) SELECT :idJornada, :hora, 0 FROM DUAL "
+      + "WHERE EXISTS (SELECT 1 FROM sesiones_trabajo WHERE id_jornada = :idJornada AND tiempo_fin IS NULL) "
+      + "AND NOT EXISTS (SELECT 1 FROM sesiones_descanso WHERE id_jornada = :idJornada AND tiempo_fin IS NULL)", nativeQuery = true)
+  int abrirSiHayTrabajoAbierto(@Param("idJornada") int idJornada, @Param("hora") LocalTime hora);
+
+  @Modifying
+  @Query("update SesionDescanso s set s.tiempoFin = :hora, s.version = s.version + 1 where s.idJornada = :idJornada and s.tiempoFin is null")
+  int cerrarAbiertas(@Param("idJornada") int idJornada, @Param("hora") LocalTime hora);
+
+  @QueryHints({
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select s from SesionDescanso s order by s.id")
+  Stream<SesionDescanso> streamAllByOrderByIdAsc();
 }
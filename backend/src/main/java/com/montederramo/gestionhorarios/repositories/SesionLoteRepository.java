@@ -0,0 +1,156 @@
+package com.montederramo.gestionhorarios.repositories;
+
+import com.montederramo.gestionhorarios.dto.SesionDescanso;
+import com.montederramo.gestionhorarios.dto.SesionTrabajo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Escrituras en lote de sesiones de trabajo y de descanso mediante JDBC.
+ * Las entidades usan {@code GenerationType.IDENTITY}, que impide a Hibernate agrupar inserciones,
+ * así que los lotes se envían con {@code batchUpdate} directamente sobre las tablas.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Repository
+public class SesionLoteRepository {
+
+  // La versión de las filas con ID se compara antes de guardarlas, con las sesiones bloqueadas por
+  // bloquearSesiones*, así que aquí solo se incrementa.
+  private static final String UPSERT_SESION = "INSERT INTO %s (id, id_jornada, tiempo_inicio, tiempo_fin, version) "
+      + "VALUES (?, ?, ?, ?, 0) ON DUPLICATE KEY UPDATE id_jornada = VALUES(id_jornada), "
+      + "tiempo_inicio = VALUES(tiempo_inicio), tiempo_fin = VALUES(tiempo_fin), version = version + 1";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+  private final int tamanoLote;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param jdbcTemplate La plantilla JDBC con la que se envían los lotes.
+   * @param tamanoLote El número de filas que se envían al servidor en cada lote JDBC.
+   * @since 1.1
+   */
+  @Autowired
+  public SesionLoteRepository(JdbcTemplate jdbcTemplate, @Value("${lotes.tamano:500}") int tamanoLote) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    this.tamanoLote = tamanoLote;
+  }
+
+  /**
+   * Inserta las sesiones de trabajo sin ID y actualiza las que ya tienen uno, que deben existir: el ID de una
+   * fila nueva lo asigna siempre la base de datos.
+   *
+   * @param sesiones Las sesiones a guardar.
+   * @since 1.1
+   */
+  public void guardarSesionesTrabajo(List<SesionTrabajo> sesiones) {
+    jdbcTemplate.batchUpdate(UPSERT_SESION.formatted("sesiones_trabajo"), sesiones, tamanoLote, (ps, sesion) -> {
+      ps.setObject(1, sesion.getId());
+      ps.setObject(2, sesion.getIdJornada());
+      ps.setObject(3, sesion.getTiempoInicio());
+      ps.setObject(4, sesion.getTiempoFin());
+    });
+  }
+
+  /**
+   * Inserta las sesiones de descanso sin ID y actualiza las que ya tienen uno, que deben existir: el ID de una
+   * fila nueva lo asigna siempre la base de datos.
+   *
+   * @param sesiones Las sesiones a guardar.
+   * @since 1.1
+   */
+  public void guardarSesionesDescanso(List<SesionDescanso> sesiones) {
+    jdbcTemplate.batchUpdate(UPSERT_SESION.formatted("sesiones_descanso"), sesiones, tamanoLote, (ps, sesion) -> {
+      ps.setObject(1, sesion.getId());
+      ps.setObject(2, sesion.getIdJornada());
+      ps.setObject(3, sesion.getTiempoInicio());
+      ps.setObject(4, sesion.getTiempoFin());
+    });
+  }
+
+  /**
+   * Devuelve cuáles de los IDs indicados corresponden a jornadas existentes.
+   *
+   * @param idsJornada Los IDs a comprobar.
+   * @return El subconjunto de IDs que existen.
+   * @since 1.1
+   */
+  public Set<Integer> filtrarJornadasExistentes(Collection<Integer> idsJornada) {
+    if (idsJornada.isEmpty()) {
+      return Set.of();
+    }
+    return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+        "SELECT id FROM jornada WHERE id IN (:ids)", Map.of("ids", idsJornada), Integer.class));
+  }
+
+  /**
+   * Bloquea las sesiones de trabajo indicadas que existen hasta el final de la transacción y devuelve cómo están: su
+   * jornada, sus horas y su versión.
+   *
+   * @param idsSesion Los IDs de las sesiones.
+   * @return Las sesiones encontradas, por ID. No están vinculadas al contexto de persistencia.
+   * @since 1.1
+   */
+  public Map<Integer, SesionTrabajo> bloquearSesionesTrabajo(Collection<Integer> idsSesion) {
+    return bloquearSesiones("sesiones_trabajo", idsSesion, (rs, fila) -> {
+      SesionTrabajo sesion = new SesionTrabajo();
+      sesion.setId(rs.getInt("id"));
+      sesion.setIdJornada(rs.getObject("id_jornada", Integer.class));
+      sesion.setTiempoInicio(rs.getObject("tiempo_inicio", LocalTime.class));
+      sesion.setTiempoFin(rs.getObject("tiempo_fin", LocalTime.class));
+      sesion.setVersion(rs.getObject("version", Integer.class));
+      return sesion;
+    });
+  }
+
+  /**
+   * Bloquea las sesiones de descanso indicadas que existen hasta el final de la transacción y devuelve cómo están: su
+   * jornada, sus horas y su versión.
+   *
+   * @param idsSesion Los IDs de las sesiones.
+   * @return Las sesiones encontradas, por ID. No están vinculadas al contexto de persistencia.
+   * @since 1.1
+   */
+  public Map<Integer, SesionDescanso> bloquearSesionesDescanso(Collection<Integer> idsSesion) {
+    return bloquearSesiones("sesiones_descanso", idsSesion, (rs, fila) -> {
+      SesionDescanso sesion = new SesionDescanso();
+      sesion.setId(rs.getInt("id"));
+      sesion.setIdJornada(rs.getObject("id_jornada", Integer.class));
+      sesion.setTiempoInicio(rs.getObject("tiempo_inicio", LocalTime.class));
+      sesion.setTiempoFin(rs.getObject("tiempo_fin", LocalTime.class));
+      sesion.setVersion(rs.getObject("version", Integer.class));
+      return sesion;
+    });
+  }
+
+  private <T> Map<Integer, T> bloquearSesiones(String tabla, Collection<Integer> idsSesion, RowMapper<T> mapeador) {
+    Map<Integer, T> sesiones = new HashMap<>();
+    if (idsSesion.isEmpty()) {
+      return sesiones;
+    }
+    namedParameterJdbcTemplate.query(
+        "SELECT id, id_jornada, tiempo_inicio, tiempo_fin, version FROM " + tabla
+            + " WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+        Map.of("ids", idsSesion), rs -> {
+          sesiones.put(rs.getInt("id"), mapeador.mapRow(rs, rs.getRow()));
+        });
+    return sesiones;
+  }
+}
@@ -1,10 +1,22 @@
 package com.montederramo.gestionhorarios.repositories;
 
 import com.montederramo.gestionhorarios.dto.SesionTrabajo; // Use dto.SesionTrabajo
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * @author Lucas V. (k4ts0v@protonmail.com)
@@ -14,5 +26,60 @@ import java.util.Optional;
 @Repository
 public interface SesionTrabajoRepository extends JpaRepository<SesionTrabajo, String> {
   public Optional<SesionTrabajo> findSesionTrabajoById(int id);
-  void deleteSesionTrabajoById(int id);
+
+  @Modifying
+  @Query("delete from SesionTrabajo s where s.id = :id")
+  int deleteSesionTrabajoById(@Param("id") int id);
+
+  @Modifying
+  @Query("delete from SesionTrabajo s where s.idJornada = :idJornada")
+  int deleteByIdJornada(@Param("idJornada") int idJornada);
+
+  @Modifying
+  @Query("delete from SesionTrabajo s where s.idJornada in (select j.id from Jornada j where j.fecha < :hasta)")
+  int deleteByFechaJornadaAnterior(@Param("hasta") Date hasta);
+
+  List<SesionTrabajo> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+  List<SesionTrabajo> findByIdJornadaOrderByTiempoInicioAsc(Integer idJornada);
+
+  @Query("select s from SesionTrabajo s where s.idJornada in "
+      + "(select j.id from Jornada j where j.empleadoId = :empleadoId and j.fecha >= :desde and j.fecha < :hasta) "
+      + "order by s.idJornada, s.tiempoInicio")
+  List<SesionTrabajo> findByEmpleadoIdAndFechaEnRango(@Param("empleadoId") int empleadoId, @Param("desde") Date desde,
+      @Param("hasta") Date hasta);
+
+  // Sesiones de la jornada que se solapan con [inicio, fin). Una sesión abierta o que cruza la medianoche
+  // llega hasta el final de la jornada, igual que el intervalo pedido cuando fin es null.
+  @Query("select s.id from SesionTrabajo s where s.idJornada = :idJornada and (:id is null or s.id <> :id) "
+      + "and (:fin is null or s.tiempoInicio < :fin) "
+      + "and (s.tiempoFin is null or s.tiempoFin < s.tiempoInicio or s.tiempoFin > :inicio)")
+  List<Integer> buscarSolapadas(@Param("idJornada") int idJornada, @Param("id") Integer id,
+      @Param("inicio") LocalTime inicio, @Param("fin") LocalTime fin, Limit limit);
+
+  // Comprueba si alguna sesión de trabajo de la jornada contiene [inicio, fin); con fin null solo la contiene
+  // una sesión abierta o que cruza la medianoche.
+  @Query("select count(s) > 0 from SesionTrabajo s where s.idJornada = :idJornada and s.tiempoInicio <= :inicio "
+      + "and (s.tiempoFin is null or s.tiempoFin < s.tiempoInicio or s.tiempoFin >= :fin)")
+  boolean existeQueContiene(@Param("idJornada") int idJornada, @Param("inicio") LocalTime inicio,
+      @Param("fin") LocalTime fin);
+
+  // Abre una sesión solo si no se solapa con ninguna otra de la jornada, comprobándolo en la misma sentencia. La
+  // sesión abierta llega hasta el final de la jornada, así que choca con cualquier otra que termine después de :hora,
+  // que siga abierta o que cruce la medianoche; es la misma condición que buscarSolapadas con fin null.
+  @Modifying
+  @Query(value = "INSERT INTO sesiones_trabajo (id_jornada, tiempo_inicio, version) SELECT :idJornada, :hora, 0 FROM DUAL "
+      + "WHERE NOT EXISTS (SELECT 1 FROM sesiones_trabajo WHERE id_jornada = :idJornada "
+      + "AND (tiempo_fin IS NULL OR tiempo_fin < tiempo_inicio OR tiempo_fin > :hora))", nativeQuery = true)
+  int abrirSiNoSeSolapa(@Param("idJornada") int idJornada, @Param("hora") LocalTime hora);
+
+  @Modifying
+  @Query("update SesionTrabajo s set s.tiempoFin = :hora, s.version = s.version + 1 where s.idJornada = :idJornada and s.tiempoFin is null")
+  int cerrarAbiertas(@Param("idJornada") int idJornada, @Param("hora") LocalTime hora);
+
+  @QueryHints({
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select s from SesionTrabajo s order by s.id")
+  Stream<SesionTrabajo> streamAllByOrderByIdAsc();
 }
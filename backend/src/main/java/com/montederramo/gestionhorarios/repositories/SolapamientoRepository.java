@@ -0,0 +1,80 @@
+package com.montederramo.gestionhorarios.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Lectura de las sesiones en el orden que necesita la búsqueda de solapamientos.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Repository
+public class SolapamientoRepository {
+
+  /** Valor de la columna {@code tipo} para las sesiones de trabajo. */
+  public static final int TRABAJO = 0;
+
+  /** Valor de la columna {@code tipo} para las sesiones de descanso. */
+  public static final int DESCANSO = 1;
+
+  private static final String SESIONES_ORDENADAS =
+      "SELECT " + TRABAJO + " AS tipo, id, id_jornada, tiempo_inicio, tiempo_fin FROM sesiones_trabajo "
+      + "WHERE id_jornada IS NOT NULL AND tiempo_inicio IS NOT NULL %1$s"
+      + "UNION ALL "
+      + "SELECT " + DESCANSO + ", id, id_jornada, tiempo_inicio, tiempo_fin FROM sesiones_descanso "
+      + "WHERE id_jornada IS NOT NULL AND tiempo_inicio IS NOT NULL %1$s"
+      + "ORDER BY id_jornada, tiempo_inicio, tipo";
+
+  private final JdbcTemplate cursor;
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param dataSource El origen de datos sobre el que se abre el cursor.
+   * @since 1.1
+   */
+  @Autowired
+  public SolapamientoRepository(DataSource dataSource) {
+    this.cursor = new JdbcTemplate(dataSource);
+    this.cursor.setFetchSize(Integer.MIN_VALUE);
+    this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+  }
+
+  /**
+   * Recorre las sesiones de trabajo y de descanso juntas, ordenadas por jornada y hora de inicio.
+   * A igual hora de inicio, las de trabajo van antes que las de descanso.
+   * Cada fila tiene las columnas {@code tipo}, {@code id}, {@code id_jornada}, {@code tiempo_inicio} y {@code tiempo_fin}.
+   *
+   * @param manejador La operación a aplicar a cada fila.
+   * @since 1.1
+   */
+  public void recorrerSesionesOrdenadas(RowCallbackHandler manejador) {
+    cursor.query(SESIONES_ORDENADAS.formatted(""), manejador);
+  }
+
+  /**
+   * Recorre, igual que {@link #recorrerSesionesOrdenadas(RowCallbackHandler)}, solo las sesiones de unas jornadas.
+   * Son pocas filas, así que se leen sin cursor.
+   *
+   * @param idsJornada Los IDs de las jornadas.
+   * @param manejador La operación a aplicar a cada fila.
+   * @since 1.1
+   */
+  public void recorrerSesionesOrdenadas(Collection<Integer> idsJornada, RowCallbackHandler manejador) {
+    if (idsJornada.isEmpty()) {
+      return;
+    }
+    namedParameterJdbcTemplate.query(SESIONES_ORDENADAS.formatted("AND id_jornada IN (:ids) "),
+        Map.of("ids", idsJornada), manejador);
+  }
+}
@@ -1,10 +1,22 @@
 package com.montederramo.gestionhorarios.repositories;
 
+import com.montederramo.gestionhorarios.dto.ColumnaTablero;
 import com.montederramo.gestionhorarios.dto.Tarea;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * @author Lucas V. (k4ts0v@protonmail.com)
@@ -14,5 +26,38 @@ import java.util.Optional;
 @Repository
 public interface TareaRepository extends JpaRepository<Tarea, String> {
   public Optional<Tarea> findTareaById(int id);
-  void deleteTareaById(int id);
+
+  @Modifying
+  @Query("delete from Tarea t where t.id = :id")
+  int deleteTareaById(@Param("id") int id);
+
+  List<Tarea> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+
+  // Un solo GROUP BY que recorre el índice (estado, fecha) y no lee las filas de la tabla.
+  @Query("select new com.montederramo.gestionhorarios.dto.ColumnaTablero(t.estado, count(t)) from Tarea t "
+      + "where t.estado is not null and t.fecha >= :desde and t.fecha < :hasta group by t.estado order by t.estado")
+  List<ColumnaTablero> contarPorEstado(@Param("desde") Date desde, @Param("hasta") Date hasta);
+
+  // El índice (estado, fecha) lleva implícito el id, así que las filas ya salen en el orden pedido y la consulta
+  // se detiene al llegar al límite.
+  @Query("select t from Tarea t where t.estado = :estado and t.fecha >= :desde and t.fecha < :hasta "
+      + "order by t.fecha, t.id")
+  List<Tarea> findByEstadoAndFechaEnRango(@Param("estado") String estado, @Param("desde") Date desde,
+      @Param("hasta") Date hasta, Limit limit);
+
+  // El cursor es la fecha y el id de la última tarea recibida. La condición t.fecha >= :despuesDeFecha hace que el
+  // recorrido del índice empiece en el cursor; solo se saltan las tareas de esa misma fecha con id menor o igual.
+  @Query("select t from Tarea t where t.estado = :estado and t.fecha >= :desde and t.fecha < :hasta "
+      + "and t.fecha >= :despuesDeFecha and (t.fecha > :despuesDeFecha or t.id > :despuesDe) "
+      + "order by t.fecha, t.id")
+  List<Tarea> findByEstadoAndFechaEnRangoDespuesDe(@Param("estado") String estado, @Param("desde") Date desde,
+      @Param("hasta") Date hasta, @Param("despuesDeFecha") Date despuesDeFecha, @Param("despuesDe") int despuesDe,
+      Limit limit);
+
+  @QueryHints({
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select t from Tarea t order by t.id")
+  Stream<Tarea> streamAllByOrderByIdAsc();
 }
@@ -0,0 +1,64 @@
+package com.montederramo.gestionhorarios.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+
+/**
+ * Lanza periódicamente el archivado de los meses cerrados.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Component
+public class ArchivoScheduler {
+
+  private final ArchivoService archivoService;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param archivoService El servicio que archiva los meses cerrados.
+   * @since 1.1
+   */
+  @Autowired
+  public ArchivoScheduler(ArchivoService archivoService) {
+    this.archivoService = archivoService;
+  }
+
+  /**
+   * Crea las tablas de archivo al arrancar, para que los informes puedan leerlas aunque todavía no se haya archivado nada.
+   *
+   * @since 1.1
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void prepararTablas() {
+    archivoService.crearTablas();
+  }
+
+  /**
+   * Archiva, mes a mes y empezando por el más antiguo, todos los meses anteriores al periodo activo.
+   * Cada mes se archiva en su propia transacción, para que ninguna transacción mueva más de un mes de datos;
+   * si el proceso se interrumpe, la siguiente ejecución continúa por el primer mes que quedó sin archivar.
+   *
+   * @since 1.1
+   */
+  @Scheduled(cron = "${archivo.cron:0 30 3 * * *}")
+  public void archivarMesesCerrados() {
+    LocalDate limite = archivoService.inicioPeriodoActivo();
+    Optional<YearMonth> primerMes = archivoService.primerMesActivo();
+    if (primerMes.isEmpty()) {
+      return;
+    }
+    for (YearMonth mes = primerMes.get(); mes.atDay(1).isBefore(limite); mes = mes.plusMonths(1)) {
+      archivoService.archivarAnterioresA(mes.plusMonths(1).atDay(1));
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.montederramo.gestionhorarios.repositories.ArchivoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Optional;
+
+/**
+ * Servicio que mueve las jornadas de los meses cerrados, con sus sesiones, a las tablas de archivo.
+ * Se conservan en las tablas de uso diario el mes en curso y los {@code archivo.meses-activos} meses anteriores.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Service
+@Transactional // Esta anotación se pone para indicar que deben realizarse transacciones para las operaciones indicadas.
+public class ArchivoService {
+
+  private final ArchivoRepository archivoRepository;
+  private final JornadaService jornadaService;
+  private final int mesesActivos;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param archivoRepository El repositorio de las tablas de archivo.
+   * @param jornadaService El servicio de jornadas, que borra las jornadas archivadas con sus sesiones y totales.
+   * @param mesesActivos Los meses cerrados que se conservan en las tablas de uso diario, además del mes en curso.
+   * @since 1.1
+   */
+  @Autowired
+  public ArchivoService(ArchivoRepository archivoRepository, JornadaService jornadaService,
+      @Value("${archivo.meses-activos:3}") int mesesActivos) {
+    this.archivoRepository = archivoRepository;
+    this.jornadaService = jornadaService;
+    this.mesesActivos = mesesActivos;
+  }
+
+  /**
+   * Crea las tablas de archivo si todavía no existen.
+   *
+   * @since 1.1
+   */
+  public void crearTablas() {
+    archivoRepository.crearTablas();
+  }
+
+  /**
+   * Devuelve el primer día que se conserva en las tablas de uso diario; todo lo anterior se archiva.
+   *
+   * @return El día 1 del mes más antiguo que no se archiva.
+   * @since 1.1
+   */
+  public LocalDate inicioPeriodoActivo() {
+    return YearMonth.now().minusMonths(mesesActivos).atDay(1);
+  }
+
+  /**
+   * Devuelve el mes de la jornada más antigua que queda en las tablas de uso diario.
+   *
+   * @return El mes más antiguo, o vacío si no hay jornadas.
+   * @since 1.1
+   */
+  public Optional<YearMonth> primerMesActivo() {
+    return archivoRepository.primeraFechaActiva()
+        .map(fecha -> YearMonth.from(fecha.toInstant().atZone(ZoneId.systemDefault())));
+  }
+
+  /**
+   * Mueve a las tablas de archivo las jornadas anteriores a un día, con sus sesiones, en una sola transacción.
+   * Las filas se copian y después se borran de las tablas de uso diario, junto con los totales de esas jornadas.
+   *
+   * @param dia El primer día que se conserva en las tablas de uso diario.
+   * @return El número de jornadas archivadas.
+   * @since 1.1
+   */
+  public int archivarAnterioresA(LocalDate dia) {
+    int archivadas = archivoRepository.archivarAnterioresA(Fechas.inicioDelDia(dia));
+    jornadaService.eliminarJornadasAnterioresA(dia);
+    return archivadas;
+  }
+}
@@ -0,0 +1,60 @@
+package com.montederramo.gestionhorarios.services;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escritura de ficheros CSV según el RFC 4180.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+final class Csv {
+
+  private Csv() {
+  }
+
+  /**
+   * Escribe una línea con los valores indicados, terminada en CRLF.
+   * Los valores null se escriben como campos vacíos, y los que contienen comas, comillas o saltos
+   * de línea se encierran entre comillas duplicando las comillas internas.
+   * Los textos que empiezan por {@code =}, {@code +}, {@code -}, {@code @}, tabulador o retorno de carro se escriben
+   * precedidos de un apóstrofo, para que una hoja de cálculo no los ejecute como fórmulas (inyección de CSV).
+   * Los números no se tocan, así que un valor negativo sigue siendo un número.
+   *
+   * @param salida El destino de la línea.
+   * @param valores Los valores de los campos, en orden.
+   * @throws IOException Si falla la escritura.
+   * @since 1.1
+   */
+  static void escribirLinea(Writer salida, Object... valores) throws IOException {
+    for (int i = 0; i < valores.length; i++) {
+      if (i > 0) {
+        salida.write(',');
+      }
+      if (valores[i] != null) {
+        String valor = valores[i] instanceof CharSequence texto ? neutralizarFormula(texto.toString())
+            : valores[i].toString();
+        if (valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0 || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0) {
+          salida.write('"');
+          salida.write(valor.replace("\"", "\"\""));
+          salida.write('"');
+        } else {
+          salida.write(valor);
+        }
+      }
+    }
+    salida.write("\r\n");
+  }
+
+  private static String neutralizarFormula(String valor) {
+    if (valor.isEmpty()) {
+      return valor;
+    }
+    return switch (valor.charAt(0)) {
+      case '=', '+', '-', '@', '\t', '\r' -> "'" + valor;
+      default -> valor;
+    };
+  }
+}
@@ -0,0 +1,214 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.montederramo.gestionhorarios.dto.JornadasModificadas;
+import com.montederramo.gestionhorarios.repositories.DisponibilidadRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de la disponibilidad de los empleados, con resolución de un minuto.
+ * Cada empleado tiene, por día, un mapa de 1440 bits en un {@code long[]} con los minutos en los que está trabajando
+ * y no en un descanso. Saber quién está libre en un intervalo se reduce a comparar unas pocas palabras de cada mapa
+ * con una máscara, sin consultar la base de datos.
+ * Los días se cargan la primera vez que se consultan, con una sola lectura de sus sesiones, y se guardan en una caché
+ * acotada. Los servicios publican un {@link JornadasModificadas} en cada escritura de sesiones o jornadas; cuando la
+ * transacción confirma, se vuelve a leer el mapa de cada empleado afectado en los días que están en memoria.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Service
+public class DisponibilidadService {
+
+  private static final int MINUTOS_DIA = 24 * 60;
+
+  private static final int PALABRAS = (MINUTOS_DIA + Long.SIZE - 1) / Long.SIZE;
+
+  private final DisponibilidadRepository disponibilidadRepository;
+  private final Cache<LocalDate, Dia> dias;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param disponibilidadRepository El repositorio que lee las sesiones de cada día.
+   * @param diasEnMemoria El número máximo de días que se mantienen en memoria.
+   * @since 1.1
+   */
+  @Autowired
+  public DisponibilidadService(DisponibilidadRepository disponibilidadRepository,
+      @Value("${disponibilidad.dias-en-memoria:31}") int diasEnMemoria) {
+    this.disponibilidadRepository = disponibilidadRepository;
+    this.dias = Caffeine.newBuilder().maximumSize(diasEnMemoria).build();
+  }
+
+  /**
+   * Obtiene los empleados que están trabajando, y no en un descanso, durante todo un intervalo de un día.
+   * Un minuto cuenta como trabajado solo si la sesión de trabajo lo cubre entero, y como descanso si la sesión de
+   * descanso lo toca. Las sesiones abiertas se extienden hasta el final del día, y las que cruzan la medianoche
+   * solo cuentan hasta ella.
+   *
+   * @param dia El día.
+   * @param desde El inicio del intervalo.
+   * @param hasta El fin del intervalo, posterior al inicio.
+   * @return Los IDs de los empleados disponibles, en orden ascendente.
+   * @since 1.1
+   */
+  public List<Integer> obtenerEmpleadosDisponibles(LocalDate dia, LocalTime desde, LocalTime hasta) {
+    long[] mascara = new long[PALABRAS];
+    marcar(mascara, minutoInicial(desde), minutoFinal(hasta));
+    int primera = minutoInicial(desde) / Long.SIZE;
+    int ultima = (minutoFinal(hasta) - 1) / Long.SIZE;
+
+    List<Integer> disponibles = new ArrayList<>();
+    dias.get(dia, this::cargar).disponibilidad.forEach((empleadoId, mapa) -> {
+      for (int i = primera; i <= ultima; i++) {
+        if ((mapa[i] & mascara[i]) != mascara[i]) {
+          return;
+        }
+      }
+      disponibles.add(empleadoId);
+    });
+    disponibles.sort(null);
+    return disponibles;
+  }
+
+  /**
+   * Actualiza los mapas de los empleados de las jornadas modificadas cuando la transacción que las modificó confirma.
+   * Cada jornada se busca en los días en memoria, donde estaba antes del cambio, y en la base de datos, donde está
+   * ahora; así una jornada que cambia de empleado o de fecha actualiza los dos sitios. Solo se tocan los días que
+   * ya están en memoria.
+   *
+   * @param cambio Las jornadas modificadas.
+   * @since 1.1
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void actualizar(JornadasModificadas cambio) {
+    if (dias.estimatedSize() == 0 || cambio.idsJornada().isEmpty()) {
+      return;
+    }
+    Map<LocalDate, Set<Integer>> afectados = new HashMap<>();
+    dias.asMap().forEach((dia, contenido) -> {
+      for (Integer idJornada : cambio.idsJornada()) {
+        Integer empleadoId = contenido.empleadoPorJornada.get(idJornada);
+        if (empleadoId != null) {
+          afectados.computeIfAbsent(dia, d -> new HashSet<>()).add(empleadoId);
+        }
+      }
+    });
+    disponibilidadRepository.recorrerJornadas(cambio.idsJornada(), fila -> {
+      LocalDate dia = Fechas.dia(fila.getTimestamp("fecha"));
+      if (dias.getIfPresent(dia) != null) {
+        afectados.computeIfAbsent(dia, d -> new HashSet<>()).add(fila.getInt("empleado_id"));
+      }
+    });
+    // computeIfPresent espera a que termine una carga en curso del mismo día, de modo que una carga que leyó
+    // los datos antes del commit se corrige a continuación.
+    afectados.forEach((dia, empleados) -> dias.asMap().computeIfPresent(dia, (d, contenido) -> {
+      for (Integer empleadoId : empleados) {
+        recargar(d, contenido, empleadoId);
+      }
+      return contenido;
+    }));
+  }
+
+  private Dia cargar(LocalDate dia) {
+    Dia contenido = new Dia();
+    Map<Integer, long[][]> sesiones = new HashMap<>();
+    disponibilidadRepository.recorrerSesiones(Fechas.inicioDelDia(dia), Fechas.finDelDia(dia), null,
+        fila -> leerSesion(fila, contenido, sesiones));
+    sesiones.forEach((empleadoId, mapas) -> guardar(contenido, empleadoId, mapas));
+    return contenido;
+  }
+
+  private void recargar(LocalDate dia, Dia contenido, int empleadoId) {
+    contenido.empleadoPorJornada.values().removeIf(id -> id == empleadoId);
+    Map<Integer, long[][]> sesiones = new HashMap<>();
+    disponibilidadRepository.recorrerSesiones(Fechas.inicioDelDia(dia), Fechas.finDelDia(dia), empleadoId,
+        fila -> leerSesion(fila, contenido, sesiones));
+    long[][] mapas = sesiones.get(empleadoId);
+    if (mapas == null) {
+      contenido.disponibilidad.remove(empleadoId);
+    } else {
+      guardar(contenido, empleadoId, mapas);
+    }
+  }
+
+  // Acumula la sesión en el mapa de trabajo (posición 0) o de descanso (posición 1) de su empleado.
+  private static void leerSesion(ResultSet fila, Dia contenido, Map<Integer, long[][]> sesiones) throws SQLException {
+    int empleadoId = fila.getInt("empleado_id");
+    contenido.empleadoPorJornada.put(fila.getInt("id_jornada"), empleadoId);
+    long[][] mapas = sesiones.computeIfAbsent(empleadoId, id -> new long[2][PALABRAS]);
+    LocalTime inicio = fila.getObject("tiempo_inicio", LocalTime.class);
+    LocalTime fin = fila.getObject("tiempo_fin", LocalTime.class);
+    if (inicio == null) {
+      return;
+    }
+    boolean abierta = fin == null || fin.isBefore(inicio);
+    if (fila.getInt("trabajo") == 1) {
+      marcar(mapas[0], minutoFinal(inicio), abierta ? MINUTOS_DIA : fin.toSecondOfDay() / 60);
+    } else {
+      marcar(mapas[1], minutoInicial(inicio), abierta ? MINUTOS_DIA : minutoFinal(fin));
+    }
+  }
+
+  // Se reemplaza el array entero en lugar de modificarlo, para que las consultas concurrentes nunca vean un mapa a medias.
+  private static void guardar(Dia contenido, int empleadoId, long[][] mapas) {
+    long[] disponibilidad = new long[PALABRAS];
+    boolean vacio = true;
+    for (int i = 0; i < PALABRAS; i++) {
+      disponibilidad[i] = mapas[0][i] & ~mapas[1][i];
+      vacio &= disponibilidad[i] == 0;
+    }
+    if (vacio) {
+      contenido.disponibilidad.remove(empleadoId);
+    } else {
+      contenido.disponibilidad.put(empleadoId, disponibilidad);
+    }
+  }
+
+  // Activa los bits de los minutos [desde, hasta), palabra a palabra.
+  private static void marcar(long[] mapa, int desde, int hasta) {
+    while (desde < hasta) {
+      int palabra = desde / Long.SIZE;
+      int finPalabra = Math.min(hasta, (palabra + 1) * Long.SIZE);
+      int bits = finPalabra - desde;
+      long mascara = bits == Long.SIZE ? -1L : ((1L << bits) - 1) << (desde % Long.SIZE);
+      mapa[palabra] |= mascara;
+      desde = finPalabra;
+    }
+  }
+
+  // El minuto que contiene la hora indicada.
+  private static int minutoInicial(LocalTime hora) {
+    return hora.toSecondOfDay() / 60;
+  }
+
+  // El primer minuto que empieza en la hora indicada o después de ella.
+  private static int minutoFinal(LocalTime hora) {
+    return (hora.toSecondOfDay() + 59) / 60;
+  }
+
+  /** Los mapas de disponibilidad de un día y el empleado de cada jornada cargada, para localizar los cambios. */
+  private static final class Dia {
+
+    private final Map<Integer, long[]> disponibilidad = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> empleadoPorJornada = new ConcurrentHashMap<>();
+  }
+}
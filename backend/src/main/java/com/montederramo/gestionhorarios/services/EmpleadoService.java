@@ -1,17 +1,30 @@
 package com.montederramo.gestionhorarios.services;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.montederramo.gestionhorarios.config.CacheConfig;
 import com.montederramo.gestionhorarios.dto.Empleado;
 import com.montederramo.gestionhorarios.repositories.EmpleadoRepository;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
 /**
  * Servicio encargado de gestionar las operaciones relacionadas con los empleados.
  * Incluye métodos para crear, obtener, actualizar y eliminar empleados.
+ * Las lecturas por ID se sirven desde caché; cada escritura actualiza o invalida la entrada del empleado afectado.
  * @author Lucas Villa (k4ts0v@protonmail.com)
  * @since 1.0
  * @version 1.0
@@ -21,16 +34,23 @@ import jakarta.transaction.Transactional;
 public class EmpleadoService {
 
   private final EmpleadoRepository empleadoRepository;
+  private final EntityManager entityManager;
+  private final VersionesTablas versionesTablas;
 
   /**
    * Constructor para inyección de dependencias.
    *
    * @param empleadoRepository El repositorio de empleados para interactuar con los datos.
+   * @param entityManager El gestor de entidades, usado para desvincular las filas ya recorridas.
+   * @param versionesTablas El contador de versiones, que se incrementa en cada escritura para invalidar los ETags.
    * @since 1.0
    */
   @Autowired
-  public EmpleadoService(EmpleadoRepository empleadoRepository) {
+  public EmpleadoService(EmpleadoRepository empleadoRepository, EntityManager entityManager,
+      VersionesTablas versionesTablas) {
     this.empleadoRepository = empleadoRepository;
+    this.entityManager = entityManager;
+    this.versionesTablas = versionesTablas;
   }
 
   /**
@@ -40,7 +60,9 @@ public class EmpleadoService {
    * @return El empleado creado, incluyendo el ID asignado.
    * @since 1.0
    */
+  @CachePut(cacheNames = CacheConfig.EMPLEADOS, key = "#result.id")
   public Empleado crearEmpleado(Empleado empleado) {
+    versionesTablas.incrementar(VersionesTablas.EMPLEADOS);
     return (Empleado) empleadoRepository.save(empleado);
   }
 
@@ -54,13 +76,63 @@ public class EmpleadoService {
     return empleadoRepository.findAll();
   }
 
+  /**
+   * Obtiene una página de empleados ordenados por ID a partir de un cursor.
+   * La consulta usa la clave primaria como cursor, por lo que su coste no depende de la página pedida.
+   *
+   * @param despuesDe El ID a partir del cual se devuelven resultados (excluido), o null para empezar por el principio.
+   * @param limite El número máximo de resultados a devolver.
+   * @return Una lista con como mucho {@code limite} elementos cuyo ID es mayor que {@code despuesDe}.
+   * @since 1.1
+   */
+  public List<Empleado> obtenerEmpleados(Integer despuesDe, int limite) {
+    return empleadoRepository.findByIdGreaterThanOrderByIdAsc(despuesDe == null ? 0 : despuesDe, Limit.of(limite));
+  }
+
+  /**
+   * Obtiene solo los campos indicados de los empleados, ordenados por ID, con una consulta que lee únicamente
+   * esas columnas. El ID se incluye siempre, porque sirve de cursor para pedir la página siguiente.
+   *
+   * @param campos Los nombres de los campos a devolver.
+   * @param despuesDe El ID a partir del cual se devuelven resultados (excluido), o null para empezar por el principio.
+   * @param limite El número máximo de resultados a devolver, o null para devolverlos todos.
+   * @return Una fila por elemento, con el valor de cada campo por su nombre.
+   * @since 1.1
+   */
+  public List<Map<String, Object>> obtenerEmpleados(Set<String> campos, Integer despuesDe, Integer limite) {
+    return Proyecciones.listar(entityManager, Empleado.class, campos, despuesDe, limite);
+  }
+
+  /**
+   * Recorre los empleados ordenados por ID sin cargarlos todos en memoria.
+   * Cada elemento se entrega al consumidor según llega del cursor JDBC y se desvincula después
+   * del contexto de persistencia, de modo que la memoria usada no crece con el tamaño de la tabla.
+   *
+   * @param consumidor La operación a aplicar a cada elemento.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public void recorrerEmpleados(Consumer<Empleado> consumidor) {
+    try (Stream<Empleado> empleados = empleadoRepository.streamAllByOrderByIdAsc()) {
+      empleados.forEach(empleado -> {
+        consumidor.accept(empleado);
+        entityManager.detach(empleado);
+      });
+    }
+  }
+
   /**
    * Obtiene un empleado por su ID.
+   * Si no está en la caché, se lee en una transacción propia de lectura y escritura, aunque se llame desde una de
+   * solo lectura, para que el valor que se cachea salga siempre de la base de datos principal y no de una réplica
+   * retrasada.
    *
    * @param id El identificador del empleado a buscar.
    * @return Un objeto Optional que puede contener el empleado si se encuentra, o estar vacío si no existe.
    * @since 1.0
    */
+  @Cacheable(cacheNames = CacheConfig.EMPLEADOS, unless = "#result == null")
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
   public Optional<Empleado> obtenerEmpleadoPorId(Integer id) {
     return empleadoRepository.findEmpleadoById(id);
   }
@@ -72,29 +144,54 @@ public class EmpleadoService {
    * @param empleado El objeto empleado con la nueva información.
    * @return El empleado actualizado, o lanza una excepción si el empleado no existe.
    * @throws RuntimeException Si el empleado con el ID proporcionado no se encuentra.
+   * @throws OptimisticLockingFailureException Si la petición trae una versión distinta de la actual.
    * @since 1.0
    */
+  @CachePut(cacheNames = CacheConfig.EMPLEADOS, key = "#id")
   public Empleado actualizarEmpleado(Integer id, Empleado empleado) {
-    if (empleadoRepository.findEmpleadoById(id).isPresent()) {
+    Optional<Empleado> actual = empleadoRepository.findEmpleadoById(id);
+    if (actual.isPresent()) {
+      versionesTablas.incrementar(VersionesTablas.EMPLEADOS);
       empleado.setId(id);
+      // Sin versión en la petición, la actualización se aplica sobre la versión actual.
+      if (empleado.getVersion() == null) {
+        empleado.setVersion(actual.get().getVersion());
+      }
       return (Empleado) empleadoRepository.save(empleado);
     } else {
       throw new RuntimeException("Empleado no encontrado con id: " + id);
     }
   }
 
+  /**
+   * Actualiza solo los campos indicados de el empleado, con una única sentencia UPDATE y sin leerlo antes.
+   * Si entre los campos está {@code version}, el empleado solo se actualiza si no ha cambiado desde esa versión.
+   *
+   * @param id El identificador de el empleado a actualizar.
+   * @param cambios Un empleado con los nuevos valores de los campos indicados.
+   * @param campos Los nombres de los campos a actualizar.
+   * @return true si el empleado se actualizó, false si no existe.
+   * @throws OptimisticLockingFailureException Si el empleado ha cambiado desde la versión indicada.
+   * @since 1.1
+   */
+  @CacheEvict(cacheNames = CacheConfig.EMPLEADOS, key = "#id")
+  public boolean actualizarParcialmenteEmpleado(Integer id, Empleado cambios, Set<String> campos) {
+    versionesTablas.incrementar(VersionesTablas.EMPLEADOS);
+    return Parches.aplicar(entityManager, Empleado.class, id, cambios, campos);
+  }
+
   /**
    * Elimina un empleado por su ID.
+   * Como el resto de servicios, borra con una sola sentencia DELETE, sin cargar antes la entidad, y usa el número
+   * de filas borradas para saber si existía.
    *
    * @param id El identificador del empleado a eliminar.
    * @return true si el empleado fue eliminado correctamente, false si el empleado no existe.
    * @since 1.0
    */
+  @CacheEvict(cacheNames = CacheConfig.EMPLEADOS, key = "#id")
   public boolean eliminarEmpleado(Integer id) {
-    if (empleadoRepository.findEmpleadoById(id).isPresent()) {
-      empleadoRepository.deleteEmpleadoById(id);
-      return true;
-    }
-    return false;
+    versionesTablas.incrementar(VersionesTablas.EMPLEADOS);
+    return empleadoRepository.deleteEmpleadoById(id) > 0;
   }
 }
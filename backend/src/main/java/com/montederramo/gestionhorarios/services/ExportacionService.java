@@ -0,0 +1,90 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.montederramo.gestionhorarios.repositories.ExportacionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Servicio encargado de exportar las horas trabajadas a ficheros para nóminas.
+ * Las filas se escriben según llegan del cursor de la base de datos, así que la memoria usada
+ * no depende del tamaño del rango exportado.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Service
+@Transactional // Esta anotación se pone para indicar que deben realizarse transacciones para las operaciones indicadas.
+public class ExportacionService {
+
+  /** Cabecera del CSV de horas. */
+  static final String CABECERA_HORAS =
+      "empleado_id,nombre,apellido,equipo,fecha,jornada_id,sesion_id,inicio,fin,segundos";
+
+  private final ExportacionRepository exportacionRepository;
+  private final ArchivoService archivoService;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param exportacionRepository El repositorio con el cursor de las sesiones.
+   * @param archivoService El servicio de archivado, que indica desde qué día hay que leer las tablas de archivo.
+   * @since 1.1
+   */
+  @Autowired
+  public ExportacionService(ExportacionRepository exportacionRepository, ArchivoService archivoService) {
+    this.exportacionRepository = exportacionRepository;
+    this.archivoService = archivoService;
+  }
+
+  /**
+   * Escribe en CSV (UTF-8, separado por comas) una fila por cada sesión de trabajo de las jornadas
+   * entre dos días, ambos incluidos. La duración de las sesiones abiertas se deja vacía.
+   * El fichero empieza con la marca de orden de bytes para que las hojas de cálculo detecten la codificación.
+   *
+   * @param desde El primer día de la exportación.
+   * @param hasta El último día de la exportación.
+   * @param empleadoId Si no es null, limita la exportación a ese empleado.
+   * @param salida El flujo en el que se escribe el fichero; no se cierra.
+   * @throws IOException Si falla la escritura.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public void exportarHorasCsv(LocalDate desde, LocalDate hasta, Integer empleadoId, OutputStream salida)
+      throws IOException {
+    Writer csv = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+    csv.write('\uFEFF');
+    csv.write(CABECERA_HORAS);
+    csv.write("\r\n");
+    exportacionRepository.recorrerSesionesTrabajo(Fechas.inicioDelDia(desde), Fechas.finDelDia(hasta), empleadoId,
+        desde.isBefore(archivoService.inicioPeriodoActivo()), rs -> {
+          try {
+            Csv.escribirLinea(csv,
+                rs.getObject("empleado_id"),
+                rs.getString("nombre"),
+                rs.getString("apellido"),
+                rs.getString("equipo"),
+                rs.getObject("dia", LocalDate.class),
+                rs.getObject("id_jornada"),
+                rs.getObject("id_sesion"),
+                rs.getObject("tiempo_inicio", LocalTime.class),
+                rs.getObject("tiempo_fin", LocalTime.class),
+                rs.getObject("segundos"));
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+    csv.flush();
+  }
+}
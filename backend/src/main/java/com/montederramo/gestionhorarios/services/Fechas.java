@@ -0,0 +1,72 @@
+package com.montederramo.gestionhorarios.services;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Conversiones entre las fechas que llegan en las peticiones ({@link LocalDate}) y las que
+ * usan las entidades ({@link Date}), y cálculo de la duración de las sesiones.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public final class Fechas {
+
+  private Fechas() {
+  }
+
+  /**
+   * Devuelve el primer instante del día indicado en la zona horaria del servidor.
+   *
+   * @param dia El día.
+   * @return El instante de las 00:00 de ese día.
+   * @since 1.1
+   */
+  public static Date inicioDelDia(LocalDate dia) {
+    return Date.from(dia.atStartOfDay(ZoneId.systemDefault()).toInstant());
+  }
+
+  /**
+   * Devuelve el primer instante del día siguiente al indicado, útil como límite exclusivo
+   * de un rango que incluye el día completo.
+   *
+   * @param dia El último día del rango.
+   * @return El instante de las 00:00 del día siguiente.
+   * @since 1.1
+   */
+  public static Date finDelDia(LocalDate dia) {
+    return inicioDelDia(dia.plusDays(1));
+  }
+
+  /**
+   * Devuelve el día al que pertenece un instante en la zona horaria del servidor.
+   *
+   * @param fecha El instante.
+   * @return El día de ese instante.
+   * @since 1.1
+   */
+  public static LocalDate dia(Date fecha) {
+    return Instant.ofEpochMilli(fecha.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+  }
+
+  /**
+   * Calcula la duración en segundos de una sesión.
+   * Si la hora de fin es anterior a la de inicio, se entiende que la sesión cruza la medianoche.
+   *
+   * @param inicio La hora de inicio de la sesión.
+   * @param fin La hora de fin de la sesión, o null si la sesión sigue abierta.
+   * @return La duración en segundos, o 0 si falta alguna de las dos horas.
+   * @since 1.1
+   */
+  public static long segundosEntre(LocalTime inicio, LocalTime fin) {
+    if (inicio == null || fin == null) {
+      return 0;
+    }
+    long segundos = fin.toSecondOfDay() - inicio.toSecondOfDay();
+    return segundos < 0 ? segundos + 24 * 60 * 60 : segundos;
+  }
+}
@@ -0,0 +1,183 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.montederramo.gestionhorarios.dto.AccionFichaje;
+import com.montederramo.gestionhorarios.dto.CambioPresencia;
+import com.montederramo.gestionhorarios.dto.EstadoPresencia;
+import com.montederramo.gestionhorarios.dto.Fichaje;
+import com.montederramo.gestionhorarios.dto.Jornada;
+import com.montederramo.gestionhorarios.repositories.EmpleadoRepository;
+import com.montederramo.gestionhorarios.repositories.JornadaRepository;
+import com.montederramo.gestionhorarios.repositories.SesionDescansoRepository;
+import com.montederramo.gestionhorarios.repositories.SesionTrabajoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Servicio que registra los fichajes de los empleados: inicio, pausa, reanudación y fin del trabajo.
+ * Cada fichaje se resuelve en el servidor con sentencias condicionales, de modo que el cliente hace
+ * una sola llamada y no necesita leer ni reenviar las sesiones. Todos empiezan bloqueando la fila del empleado,
+ * así que dos fichajes simultáneos del mismo empleado se aplican uno detrás de otro: el segundo ve el resultado
+ * del primero y responde que no hay nada que hacer, en lugar de interbloquearse con él.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Service
+@Transactional // Esta anotación se pone para indicar que deben realizarse transacciones para las operaciones indicadas.
+public class FichajeService {
+
+  private final EmpleadoRepository empleadoRepository;
+  private final JornadaRepository jornadaRepository;
+  private final SesionTrabajoRepository sesionTrabajoRepository;
+  private final SesionDescansoRepository sesionDescansoRepository;
+  private final JornadaTotalesService jornadaTotalesService;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param empleadoRepository El repositorio de empleados, cuya fila se bloquea en cada fichaje.
+   * @param jornadaRepository El repositorio de jornadas.
+   * @param sesionTrabajoRepository El repositorio de sesiones de trabajo.
+   * @param sesionDescansoRepository El repositorio de sesiones de descanso.
+   * @param jornadaTotalesService El servicio que mantiene los totales de cada jornada.
+   * @param eventPublisher El publicador de los cambios de presencia.
+   * @since 1.1
+   */
+  @Autowired
+  public FichajeService(EmpleadoRepository empleadoRepository, JornadaRepository jornadaRepository,
+      SesionTrabajoRepository sesionTrabajoRepository, SesionDescansoRepository sesionDescansoRepository,
+      JornadaTotalesService jornadaTotalesService, ApplicationEventPublisher eventPublisher) {
+    this.empleadoRepository = empleadoRepository;
+    this.jornadaRepository = jornadaRepository;
+    this.sesionTrabajoRepository = sesionTrabajoRepository;
+    this.sesionDescansoRepository = sesionDescansoRepository;
+    this.jornadaTotalesService = jornadaTotalesService;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * Empieza a trabajar: busca la jornada de hoy del empleado, o la crea, y abre una sesión de trabajo.
+   * La fila del empleado se bloquea antes de buscar la jornada, de modo que dos fichajes simultáneos del mismo
+   * empleado no crean dos jornadas para el mismo día. La jornada se bloquea después, igual que en las demás
+   * escrituras de sesiones, porque la nueva sesión no puede solaparse con las que ya tiene.
+   *
+   * @param empleadoId El identificador del empleado.
+   * @return El fichaje registrado, o vacío si el empleado no existe, ya tenía una sesión de trabajo abierta,
+   *     aunque sea en la jornada de ayer, o la jornada de hoy ya tiene una sesión que termina después de ahora.
+   * @since 1.1
+   */
+  public Optional<Fichaje> iniciar(Integer empleadoId) {
+    LocalTime hora = ahora();
+    if (empleadoRepository.bloquearEmpleadoById(empleadoId).isEmpty()
+        || obtenerJornadaAbierta(empleadoId).isPresent()) {
+      return Optional.empty();
+    }
+    Jornada jornada = obtenerOCrearJornadaDeHoy(empleadoId);
+    jornadaRepository.bloquearJornadaById(jornada.getId());
+    if (sesionTrabajoRepository.abrirSiNoSeSolapa(jornada.getId(), hora) == 0) {
+      return Optional.empty();
+    }
+    jornadaTotalesService.registrarCambioTrabajo(null, null, null, jornada.getId(), hora, null);
+    eventPublisher.publishEvent(new CambioPresencia(empleadoId, jornada.getId(), EstadoPresencia.TRABAJANDO, hora));
+    return Optional.of(new Fichaje(empleadoId, jornada.getId(), AccionFichaje.INICIO, hora));
+  }
+
+  /**
+   * Empieza un descanso en la jornada que el empleado tiene abierta.
+   *
+   * @param empleadoId El identificador del empleado.
+   * @return El fichaje registrado, o vacío si el empleado no está trabajando o ya está en un descanso.
+   * @since 1.1
+   */
+  public Optional<Fichaje> pausar(Integer empleadoId) {
+    LocalTime hora = ahora();
+    if (empleadoRepository.bloquearEmpleadoById(empleadoId).isEmpty()) {
+      return Optional.empty();
+    }
+    Optional<Jornada> jornada = obtenerJornadaAbierta(empleadoId);
+    if (jornada.isEmpty() || sesionDescansoRepository.abrirSiHayTrabajoAbierto(jornada.get().getId(), hora) == 0) {
+      return Optional.empty();
+    }
+    jornadaTotalesService.registrarCambioDescanso(null, null, null, jornada.get().getId(), hora, null);
+    eventPublisher.publishEvent(new CambioPresencia(empleadoId, jornada.get().getId(), EstadoPresencia.EN_PAUSA, hora));
+    return Optional.of(new Fichaje(empleadoId, jornada.get().getId(), AccionFichaje.PAUSA, hora));
+  }
+
+  /**
+   * Termina el descanso abierto del empleado y vuelve al trabajo.
+   *
+   * @param empleadoId El identificador del empleado.
+   * @return El fichaje registrado, o vacío si el empleado no estaba en un descanso.
+   * @since 1.1
+   */
+  public Optional<Fichaje> reanudar(Integer empleadoId) {
+    LocalTime hora = ahora();
+    if (empleadoRepository.bloquearEmpleadoById(empleadoId).isEmpty()) {
+      return Optional.empty();
+    }
+    Optional<Jornada> jornada = obtenerJornadaAbierta(empleadoId);
+    if (jornada.isEmpty() || sesionDescansoRepository.cerrarAbiertas(jornada.get().getId(), hora) == 0) {
+      return Optional.empty();
+    }
+    jornadaTotalesService.recalcularTotales(List.of(jornada.get().getId()));
+    eventPublisher.publishEvent(new CambioPresencia(empleadoId, jornada.get().getId(), EstadoPresencia.TRABAJANDO, hora));
+    return Optional.of(new Fichaje(empleadoId, jornada.get().getId(), AccionFichaje.REANUDAR, hora));
+  }
+
+  /**
+   * Termina el trabajo: cierra el descanso abierto, si lo hay, y la sesión de trabajo abierta.
+   *
+   * @param empleadoId El identificador del empleado.
+   * @return El fichaje registrado, o vacío si el empleado no estaba trabajando.
+   * @since 1.1
+   */
+  public Optional<Fichaje> finalizar(Integer empleadoId) {
+    LocalTime hora = ahora();
+    if (empleadoRepository.bloquearEmpleadoById(empleadoId).isEmpty()) {
+      return Optional.empty();
+    }
+    Optional<Jornada> jornada = obtenerJornadaAbierta(empleadoId);
+    if (jornada.isEmpty()) {
+      return Optional.empty();
+    }
+    sesionDescansoRepository.cerrarAbiertas(jornada.get().getId(), hora);
+    if (sesionTrabajoRepository.cerrarAbiertas(jornada.get().getId(), hora) == 0) {
+      return Optional.empty();
+    }
+    jornadaTotalesService.recalcularTotales(List.of(jornada.get().getId()));
+    eventPublisher.publishEvent(new CambioPresencia(empleadoId, jornada.get().getId(), EstadoPresencia.FUERA, hora));
+    return Optional.of(new Fichaje(empleadoId, jornada.get().getId(), AccionFichaje.FIN, hora));
+  }
+
+  private Jornada obtenerOCrearJornadaDeHoy(Integer empleadoId) {
+    LocalDate hoy = LocalDate.now();
+    return jornadaRepository.findFirstByEmpleadoIdAndFechaGreaterThanEqualAndFechaLessThanOrderByFechaDesc(
+            empleadoId, Fechas.inicioDelDia(hoy), Fechas.finDelDia(hoy))
+        .orElseGet(() -> {
+          Jornada jornada = new Jornada();
+          jornada.setEmpleadoId(empleadoId);
+          jornada.setFecha(new Date());
+          return jornadaRepository.save(jornada);
+        });
+  }
+
+  // La jornada abierta puede ser la de ayer si el empleado trabaja pasada la medianoche.
+  private Optional<Jornada> obtenerJornadaAbierta(Integer empleadoId) {
+    return jornadaRepository.findConSesionTrabajoAbierta(empleadoId, Limit.of(1)).stream().findFirst();
+  }
+
+  private static LocalTime ahora() {
+    return LocalTime.now().truncatedTo(ChronoUnit.SECONDS);
+  }
+}
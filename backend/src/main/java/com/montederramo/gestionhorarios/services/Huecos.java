@@ -0,0 +1,82 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.montederramo.gestionhorarios.dto.Hueco;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Búsqueda de huecos libres entre los intervalos ocupados de un grupo de empleados.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+final class Huecos {
+
+  private Huecos() {
+  }
+
+  /**
+   * Busca los primeros intervalos de cada día, entre dos horas, que no se solapan con ninguna ocupación y duran al
+   * menos lo indicado.
+   * Las ocupaciones se ordenan por inicio y se recorren una sola vez, avanzando un cursor que marca hasta dónde está
+   * ocupado el grupo; cada vez que la siguiente ocupación empieza lo bastante después del cursor, el espacio entre
+   * ambos es un hueco. Una ocupación que sigue después del final del día se vuelve a tener en cuenta al día siguiente.
+   *
+   * @param ocupados Los intervalos ocupados, en cualquier orden. Se ordenan en el sitio.
+   * @param duracion La duración mínima de los huecos, en minutos.
+   * @param desde El primer día del rango.
+   * @param hasta El último día del rango.
+   * @param horaInicio La hora a partir de la cual se buscan huecos cada día.
+   * @param horaFin La hora hasta la que se buscan huecos cada día, posterior a la de inicio.
+   * @param ahora El primer instante en el que puede empezar un hueco; los anteriores ya han pasado.
+   * @param limite El número máximo de huecos a devolver.
+   * @return Los primeros huecos, por orden de inicio.
+   * @since 1.1
+   */
+  static List<Hueco> buscar(List<Ocupacion> ocupados, int duracion, LocalDate desde, LocalDate hasta,
+      LocalTime horaInicio, LocalTime horaFin, LocalDateTime ahora, int limite) {
+    ocupados.sort(Comparator.comparing(Ocupacion::inicio));
+    List<Hueco> huecos = new ArrayList<>();
+    int siguiente = 0;
+    for (LocalDate dia = desde; !dia.isAfter(hasta) && huecos.size() < limite; dia = dia.plusDays(1)) {
+      LocalDateTime libre = dia.atTime(horaInicio);
+      LocalDateTime finDia = dia.atTime(horaFin);
+      if (libre.isBefore(ahora)) {
+        libre = ahora;
+      }
+      while (siguiente < ocupados.size() && ocupados.get(siguiente).inicio().isBefore(finDia)
+          && huecos.size() < limite) {
+        Ocupacion ocupado = ocupados.get(siguiente);
+        if (ocupado.fin().isAfter(libre)) {
+          if (!libre.plusMinutes(duracion).isAfter(ocupado.inicio())) {
+            huecos.add(new Hueco(libre, ocupado.inicio()));
+          }
+          libre = ocupado.fin();
+        }
+        if (ocupado.fin().isAfter(finDia)) {
+          break;
+        }
+        siguiente++;
+      }
+      if (huecos.size() < limite && !libre.plusMinutes(duracion).isAfter(finDia)) {
+        huecos.add(new Hueco(libre, finDia));
+      }
+    }
+    return huecos;
+  }
+
+  /**
+   * Un intervalo en el que alguno de los empleados tiene una reunion o un descanso.
+   *
+   * @param inicio El inicio del intervalo.
+   * @param fin El fin del intervalo.
+   */
+  record Ocupacion(LocalDateTime inicio, LocalDateTime fin) {
+  }
+}
@@ -0,0 +1,267 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.montederramo.gestionhorarios.config.CacheConfig;
+import com.montederramo.gestionhorarios.dto.Empleado;
+import com.montederramo.gestionhorarios.dto.Jornada;
+import com.montederramo.gestionhorarios.dto.ProgresoImportacion.LineaRechazada;
+import com.montederramo.gestionhorarios.dto.SesionDescanso;
+import com.montederramo.gestionhorarios.dto.SesionTrabajo;
+import com.montederramo.gestionhorarios.repositories.ImportacionRepository;
+import com.montederramo.gestionhorarios.repositories.SesionLoteRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio que guarda cada lote de una importación CSV en su propia transacción.
+ * Las filas se validan por separado: las incorrectas se devuelven con su motivo y no impiden guardar las demás.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Service
+@Transactional // Esta anotación se pone para indicar que deben realizarse transacciones para las operaciones indicadas.
+public class ImportacionService {
+
+  private final ImportacionRepository importacionRepository;
+  private final SesionLoteRepository sesionLoteRepository;
+  private final JornadaTotalesService jornadaTotalesService;
+  private final Validator validator;
+  private final VersionesTablas versionesTablas;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param importacionRepository El repositorio para las escrituras en lote de empleados y jornadas.
+   * @param sesionLoteRepository El repositorio para las escrituras en lote de sesiones.
+   * @param jornadaTotalesService El servicio que recalcula los totales de las jornadas importadas.
+   * @param validator El validador con el que se comprueba cada fila.
+   * @param versionesTablas El contador de versiones, que se incrementa al importar empleados.
+   * @since 1.1
+   */
+  @Autowired
+  public ImportacionService(ImportacionRepository importacionRepository, SesionLoteRepository sesionLoteRepository,
+      JornadaTotalesService jornadaTotalesService, Validator validator, VersionesTablas versionesTablas) {
+    this.importacionRepository = importacionRepository;
+    this.sesionLoteRepository = sesionLoteRepository;
+    this.jornadaTotalesService = jornadaTotalesService;
+    this.validator = validator;
+    this.versionesTablas = versionesTablas;
+  }
+
+  /**
+   * Guarda un lote de empleados leídos de un CSV con las columnas {@code nombre}, {@code apellido}, {@code correo},
+   * {@code rol}, {@code equipo} y {@code foto_url}. Las filas sin {@code id} se insertan y las que lo tienen
+   * se actualizan. Al terminar se vacía la caché de empleados.
+   *
+   * @param filas Las filas del lote.
+   * @return Las filas rechazadas con su motivo.
+   * @since 1.1
+   */
+  @CacheEvict(cacheNames = CacheConfig.EMPLEADOS, allEntries = true)
+  public List<LineaRechazada> importarEmpleados(List<LectorCsv.Fila> filas) {
+    List<Empleado> validos = new ArrayList<>();
+    List<LineaRechazada> rechazadas = new ArrayList<>();
+    for (LectorCsv.Fila fila : filas) {
+      Empleado empleado = new Empleado();
+      String motivo = null;
+      try {
+        empleado.setId(entero(fila.valor("id")));
+        empleado.setNombre(fila.valor("nombre"));
+        empleado.setApellido(fila.valor("apellido"));
+        empleado.setCorreo(fila.valor("correo"));
+        empleado.setRol(fila.valor("rol"));
+        empleado.setEquipo(fila.valor("equipo"));
+        empleado.setFotoUrl(fila.valor("foto_url"));
+        motivo = empleado.getNombre() == null ? "Falta nombre" : violaciones(empleado);
+      } catch (NumberFormatException e) {
+        motivo = "El id no es un número";
+      }
+      if (motivo == null) {
+        validos.add(empleado);
+      } else {
+        rechazadas.add(new LineaRechazada(fila.linea(), motivo));
+      }
+    }
+    importacionRepository.guardarEmpleados(validos);
+    versionesTablas.incrementar(VersionesTablas.EMPLEADOS);
+    return rechazadas;
+  }
+
+  /**
+   * Guarda un lote de sesiones históricas leídas de un CSV con las columnas {@code empleado_id}, {@code fecha}
+   * (yyyy-MM-dd), {@code inicio} y {@code fin} (HH:mm[:ss], vacío si la sesión sigue abierta), y opcionalmente
+   * {@code tipo} ({@code trabajo}, por defecto, o {@code descanso}). Es el mismo formato que produce la exportación
+   * de horas, cuyas columnas adicionales se ignoran.
+   * Cada sesión se añade a la jornada de su empleado y fecha, que se crea si no existe, y al terminar se
+   * recalculan los totales de las jornadas afectadas. No se comprueban solapamientos, porque los datos
+   * históricos se cargan tal como se registraron.
+   *
+   * @param filas Las filas del lote.
+   * @return Las filas rechazadas con su motivo.
+   * @since 1.1
+   */
+  public List<LineaRechazada> importarSesiones(List<LectorCsv.Fila> filas) {
+    List<SesionImportada> leidas = new ArrayList<>();
+    List<LineaRechazada> rechazadas = new ArrayList<>();
+    for (LectorCsv.Fila fila : filas) {
+      String motivo = null;
+      try {
+        Integer empleadoId = entero(fila.valor("empleado_id"));
+        String fecha = fila.valor("fecha");
+        String inicio = fila.valor("inicio");
+        String tipo = fila.valor("tipo") != null ? fila.valor("tipo").toLowerCase() : "trabajo";
+        if (empleadoId == null) {
+          motivo = "Falta empleado_id";
+        } else if (fecha == null) {
+          motivo = "Falta fecha";
+        } else if (inicio == null) {
+          motivo = "Falta inicio";
+        } else if (!tipo.equals("trabajo") && !tipo.equals("descanso")) {
+          motivo = "El tipo debe ser trabajo o descanso";
+        } else {
+          String fin = fila.valor("fin");
+          leidas.add(new SesionImportada(fila.linea(), empleadoId, LocalDate.parse(fecha), LocalTime.parse(inicio),
+              fin != null ? LocalTime.parse(fin) : null, tipo.equals("trabajo")));
+        }
+      } catch (NumberFormatException e) {
+        motivo = "El empleado_id no es un número";
+      } catch (DateTimeParseException e) {
+        motivo = "Fecha u hora con formato incorrecto: " + e.getParsedString();
+      }
+      if (motivo != null) {
+        rechazadas.add(new LineaRechazada(fila.linea(), motivo));
+      }
+    }
+
+    Set<Integer> empleadosExistentes = importacionRepository.filtrarEmpleadosExistentes(
+        leidas.stream().map(SesionImportada::empleadoId).collect(Collectors.toSet()));
+    List<SesionImportada> conEmpleado = new ArrayList<>();
+    for (SesionImportada sesion : leidas) {
+      if (empleadosExistentes.contains(sesion.empleadoId())) {
+        conEmpleado.add(sesion);
+      } else {
+        rechazadas.add(new LineaRechazada(sesion.linea(), "No existe el empleado " + sesion.empleadoId()));
+      }
+    }
+
+    Map<ClaveJornada, Integer> jornadas = resolverJornadas(conEmpleado);
+    List<SesionTrabajo> trabajo = new ArrayList<>();
+    List<SesionDescanso> descanso = new ArrayList<>();
+    Set<Integer> jornadasAfectadas = new HashSet<>();
+    for (SesionImportada sesion : conEmpleado) {
+      Integer idJornada = jornadas.get(new ClaveJornada(sesion.empleadoId(), sesion.dia()));
+      String motivo;
+      if (sesion.trabajo()) {
+        SesionTrabajo sesionTrabajo = new SesionTrabajo();
+        sesionTrabajo.setIdJornada(idJornada);
+        sesionTrabajo.setTiempoInicio(sesion.inicio());
+        sesionTrabajo.setTiempoFin(sesion.fin());
+        motivo = violaciones(sesionTrabajo);
+        if (motivo == null) {
+          trabajo.add(sesionTrabajo);
+        }
+      } else {
+        SesionDescanso sesionDescanso = new SesionDescanso();
+        sesionDescanso.setIdJornada(idJornada);
+        sesionDescanso.setTiempoInicio(sesion.inicio());
+        sesionDescanso.setTiempoFin(sesion.fin());
+        motivo = violaciones(sesionDescanso);
+        if (motivo == null) {
+          descanso.add(sesionDescanso);
+        }
+      }
+      if (motivo == null) {
+        jornadasAfectadas.add(idJornada);
+      } else {
+        rechazadas.add(new LineaRechazada(sesion.linea(), motivo));
+      }
+    }
+
+    sesionLoteRepository.guardarSesionesTrabajo(trabajo);
+    sesionLoteRepository.guardarSesionesDescanso(descanso);
+    jornadaTotalesService.recalcularTotales(jornadasAfectadas);
+    rechazadas.sort(Comparator.comparingLong(LineaRechazada::linea));
+    return rechazadas;
+  }
+
+  /**
+   * Devuelve la jornada de cada empleado y día de las sesiones, creando las que faltan.
+   * Si un empleado tiene varias jornadas el mismo día, se usa la primera.
+   */
+  private Map<ClaveJornada, Integer> resolverJornadas(List<SesionImportada> sesiones) {
+    if (sesiones.isEmpty()) {
+      return Map.of();
+    }
+    Set<Integer> empleados = sesiones.stream().map(SesionImportada::empleadoId).collect(Collectors.toSet());
+    LocalDate primerDia = sesiones.stream().map(SesionImportada::dia).min(Comparator.naturalOrder()).orElseThrow();
+    LocalDate ultimoDia = sesiones.stream().map(SesionImportada::dia).max(Comparator.naturalOrder()).orElseThrow();
+
+    Map<ClaveJornada, Integer> jornadas = buscarJornadas(empleados, primerDia, ultimoDia);
+    List<Jornada> nuevas = new ArrayList<>();
+    for (SesionImportada sesion : sesiones) {
+      ClaveJornada clave = new ClaveJornada(sesion.empleadoId(), sesion.dia());
+      if (jornadas.putIfAbsent(clave, -1) == null) {
+        Jornada jornada = new Jornada();
+        jornada.setEmpleadoId(sesion.empleadoId());
+        jornada.setFecha(Fechas.inicioDelDia(sesion.dia()));
+        nuevas.add(jornada);
+      }
+    }
+    if (nuevas.isEmpty()) {
+      return jornadas;
+    }
+    importacionRepository.crearJornadas(nuevas);
+    return buscarJornadas(empleados, primerDia, ultimoDia);
+  }
+
+  private Map<ClaveJornada, Integer> buscarJornadas(Set<Integer> empleados, LocalDate primerDia, LocalDate ultimoDia) {
+    Map<ClaveJornada, Integer> jornadas = new HashMap<>();
+    for (Jornada jornada : importacionRepository.buscarJornadas(empleados, Fechas.inicioDelDia(primerDia),
+        Fechas.finDelDia(ultimoDia))) {
+      LocalDate dia = jornada.getFecha().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+      jornadas.merge(new ClaveJornada(jornada.getEmpleadoId(), dia), jornada.getId(), Math::min);
+    }
+    return jornadas;
+  }
+
+  private <T> String violaciones(T objeto) {
+    Set<ConstraintViolation<T>> violaciones = validator.validate(objeto);
+    if (violaciones.isEmpty()) {
+      return null;
+    }
+    return violaciones.stream()
+        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+        .collect(Collectors.joining("; "));
+  }
+
+  private static Integer entero(String valor) {
+    return valor != null ? Integer.valueOf(valor) : null;
+  }
+
+  /** Una sesión leída del fichero, antes de asignarle su jornada. */
+  private record SesionImportada(long linea, int empleadoId, LocalDate dia, LocalTime inicio, LocalTime fin,
+      boolean trabajo) {
+  }
+
+  /** Identifica la jornada de un empleado en un día. */
+  private record ClaveJornada(int empleadoId, LocalDate dia) {
+  }
+}
@@ -0,0 +1,97 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.montederramo.gestionhorarios.dto.ProgresoImportacion;
+import com.montederramo.gestionhorarios.dto.ProgresoImportacion.LineaRechazada;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Lee las importaciones CSV por lotes y guarda cada lote en su propia transacción, de modo que una importación
+ * grande no mantiene abierta una transacción larga ni acumula el fichero en memoria, y lo ya guardado se conserva
+ * si la importación se interrumpe.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Component
+public class ImportadorCsv {
+
+  /** Columnas obligatorias del CSV de empleados. */
+  public static final Set<String> COLUMNAS_EMPLEADOS = Set.of("nombre");
+
+  /** Columnas obligatorias del CSV de sesiones. */
+  public static final Set<String> COLUMNAS_SESIONES = Set.of("empleado_id", "fecha", "inicio");
+
+  private final ImportacionService importacionService;
+  private final int filasPorLote;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param importacionService El servicio que guarda cada lote.
+   * @param filasPorLote El número de filas que se guardan en cada transacción.
+   * @since 1.1
+   */
+  @Autowired
+  public ImportadorCsv(ImportacionService importacionService,
+      @Value("${importaciones.filas-por-lote:5000}") int filasPorLote) {
+    this.importacionService = importacionService;
+    this.filasPorLote = filasPorLote;
+  }
+
+  /**
+   * Importa los empleados de un CSV.
+   *
+   * @param lector El lector del fichero, con la cabecera ya leída.
+   * @param progreso Recibe el progreso después de cada lote y un último mensaje al terminar.
+   * @throws IOException Si falla la lectura del fichero.
+   * @see ImportacionService#importarEmpleados(List)
+   * @since 1.1
+   */
+  public void importarEmpleados(LectorCsv lector, Consumer<ProgresoImportacion> progreso) throws IOException {
+    importar(lector, progreso, importacionService::importarEmpleados);
+  }
+
+  /**
+   * Importa sesiones históricas de un CSV.
+   *
+   * @param lector El lector del fichero, con la cabecera ya leída.
+   * @param progreso Recibe el progreso después de cada lote y un último mensaje al terminar.
+   * @throws IOException Si falla la lectura del fichero.
+   * @see ImportacionService#importarSesiones(List)
+   * @since 1.1
+   */
+  public void importarSesiones(LectorCsv lector, Consumer<ProgresoImportacion> progreso) throws IOException {
+    importar(lector, progreso, importacionService::importarSesiones);
+  }
+
+  private void importar(LectorCsv lector, Consumer<ProgresoImportacion> progreso,
+      Function<List<LectorCsv.Fila>, List<LineaRechazada>> guardarLote) throws IOException {
+    int lote = 0;
+    long leidas = 0;
+    long guardadas = 0;
+    List<LectorCsv.Fila> filas = new ArrayList<>(filasPorLote);
+    LectorCsv.Fila fila = lector.leer();
+    while (fila != null) {
+      filas.add(fila);
+      fila = lector.leer();
+      if (filas.size() == filasPorLote || (fila == null && !filas.isEmpty())) {
+        List<LineaRechazada> rechazadas = guardarLote.apply(filas);
+        leidas += filas.size();
+        guardadas += filas.size() - rechazadas.size();
+        progreso.accept(new ProgresoImportacion(++lote, leidas, guardadas, rechazadas, false));
+        filas.clear();
+      }
+    }
+    progreso.accept(new ProgresoImportacion(lote, leidas, guardadas, List.of(), true));
+  }
+}
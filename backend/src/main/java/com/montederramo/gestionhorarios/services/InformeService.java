@@ -0,0 +1,68 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.montederramo.gestionhorarios.dto.AgrupacionInforme;
+import com.montederramo.gestionhorarios.dto.InformeHoras;
+import com.montederramo.gestionhorarios.dto.PeriodoInforme;
+import com.montederramo.gestionhorarios.repositories.InformeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Servicio encargado de calcular los informes de horas trabajadas para nóminas.
+ * Los totales se calculan en la base de datos, de modo que no es necesario descargar las sesiones.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Service
+@Transactional
+public class InformeService {
+
+  private final InformeRepository informeRepository;
+  private final ArchivoService archivoService;
+  private final Duration jornadaOrdinaria;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param informeRepository El repositorio con las consultas de agregación.
+   * @param archivoService El servicio de archivado, que indica desde qué día hay que leer las tablas de archivo.
+   * @param jornadaOrdinaria La duración diaria a partir de la cual el trabajo cuenta como horas extra.
+   * @since 1.1
+   */
+  @Autowired
+  public InformeService(InformeRepository informeRepository, ArchivoService archivoService,
+      @Value("${informes.jornada-ordinaria:8h}") Duration jornadaOrdinaria) {
+    this.informeRepository = informeRepository;
+    this.archivoService = archivoService;
+    this.jornadaOrdinaria = jornadaOrdinaria;
+  }
+
+  /**
+   * Calcula las horas trabajadas, de descanso y extra entre dos días, ambos incluidos.
+   * Solo se cuentan las sesiones cerradas; el tiempo de descanso se descuenta del trabajado.
+   * Si el rango empieza antes del periodo activo, se suman también las jornadas archivadas.
+   *
+   * @param desde El primer día del informe.
+   * @param hasta El último día del informe.
+   * @param periodo El periodo por el que se agrupan los totales.
+   * @param agrupacion Si los totales se agrupan por empleado o por equipo.
+   * @param empleadoId Si no es null, limita el informe a ese empleado.
+   * @param equipo Si no es null, limita el informe a ese equipo.
+   * @return Las filas del informe ordenadas por empleado o equipo y periodo.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public List<InformeHoras> calcularHoras(LocalDate desde, LocalDate hasta, PeriodoInforme periodo,
+      AgrupacionInforme agrupacion, Integer empleadoId, String equipo) {
+    return informeRepository.calcularHoras(Fechas.inicioDelDia(desde), Fechas.finDelDia(hasta), periodo,
+        agrupacion, empleadoId, equipo, jornadaOrdinaria.toSeconds(),
+        desde.isBefore(archivoService.inicioPeriodoActivo()));
+  }
+}
@@ -1,12 +1,30 @@
 package com.montederramo.gestionhorarios.services;
+import com.montederramo.gestionhorarios.dto.Empleado;
 import com.montederramo.gestionhorarios.dto.Jornada;
+import com.montederramo.gestionhorarios.dto.JornadaCompleta;
+import com.montederramo.gestionhorarios.dto.JornadasModificadas;
+import com.montederramo.gestionhorarios.dto.SesionDescanso;
+import com.montederramo.gestionhorarios.dto.SesionTrabajo;
 import com.montederramo.gestionhorarios.repositories.JornadaRepository;
-import jakarta.transaction.Transactional;
+import com.montederramo.gestionhorarios.repositories.SesionDescansoRepository;
+import com.montederramo.gestionhorarios.repositories.SesionTrabajoRepository;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Servicio encargado de gestionar las operaciones relacionadas con las jornadas.
@@ -20,16 +38,38 @@ import java.util.Optional;
 public class JornadaService {
 
   private final JornadaRepository jornadaRepository;
+  private final EntityManager entityManager;
+  private final JornadaTotalesService jornadaTotalesService;
+  private final SesionTrabajoRepository sesionTrabajoRepository;
+  private final SesionDescansoRepository sesionDescansoRepository;
+  private final EmpleadoService empleadoService;
+  private final ApplicationEventPublisher eventPublisher;
 
   /**
    * Constructor para inyección de dependencias.
    *
    * @param jornadaRepository El repositorio de jornadas para interactuar con los datos.
+   * @param entityManager El gestor de entidades, usado para desvincular las filas ya recorridas.
+   * @param jornadaTotalesService El servicio que mantiene los totales de cada jornada.
+   * @param sesionTrabajoRepository El repositorio de sesiones de trabajo, para borrarlas junto a su jornada.
+   * @param sesionDescansoRepository El repositorio de sesiones de descanso, para borrarlas junto a su jornada.
+   * @param empleadoService El servicio de empleados, cuya caché resuelve el empleado de las jornadas completas.
+   * @param eventPublisher El publicador de las jornadas modificadas, porque cambiar el empleado o la fecha de una
+   *     jornada también mueve sus sesiones.
    * @since 1.0
    */
   @Autowired
-  public JornadaService(JornadaRepository jornadaRepository) {
+  public JornadaService(JornadaRepository jornadaRepository, EntityManager entityManager,
+      JornadaTotalesService jornadaTotalesService, SesionTrabajoRepository sesionTrabajoRepository,
+      SesionDescansoRepository sesionDescansoRepository, EmpleadoService empleadoService,
+      ApplicationEventPublisher eventPublisher) {
     this.jornadaRepository = jornadaRepository;
+    this.entityManager = entityManager;
+    this.jornadaTotalesService = jornadaTotalesService;
+    this.sesionTrabajoRepository = sesionTrabajoRepository;
+    this.sesionDescansoRepository = sesionDescansoRepository;
+    this.empleadoService = empleadoService;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -49,10 +89,110 @@ public class JornadaService {
    * @return Una lista con todas las jornadas.
    * @since 1.0
    */
+  @Transactional(readOnly = true)
   public List<Jornada> obtenerJornadas() {
     return jornadaRepository.findAll();
   }
 
+  /**
+   * Obtiene una página de jornadas ordenadas por ID a partir de un cursor.
+   * La consulta usa la clave primaria como cursor, por lo que su coste no depende de la página pedida.
+   *
+   * @param despuesDe El ID a partir del cual se devuelven resultados (excluido), o null para empezar por el principio.
+   * @param limite El número máximo de resultados a devolver.
+   * @return Una lista con como mucho {@code limite} elementos cuyo ID es mayor que {@code despuesDe}.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public List<Jornada> obtenerJornadas(Integer despuesDe, int limite) {
+    return jornadaRepository.findByIdGreaterThanOrderByIdAsc(despuesDe == null ? 0 : despuesDe, Limit.of(limite));
+  }
+
+  /**
+   * Obtiene solo los campos indicados de las jornadas, ordenadas por ID, con una consulta que lee únicamente
+   * esas columnas. El ID se incluye siempre, porque sirve de cursor para pedir la página siguiente.
+   *
+   * @param campos Los nombres de los campos a devolver.
+   * @param despuesDe El ID a partir del cual se devuelven resultados (excluido), o null para empezar por el principio.
+   * @param limite El número máximo de resultados a devolver, o null para devolverlos todos.
+   * @return Una fila por elemento, con el valor de cada campo por su nombre.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> obtenerJornadas(Set<String> campos, Integer despuesDe, Integer limite) {
+    return Proyecciones.listar(entityManager, Jornada.class, campos, despuesDe, limite);
+  }
+
+  /**
+   * Obtiene las jornadas de un empleado entre dos días, ambos incluidos, ordenadas por fecha.
+   * La consulta recorre el índice (empleado_id, fecha) en lugar de la tabla completa.
+   *
+   * @param empleadoId El identificador del empleado.
+   * @param desde El primer día del rango.
+   * @param hasta El último día del rango.
+   * @return Una lista con las jornadas del empleado en ese rango.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public List<Jornada> obtenerJornadasPorEmpleado(Integer empleadoId, LocalDate desde, LocalDate hasta) {
+    return jornadaRepository.findByEmpleadoIdAndFechaGreaterThanEqualAndFechaLessThanOrderByFechaAsc(
+        empleadoId, Fechas.inicioDelDia(desde), Fechas.finDelDia(hasta));
+  }
+
+  /**
+   * Obtiene una jornada con su empleado y sus sesiones.
+   * La jornada y sus sesiones se leen con dos consultas, y el empleado sale de la caché de empleados.
+   *
+   * @param id El identificador de la jornada.
+   * @return La jornada completa, o vacío si no existe.
+   * @since 1.1
+   */
+  public Optional<JornadaCompleta> obtenerJornadaCompleta(Integer id) {
+    return jornadaRepository.findCompletaById(id)
+        .map(jornada -> completa(jornada, empleadoService.obtenerEmpleadoPorId(jornada.getEmpleadoId()).orElse(null)));
+  }
+
+  /**
+   * Obtiene las jornadas de un empleado entre dos días, ambos incluidos, con sus sesiones y ordenadas por fecha.
+   * Las jornadas con sus sesiones de trabajo se leen en una consulta y todas sus sesiones de descanso en otra,
+   * y el empleado sale de la caché de empleados.
+   *
+   * @param empleadoId El identificador del empleado.
+   * @param desde El primer día del rango.
+   * @param hasta El último día del rango.
+   * @return Una lista con las jornadas completas del empleado en ese rango.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public List<JornadaCompleta> obtenerJornadasCompletasPorEmpleado(Integer empleadoId, LocalDate desde,
+      LocalDate hasta) {
+    List<Jornada> jornadas = jornadaRepository.findCompletasByEmpleadoIdAndFechaEnRango(empleadoId,
+        Fechas.inicioDelDia(desde), Fechas.finDelDia(hasta));
+    if (jornadas.isEmpty()) {
+      return List.of();
+    }
+    Empleado empleado = empleadoService.obtenerEmpleadoPorId(empleadoId).orElse(null);
+    return jornadas.stream().map(jornada -> completa(jornada, empleado)).toList();
+  }
+
+  /**
+   * Recorre las jornadas ordenadas por ID sin cargarlas todas en memoria.
+   * Cada elemento se entrega al consumidor según llega del cursor JDBC y se desvincula después
+   * del contexto de persistencia, de modo que la memoria usada no crece con el tamaño de la tabla.
+   *
+   * @param consumidor La operación a aplicar a cada elemento.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public void recorrerJornadas(Consumer<Jornada> consumidor) {
+    try (Stream<Jornada> jornadas = jornadaRepository.streamAllByOrderByIdAsc()) {
+      jornadas.forEach(jornada -> {
+        consumidor.accept(jornada);
+        entityManager.detach(jornada);
+      });
+    }
+  }
+
   /**
    * Obtiene una jornada por su ID.
    *
@@ -71,11 +211,21 @@ public class JornadaService {
    * @param jornada El objeto jornada con la nueva información.
    * @return La jornada actualizado, o lanza una excepción si la jornada no existe.
    * @throws RuntimeException Si la jornada con el ID proporcionado no se encuentra.
+   * @throws OptimisticLockingFailureException Si la petición trae una versión distinta de la actual.
    * @since 1.0
    */
   public Jornada actualizarJornada(Integer id, Jornada jornada) {
-    if (jornadaRepository.findJornadaById(id).isPresent()) {
+    Optional<Jornada> actual = jornadaRepository.findJornadaById(id);
+    if (actual.isPresent()) {
       jornada.setId(id);
+      // Sin versión en la petición, la actualización se aplica sobre la versión actual.
+      if (jornada.getVersion() == null) {
+        jornada.setVersion(actual.get().getVersion());
+      }
+      // Las sesiones no llegan en la petición; se conservan las colecciones sin cargar para que el merge no las lea.
+      jornada.setSesionesTrabajo(actual.get().getSesionesTrabajo());
+      jornada.setSesionesDescanso(actual.get().getSesionesDescanso());
+      eventPublisher.publishEvent(new JornadasModificadas(List.of(id)));
       return (Jornada) jornadaRepository.save(jornada);
     } else {
       throw new RuntimeException("Jornada no encontrado con id: " + id);
@@ -83,17 +233,77 @@ public class JornadaService {
   }
 
   /**
-   * Elimina una jornada por su ID.
+   * Actualiza solo los campos indicados de la jornada, con una única sentencia UPDATE y sin leerla antes.
+   * Si entre los campos está {@code version}, la jornada solo se actualiza si no ha cambiado desde esa versión.
+   *
+   * @param id El identificador de la jornada a actualizar.
+   * @param cambios Una jornada con los nuevos valores de los campos indicados.
+   * @param campos Los nombres de los campos a actualizar.
+   * @return true si la jornada se actualizó, false si no existe.
+   * @throws OptimisticLockingFailureException Si la jornada ha cambiado desde la versión indicada.
+   * @since 1.1
+   */
+  public boolean actualizarParcialmenteJornada(Integer id, Jornada cambios, Set<String> campos) {
+    boolean actualizada = Parches.aplicar(entityManager, Jornada.class, id, cambios, campos);
+    if (actualizada) {
+      eventPublisher.publishEvent(new JornadasModificadas(List.of(id)));
+    }
+    return actualizada;
+  }
+
+  /**
+   * Elimina una jornada por su ID, junto con sus sesiones y sus totales.
+   * Cada tabla se borra con una sola sentencia, sin cargar antes ninguna fila.
    *
    * @param id El identificador de la jornada a eliminar.
    * @return true si la jornada fue eliminado correctamente, false si la jornada no existe.
    * @since 1.0
    */
   public boolean eliminarJornada(Integer id) {
-    if (jornadaRepository.findJornadaById(id).isPresent()) {
-      jornadaRepository.deleteJornadaById(id);
-      return true;
+    if (jornadaRepository.deleteJornadaById(id) == 0) {
+      return false;
+    }
+    sesionTrabajoRepository.deleteByIdJornada(id);
+    sesionDescansoRepository.deleteByIdJornada(id);
+    jornadaTotalesService.eliminarTotales(id);
+    return true;
+  }
+
+  /**
+   * Elimina todas las jornadas anteriores a un día, junto con sus sesiones y sus totales, para los trabajos
+   * de retención de datos. Cada tabla se borra con una sola sentencia; las sesiones y los totales se borran
+   * antes que las jornadas, porque se localizan por la fecha de su jornada.
+   *
+   * @param dia El primer día cuyas jornadas se conservan.
+   * @return El número de jornadas eliminadas.
+   * @since 1.1
+   */
+  public int eliminarJornadasAnterioresA(LocalDate dia) {
+    Date hasta = Fechas.inicioDelDia(dia);
+    sesionTrabajoRepository.deleteByFechaJornadaAnterior(hasta);
+    sesionDescansoRepository.deleteByFechaJornadaAnterior(hasta);
+    jornadaTotalesService.eliminarTotalesAnterioresA(dia);
+    return jornadaRepository.deleteByFechaAnterior(hasta);
+  }
+
+  private static JornadaCompleta completa(Jornada jornada, Empleado empleado) {
+    List<JornadaCompleta.Sesion> trabajo = new ArrayList<>();
+    long segundosTrabajo = 0;
+    for (SesionTrabajo sesion : jornada.getSesionesTrabajo()) {
+      trabajo.add(new JornadaCompleta.Sesion(sesion.getId(), sesion.getTiempoInicio(), sesion.getTiempoFin(),
+          sesion.getVersion()));
+      segundosTrabajo += Fechas.segundosEntre(sesion.getTiempoInicio(), sesion.getTiempoFin());
+    }
+    List<JornadaCompleta.Sesion> descanso = new ArrayList<>();
+    long segundosDescanso = 0;
+    for (SesionDescanso sesion : jornada.getSesionesDescanso()) {
+      descanso.add(new JornadaCompleta.Sesion(sesion.getId(), sesion.getTiempoInicio(), sesion.getTiempoFin(),
+          sesion.getVersion()));
+      segundosDescanso += Fechas.segundosEntre(sesion.getTiempoInicio(), sesion.getTiempoFin());
     }
-    return false;
+    JornadaCompleta.EmpleadoResumen resumen = empleado == null ? null : new JornadaCompleta.EmpleadoResumen(
+        empleado.getId(), empleado.getNombre(), empleado.getApellido(), empleado.getEquipo());
+    return new JornadaCompleta(jornada.getId(), jornada.getFecha(), jornada.getVersion(), resumen, trabajo, descanso,
+        segundosTrabajo, segundosDescanso);
   }
 }
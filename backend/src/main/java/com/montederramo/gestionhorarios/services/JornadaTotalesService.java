@@ -0,0 +1,211 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.montederramo.gestionhorarios.dto.JornadaTotales;
+import com.montederramo.gestionhorarios.dto.JornadasModificadas;
+import com.montederramo.gestionhorarios.repositories.JornadaTotalesRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Servicio que mantiene y consulta los totales precalculados de cada jornada.
+ * Los servicios de sesiones lo llaman en cada alta, modificación o baja para aplicar solo la diferencia,
+ * dentro de su misma transacción. Los segundos solo cuentan las sesiones cerradas; el número de sesiones
+ * incluye también las abiertas. Cada cambio se publica además como un {@link JornadasModificadas}, para que las
+ * estructuras en memoria derivadas de las sesiones se actualicen cuando confirma la transacción.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Service
+@Transactional // Esta anotación se pone para indicar que deben realizarse transacciones para las operaciones indicadas.
+public class JornadaTotalesService {
+
+  private final JornadaTotalesRepository jornadaTotalesRepository;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param jornadaTotalesRepository El repositorio de totales de jornada.
+   * @param eventPublisher El publicador de las jornadas modificadas.
+   * @since 1.1
+   */
+  @Autowired
+  public JornadaTotalesService(JornadaTotalesRepository jornadaTotalesRepository,
+      ApplicationEventPublisher eventPublisher) {
+    this.jornadaTotalesRepository = jornadaTotalesRepository;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * Obtiene los totales de una jornada.
+   *
+   * @param idJornada El identificador de la jornada.
+   * @return Un objeto Optional con los totales, o vacío si la jornada todavía no tiene sesiones.
+   * @since 1.1
+   */
+  public Optional<JornadaTotales> obtenerTotalesPorJornada(Integer idJornada) {
+    return jornadaTotalesRepository.findJornadaTotalesByIdJornada(idJornada);
+  }
+
+  /**
+   * Obtiene los totales de las jornadas de un empleado entre dos días, ambos incluidos.
+   *
+   * @param empleadoId El identificador del empleado.
+   * @param desde El primer día del rango.
+   * @param hasta El último día del rango.
+   * @return Una lista con los totales de cada jornada del rango que tenga sesiones.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public List<JornadaTotales> obtenerTotalesPorEmpleado(Integer empleadoId, LocalDate desde, LocalDate hasta) {
+    return jornadaTotalesRepository.findByEmpleadoIdAndFechaEnRango(empleadoId, Fechas.inicioDelDia(desde),
+        Fechas.finDelDia(hasta));
+  }
+
+  /**
+   * Registra el cambio de una sesión de trabajo: resta la versión anterior y suma la nueva.
+   * Cualquiera de las dos puede faltar (alta o baja); si las dos son de la misma jornada se aplica
+   * una sola actualización.
+   *
+   * @param idJornadaAnterior La jornada de la sesión antes del cambio, o null si es un alta.
+   * @param inicioAnterior La hora de inicio antes del cambio.
+   * @param finAnterior La hora de fin antes del cambio.
+   * @param idJornadaNueva La jornada de la sesión después del cambio, o null si es una baja.
+   * @param inicioNuevo La hora de inicio después del cambio.
+   * @param finNuevo La hora de fin después del cambio.
+   * @since 1.1
+   */
+  public void registrarCambioTrabajo(Integer idJornadaAnterior, LocalTime inicioAnterior, LocalTime finAnterior,
+      Integer idJornadaNueva, LocalTime inicioNuevo, LocalTime finNuevo) {
+    registrarCambio(true, idJornadaAnterior, Fechas.segundosEntre(inicioAnterior, finAnterior),
+        idJornadaNueva, Fechas.segundosEntre(inicioNuevo, finNuevo));
+  }
+
+  /**
+   * Registra el cambio de una sesión de descanso: resta la versión anterior y suma la nueva.
+   *
+   * @param idJornadaAnterior La jornada de la sesión antes del cambio, o null si es un alta.
+   * @param inicioAnterior La hora de inicio antes del cambio.
+   * @param finAnterior La hora de fin antes del cambio.
+   * @param idJornadaNueva La jornada de la sesión después del cambio, o null si es una baja.
+   * @param inicioNuevo La hora de inicio después del cambio.
+   * @param finNuevo La hora de fin después del cambio.
+   * @since 1.1
+   * @see #registrarCambioTrabajo
+   */
+  public void registrarCambioDescanso(Integer idJornadaAnterior, LocalTime inicioAnterior, LocalTime finAnterior,
+      Integer idJornadaNueva, LocalTime inicioNuevo, LocalTime finNuevo) {
+    registrarCambio(false, idJornadaAnterior, Fechas.segundosEntre(inicioAnterior, finAnterior),
+        idJornadaNueva, Fechas.segundosEntre(inicioNuevo, finNuevo));
+  }
+
+  /**
+   * Vuelve a calcular desde sus sesiones los totales de varias jornadas en una sola sentencia.
+   * Se usa en las escrituras en lote, donde no se conocen los valores anteriores de cada sesión.
+   *
+   * @param idsJornada Los identificadores de las jornadas afectadas.
+   * @since 1.1
+   */
+  public void recalcularTotales(Collection<Integer> idsJornada) {
+    if (!idsJornada.isEmpty()) {
+      jornadaTotalesRepository.recalcular(idsJornada);
+      eventPublisher.publishEvent(new JornadasModificadas(List.copyOf(idsJornada)));
+    }
+  }
+
+  /**
+   * Elimina los totales de una jornada.
+   *
+   * @param idJornada El identificador de la jornada.
+   * @since 1.1
+   */
+  public void eliminarTotales(Integer idJornada) {
+    jornadaTotalesRepository.deleteJornadaTotalesByIdJornada(idJornada);
+    eventPublisher.publishEvent(new JornadasModificadas(List.of(idJornada)));
+  }
+
+  /**
+   * Elimina los totales de todas las jornadas anteriores a un día.
+   *
+   * @param dia El primer día cuyas jornadas se conservan.
+   * @since 1.1
+   */
+  public void eliminarTotalesAnterioresA(LocalDate dia) {
+    jornadaTotalesRepository.deleteByFechaJornadaAnterior(Fechas.inicioDelDia(dia));
+  }
+
+  /**
+   * Resta de los totales de su jornada una sesión de trabajo que se va a eliminar.
+   * Debe llamarse antes de borrar la sesión, porque sus horas se leen en la misma sentencia que actualiza los totales.
+   *
+   * @param idSesion El identificador de la sesión de trabajo.
+   * @since 1.1
+   */
+  public void descontarSesionTrabajo(Integer idSesion) {
+    jornadaTotalesRepository.findIdJornadaBySesionTrabajo(idSesion)
+        .ifPresent(idJornada -> eventPublisher.publishEvent(new JornadasModificadas(List.of(idJornada))));
+    jornadaTotalesRepository.descontarSesionTrabajo(idSesion);
+  }
+
+  /**
+   * Resta de los totales de su jornada una sesión de descanso que se va a eliminar.
+   * Debe llamarse antes de borrar la sesión, porque sus horas se leen en la misma sentencia que actualiza los totales.
+   *
+   * @param idSesion El identificador de la sesión de descanso.
+   * @since 1.1
+   */
+  public void descontarSesionDescanso(Integer idSesion) {
+    jornadaTotalesRepository.findIdJornadaBySesionDescanso(idSesion)
+        .ifPresent(idJornada -> eventPublisher.publishEvent(new JornadasModificadas(List.of(idJornada))));
+    jornadaTotalesRepository.descontarSesionDescanso(idSesion);
+  }
+
+  private void registrarCambio(boolean trabajo, Integer idJornadaAnterior, long segundosAnteriores,
+      Integer idJornadaNueva, long segundosNuevos) {
+    publicarCambio(idJornadaAnterior, idJornadaNueva);
+    if (idJornadaAnterior != null && idJornadaAnterior.equals(idJornadaNueva)) {
+      if (segundosNuevos != segundosAnteriores) {
+        sumar(trabajo, idJornadaNueva, segundosNuevos - segundosAnteriores, 0);
+      }
+      return;
+    }
+    if (idJornadaAnterior != null) {
+      sumar(trabajo, idJornadaAnterior, -segundosAnteriores, -1);
+    }
+    if (idJornadaNueva != null) {
+      sumar(trabajo, idJornadaNueva, segundosNuevos, 1);
+    }
+  }
+
+  // Se publica aunque la duración no cambie, porque las horas de la sesión sí pueden haber cambiado.
+  private void publicarCambio(Integer idJornadaAnterior, Integer idJornadaNueva) {
+    List<Integer> idsJornada = new ArrayList<>(2);
+    if (idJornadaAnterior != null) {
+      idsJornada.add(idJornadaAnterior);
+    }
+    if (idJornadaNueva != null && !idJornadaNueva.equals(idJornadaAnterior)) {
+      idsJornada.add(idJornadaNueva);
+    }
+    if (!idsJornada.isEmpty()) {
+      eventPublisher.publishEvent(new JornadasModificadas(idsJornada));
+    }
+  }
+
+  private void sumar(boolean trabajo, int idJornada, long segundos, int sesiones) {
+    if (trabajo) {
+      jornadaTotalesRepository.sumar(idJornada, segundos, 0, sesiones, 0);
+    } else {
+      jornadaTotalesRepository.sumar(idJornada, 0, segundos, 0, sesiones);
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package com.montederramo.gestionhorarios.services;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lectura incremental de ficheros CSV (UTF-8, separados por comas, RFC 4180) con una cabecera en la primera línea.
+ * Cada registro se lee cuando se pide, así que el fichero nunca se carga entero en memoria.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public final class LectorCsv implements Closeable {
+
+  private final BufferedReader entrada;
+  private final List<String> cabecera;
+  private long lineasLeidas;
+  private long linea;
+
+  /**
+   * Abre el fichero y lee su cabecera. Los nombres de columna se comparan sin distinguir mayúsculas.
+   *
+   * @param entrada El contenido del fichero.
+   * @throws IOException Si falla la lectura.
+   * @since 1.1
+   */
+  public LectorCsv(InputStream entrada) throws IOException {
+    this.entrada = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+    List<String> campos = leerRegistro();
+    this.cabecera = new ArrayList<>();
+    if (campos != null) {
+      for (String campo : campos) {
+        cabecera.add(campo.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT));
+      }
+    }
+  }
+
+  /**
+   * Indica si la cabecera contiene todas las columnas indicadas.
+   *
+   * @param columnas Los nombres de las columnas, en minúsculas.
+   * @return true si están todas.
+   * @since 1.1
+   */
+  public boolean tieneColumnas(Collection<String> columnas) {
+    return cabecera.containsAll(columnas);
+  }
+
+  /**
+   * Lee el siguiente registro. Las líneas vacías se saltan.
+   *
+   * @return El registro, o null si se ha llegado al final del fichero.
+   * @throws IOException Si falla la lectura.
+   * @since 1.1
+   */
+  public Fila leer() throws IOException {
+    List<String> campos;
+    do {
+      campos = leerRegistro();
+    } while (campos != null && campos.size() == 1 && campos.get(0).isEmpty());
+    if (campos == null) {
+      return null;
+    }
+    Map<String, String> valores = new HashMap<>();
+    for (int i = 0; i < cabecera.size() && i < campos.size(); i++) {
+      String valor = campos.get(i).trim();
+      if (!valor.isEmpty()) {
+        valores.put(cabecera.get(i), valor);
+      }
+    }
+    return new Fila(linea, valores);
+  }
+
+  @Override
+  public void close() throws IOException {
+    entrada.close();
+  }
+
+  /**
+   * Lee los campos del siguiente registro, que puede ocupar varias líneas si algún campo entre comillas
+   * contiene saltos de línea. Deja en {@link #linea} el número de la línea en la que empieza.
+   */
+  private List<String> leerRegistro() throws IOException {
+    String texto = entrada.readLine();
+    if (texto == null) {
+      return null;
+    }
+    linea = ++lineasLeidas;
+    List<String> campos = new ArrayList<>();
+    StringBuilder campo = new StringBuilder();
+    boolean entreComillas = false;
+    int i = 0;
+    while (true) {
+      if (i == texto.length()) {
+        if (!entreComillas) {
+          break;
+        }
+        // El campo entre comillas sigue en la línea siguiente.
+        String siguiente = entrada.readLine();
+        if (siguiente == null) {
+          break;
+        }
+        lineasLeidas++;
+        campo.append('\n');
+        texto = siguiente;
+        i = 0;
+        continue;
+      }
+      char c = texto.charAt(i++);
+      if (entreComillas) {
+        if (c != '"') {
+          campo.append(c);
+        } else if (i < texto.length() && texto.charAt(i) == '"') {
+          campo.append('"');
+          i++;
+        } else {
+          entreComillas = false;
+        }
+      } else if (c == '"') {
+        entreComillas = true;
+      } else if (c == ',') {
+        campos.add(campo.toString());
+        campo.setLength(0);
+      } else {
+        campo.append(c);
+      }
+    }
+    campos.add(campo.toString());
+    return campos;
+  }
+
+  /**
+   * Un registro del fichero.
+   *
+   * @param linea El número de línea en el que empieza, contando la cabecera como línea 1.
+   * @param valores Los valores no vacíos del registro por nombre de columna.
+   * @since 1.1
+   */
+  public record Fila(long linea, Map<String, String> valores) {
+
+    /**
+     * Devuelve el valor de una columna.
+     *
+     * @param columna El nombre de la columna, en minúsculas.
+     * @return El valor, o null si la columna no existe o está vacía.
+     * @since 1.1
+     */
+    public String valor(String columna) {
+      return valores.get(columna);
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.montederramo.gestionhorarios.dto.ResultadoLote.FilaRechazada;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Validación fila a fila de las sesiones recibidas en las escrituras en lote.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+final class Lotes {
+
+  private Lotes() {
+  }
+
+  /**
+   * Separa las sesiones válidas de las que no se pueden guardar.
+   * Además de las restricciones de Jakarta Validation, una sesión necesita una jornada existente
+   * y una hora de inicio.
+   *
+   * @param sesiones Las sesiones recibidas, en el orden de la petición.
+   * @param validator El validador de Jakarta Validation.
+   * @param idJornada Cómo obtener la jornada de una sesión.
+   * @param tiempoInicio Cómo obtener la hora de inicio de una sesión.
+   * @param jornadasExistentes Las jornadas referenciadas que existen en la base de datos.
+   * @param validas La lista en la que se añaden las sesiones válidas.
+   * @param <T> El tipo de sesión.
+   * @return Las filas rechazadas con su motivo.
+   * @since 1.1
+   */
+  static <T> List<FilaRechazada> validarSesiones(List<T> sesiones, Validator validator,
+      Function<T, Integer> idJornada, Function<T, LocalTime> tiempoInicio, Set<Integer> jornadasExistentes,
+      List<T> validas) {
+    List<FilaRechazada> rechazadas = new ArrayList<>();
+    for (int i = 0; i < sesiones.size(); i++) {
+      T sesion = sesiones.get(i);
+      String motivo = null;
+      if (sesion == null) {
+        motivo = "La fila está vacía";
+      } else if (idJornada.apply(sesion) == null) {
+        motivo = "Falta idJornada";
+      } else if (!jornadasExistentes.contains(idJornada.apply(sesion))) {
+        motivo = "No existe la jornada " + idJornada.apply(sesion);
+      } else if (tiempoInicio.apply(sesion) == null) {
+        motivo = "Falta tiempoInicio";
+      } else {
+        Set<ConstraintViolation<T>> violaciones = validator.validate(sesion);
+        if (!violaciones.isEmpty()) {
+          motivo = violaciones.stream()
+              .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+              .collect(Collectors.joining("; "));
+        }
+      }
+      if (motivo == null) {
+        validas.add(sesion);
+      } else {
+        rechazadas.add(new FilaRechazada(i, motivo));
+      }
+    }
+    return rechazadas;
+  }
+
+  /**
+   * Rechaza las sesiones válidas que traen un ID que no existe o una versión distinta de la guardada, como hacen las
+   * escrituras de una sola sesión. Las filas con ID actualizan una sesión guardada; si se insertaran con el ID
+   * elegido por el cliente, uno muy alto adelantaría el {@code AUTO_INCREMENT} de la tabla. Una fila sin versión se
+   * aplica sobre la versión actual.
+   *
+   * @param sesiones Las sesiones recibidas, en el orden de la petición.
+   * @param id Cómo obtener el ID de una sesión.
+   * @param version Cómo obtener la versión de una sesión.
+   * @param guardadas Las sesiones guardadas con los IDs del lote, por ID.
+   * @param validas Las sesiones válidas, de las que se quitan las rechazadas.
+   * @param rechazadas Las filas rechazadas, a las que se añaden las nuevas, en el orden de la petición.
+   * @param <T> El tipo de sesión.
+   * @since 1.1
+   */
+  static <T> void compararConGuardadas(List<T> sesiones, Function<T, Integer> id, Function<T, Integer> version,
+      Map<Integer, T> guardadas, List<T> validas, List<FilaRechazada> rechazadas) {
+    Map<T, Integer> indices = indices(sesiones);
+    Set<T> descartadas = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (T sesion : validas) {
+      Integer idSesion = id.apply(sesion);
+      if (idSesion == null) {
+        continue;
+      }
+      String motivo = null;
+      if (!guardadas.containsKey(idSesion)) {
+        motivo = "No existe la sesión " + idSesion;
+      } else if (version.apply(sesion) != null
+          && !version.apply(sesion).equals(version.apply(guardadas.get(idSesion)))) {
+        motivo = "La sesión " + idSesion + " ha sido modificada por otra petición después de la versión "
+            + version.apply(sesion);
+      }
+      if (motivo != null) {
+        descartadas.add(sesion);
+        rechazadas.add(new FilaRechazada(indices.get(sesion), motivo));
+      }
+    }
+    validas.removeIf(descartadas::contains);
+    rechazadas.sort(Comparator.comparingInt(FilaRechazada::indice));
+  }
+
+  /**
+   * Rechaza las sesiones válidas que se solapan con otra sesión anterior del mismo lote y de la misma jornada,
+   * como las que llegan repetidas al reenviar fichajes. Las sesiones se recorren por jornada y hora de inicio
+   * guardando el fin más tardío de las aceptadas; una sesión abierta o que cruza la medianoche llega hasta el final
+   * de la jornada. Los conflictos con las sesiones ya guardadas se comprueban después de guardar el lote.
+   *
+   * @param sesiones Las sesiones recibidas, en el orden de la petición.
+   * @param idJornada Cómo obtener la jornada de una sesión.
+   * @param tiempoInicio Cómo obtener la hora de inicio de una sesión.
+   * @param tiempoFin Cómo obtener la hora de fin de una sesión.
+   * @param validas Las sesiones válidas, de las que se quitan las solapadas.
+   * @param rechazadas Las filas rechazadas, a las que se añaden las solapadas, en el orden de la petición.
+   * @param <T> El tipo de sesión.
+   * @since 1.1
+   */
+  static <T> void rechazarSolapadas(List<T> sesiones, Function<T, Integer> idJornada,
+      Function<T, LocalTime> tiempoInicio, Function<T, LocalTime> tiempoFin, List<T> validas,
+      List<FilaRechazada> rechazadas) {
+    Map<T, Integer> indices = indices(sesiones);
+    List<T> ordenadas = new ArrayList<>(validas);
+    ordenadas.sort(Comparator.comparing(idJornada).thenComparing(tiempoInicio).thenComparing(indices::get));
+
+    Set<T> solapadas = Collections.newSetFromMap(new IdentityHashMap<>());
+    Integer jornada = null;
+    T ultima = null;
+    int finMaximo = -1;
+    for (T sesion : ordenadas) {
+      if (!idJornada.apply(sesion).equals(jornada)) {
+        jornada = idJornada.apply(sesion);
+        ultima = null;
+        finMaximo = -1;
+      }
+      LocalTime inicio = tiempoInicio.apply(sesion);
+      LocalTime fin = tiempoFin.apply(sesion);
+      int finSegundos = fin == null || fin.isBefore(inicio) ? Integer.MAX_VALUE : fin.toSecondOfDay();
+      if (inicio.toSecondOfDay() < finMaximo) {
+        solapadas.add(sesion);
+        rechazadas.add(new FilaRechazada(indices.get(sesion), "Se solapa con la fila " + indices.get(ultima)));
+      } else if (finSegundos > finMaximo) {
+        ultima = sesion;
+        finMaximo = finSegundos;
+      }
+    }
+    validas.removeIf(solapadas::contains);
+    rechazadas.sort(Comparator.comparingInt(FilaRechazada::indice));
+  }
+
+  private static <T> Map<T, Integer> indices(List<T> sesiones) {
+    Map<T, Integer> indices = new IdentityHashMap<>();
+    for (int i = 0; i < sesiones.size(); i++) {
+      indices.put(sesiones.get(i), i);
+    }
+    return indices;
+  }
+
+  /**
+   * Devuelve los IDs de jornada que aparecen en las sesiones, sin repetir.
+   *
+   * @param sesiones Las sesiones.
+   * @param idJornada Cómo obtener la jornada de una sesión.
+   * @param <T> El tipo de sesión.
+   * @return Los IDs de jornada no nulos.
+   * @since 1.1
+   */
+  static <T> Set<Integer> jornadas(List<T> sesiones, Function<T, Integer> idJornada) {
+    return sesiones.stream().filter(Objects::nonNull).map(idJornada).filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+  }
+}
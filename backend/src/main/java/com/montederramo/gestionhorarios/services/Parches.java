@@ -0,0 +1,95 @@
+package com.montederramo.gestionhorarios.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.lang.reflect.Field;
+import java.util.Set;
+
+/**
+ * Actualizaciones parciales de entidades con una sola sentencia UPDATE.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+final class Parches {
+
+  /**
+   * Nombre del atributo con la versión de las entidades ({@code @Version}). Se incrementa en cada actualización,
+   * y una escritura que trae una versión antigua se rechaza.
+   */
+  static final String VERSION = "version";
+
+  private static final String ID = "id";
+
+  private Parches() {
+  }
+
+  /**
+   * Copia en la fila indicada solo los campos pedidos, sin leerla antes, e incrementa su versión.
+   * Si entre los campos está {@code version}, la fila solo se actualiza si su versión coincide.
+   *
+   * @param entityManager El gestor de entidades.
+   * @param tipo La clase de la entidad.
+   * @param id El ID de la fila a actualizar.
+   * @param cambios Una entidad con los nuevos valores de los campos pedidos; el resto de campos se ignora.
+   * @param campos Los nombres de los campos a actualizar.
+   * @param <T> El tipo de la entidad.
+   * @return true si la fila se actualizó, false si no existe.
+   * @throws IllegalArgumentException Si algún campo no es un atributo modificable de la entidad.
+   * @throws OptimisticLockingFailureException Si la fila existe pero su versión no coincide con la indicada.
+   * @since 1.1
+   */
+  static <T> boolean aplicar(EntityManager entityManager, Class<T> tipo, Integer id, T cambios, Set<String> campos) {
+    EntityType<T> entidad = entityManager.getMetamodel().entity(tipo);
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaUpdate<T> update = cb.createCriteriaUpdate(tipo);
+    Root<T> raiz = update.from(tipo);
+
+    Integer version = null;
+    for (String campo : campos) {
+      if (campo.equals(ID)) {
+        throw new IllegalArgumentException("El campo id no se puede modificar");
+      }
+      Object valor = leer(entidad, campo, cambios);
+      if (campo.equals(VERSION)) {
+        version = (Integer) valor;
+      } else {
+        update.set(raiz.<Object>get(campo), valor);
+      }
+    }
+    Path<Integer> columnaVersion = raiz.get(VERSION);
+    update.set(columnaVersion, cb.sum(columnaVersion, 1));
+    Predicate condicion = cb.equal(raiz.get(ID), id);
+    if (version != null) {
+      condicion = cb.and(condicion, cb.equal(columnaVersion, version));
+    }
+    update.where(condicion);
+
+    if (entityManager.createQuery(update).executeUpdate() == 1) {
+      return true;
+    }
+    if (version != null && entityManager.find(tipo, id) != null) {
+      throw new OptimisticLockingFailureException(tipo.getSimpleName() + " " + id
+          + " ha sido modificado por otra petición después de la versión " + version);
+    }
+    return false;
+  }
+
+  private static <T> Object leer(EntityType<T> entidad, String campo, T cambios) {
+    try {
+      Field atributo = (Field) entidad.getSingularAttribute(campo).getJavaMember();
+      atributo.setAccessible(true);
+      return atributo.get(cambios);
+    } catch (IllegalArgumentException | IllegalAccessException e) {
+      throw new IllegalArgumentException("El campo " + campo + " no existe en " + entidad.getName(), e);
+    }
+  }
+}
@@ -0,0 +1,147 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.montederramo.gestionhorarios.dto.CambioPresencia;
+import com.montederramo.gestionhorarios.dto.Jornada;
+import com.montederramo.gestionhorarios.repositories.JornadaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio que reparte en tiempo real los cambios de presencia de los empleados a los supervisores conectados.
+ * Los servicios de sesiones y fichajes publican un {@link CambioPresencia} al escribir; cuando la transacción
+ * confirma, el cambio se encola en cada suscripción. Cada suscripción tiene su propia cola acotada y un hilo
+ * virtual que la vacía, de modo que un cliente lento no retrasa a los demás y miles de conexiones no ocupan
+ * hilos de plataforma.
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Service
+public class PresenciaService {
+
+  private static final Logger log = LoggerFactory.getLogger(PresenciaService.class);
+
+  /** Cambios pendientes que se permiten por suscripción antes de desconectar a un cliente que no lee. */
+  private static final int CAPACIDAD_COLA = 256;
+
+  private final JornadaRepository jornadaRepository;
+  private final Duration timeout;
+  private final Set<Suscripcion> suscripciones = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param jornadaRepository El repositorio de jornadas, para saber a qué empleado pertenece cada cambio.
+   * @param timeout El tiempo tras el que se cierra una conexión; el navegador se reconecta solo.
+   * @since 1.1
+   */
+  @Autowired
+  public PresenciaService(JornadaRepository jornadaRepository,
+      @Value("${presencia.timeout:30m}") Duration timeout) {
+    this.jornadaRepository = jornadaRepository;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Registra una nueva conexión de un supervisor.
+   *
+   * @return El emisor SSE por el que se enviarán los cambios.
+   * @since 1.1
+   */
+  public SseEmitter suscribir() {
+    SseEmitter emitter = new SseEmitter(timeout.toMillis());
+    Suscripcion suscripcion = new Suscripcion(emitter);
+    suscripciones.add(suscripcion);
+    emitter.onCompletion(suscripcion::cerrar);
+    emitter.onTimeout(suscripcion::cerrar);
+    emitter.onError(error -> suscripcion.cerrar());
+    return emitter;
+  }
+
+  /**
+   * Reparte un cambio de presencia a todas las conexiones cuando la transacción que lo produjo confirma.
+   * Si el cambio no trae el empleado, se obtiene de su jornada.
+   *
+   * @param cambio El cambio publicado por un servicio.
+   * @since 1.1
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void publicar(CambioPresencia cambio) {
+    if (suscripciones.isEmpty()) {
+      return;
+    }
+    CambioPresencia completo = cambio;
+    if (cambio.empleadoId() == null && cambio.idJornada() != null) {
+      Integer empleadoId = jornadaRepository.findJornadaById(cambio.idJornada()).map(Jornada::getEmpleadoId).orElse(null);
+      completo = new CambioPresencia(empleadoId, cambio.idJornada(), cambio.estado(), cambio.hora());
+    }
+    for (Suscripcion suscripcion : suscripciones) {
+      suscripcion.encolar(completo);
+    }
+  }
+
+  /**
+   * Devuelve el número de supervisores conectados.
+   *
+   * @return El número de conexiones abiertas.
+   * @since 1.1
+   */
+  public int contarSuscripciones() {
+    return suscripciones.size();
+  }
+
+  /** Una conexión SSE con su cola de cambios pendientes y el hilo virtual que los envía en orden. */
+  private final class Suscripcion {
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<CambioPresencia> pendientes = new ArrayBlockingQueue<>(CAPACIDAD_COLA);
+    private final Thread emisor;
+
+    private Suscripcion(SseEmitter emitter) {
+      this.emitter = emitter;
+      this.emisor = Thread.ofVirtual().name("presencia-sse").start(this::enviarPendientes);
+    }
+
+    private void encolar(CambioPresencia cambio) {
+      if (!pendientes.offer(cambio)) {
+        log.debug("Se desconecta una suscripción de presencia que no consume sus eventos");
+        emitter.complete();
+        cerrar();
+      }
+    }
+
+    private void enviarPendientes() {
+      try {
+        while (!Thread.currentThread().isInterrupted()) {
+          CambioPresencia cambio = pendientes.take();
+          emitter.send(SseEmitter.event().name("presencia").data(cambio));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (IOException | IllegalStateException e) {
+        // El cliente se ha desconectado o el emisor ya estaba cerrado.
+        cerrar();
+      }
+    }
+
+    private void cerrar() {
+      suscripciones.remove(this);
+      if (emisor != Thread.currentThread()) {
+        emisor.interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package com.montederramo.gestionhorarios.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.EntityType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Listados que leen solo algunas columnas de una entidad, para los parámetros {@code fields} de los controladores.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+final class Proyecciones {
+
+  private static final String ID = "id";
+
+  private Proyecciones() {
+  }
+
+  /**
+   * Lee los campos indicados de las filas de una entidad, ordenadas por ID, con una consulta que solo
+   * selecciona esas columnas. El ID se incluye siempre, porque sirve de cursor para pedir la página siguiente.
+   *
+   * @param entityManager El gestor de entidades.
+   * @param tipo La clase de la entidad.
+   * @param campos Los nombres de los atributos a leer, en el orden en que se devuelven.
+   * @param despuesDe El ID a partir del cual se devuelven filas (excluido), o null para empezar por el principio.
+   * @param limite El número máximo de filas, o null para devolverlas todas.
+   * @param <T> El tipo de la entidad.
+   * @return Una fila por entidad, con el valor de cada campo por su nombre.
+   * @throws IllegalArgumentException Si algún campo no es un atributo simple de la entidad.
+   * @since 1.1
+   */
+  static <T> List<Map<String, Object>> listar(EntityManager entityManager, Class<T> tipo, Set<String> campos,
+      Integer despuesDe, Integer limite) {
+    EntityType<T> entidad = entityManager.getMetamodel().entity(tipo);
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> consulta = cb.createTupleQuery();
+    Root<T> raiz = consulta.from(tipo);
+
+    Set<String> seleccion = new LinkedHashSet<>();
+    seleccion.add(ID);
+    seleccion.addAll(campos);
+    List<Selection<?>> columnas = new ArrayList<>();
+    for (String campo : seleccion) {
+      columnas.add(raiz.get(entidad.getSingularAttribute(campo)).alias(campo));
+    }
+    consulta.multiselect(columnas).orderBy(cb.asc(raiz.get(ID)));
+    if (despuesDe != null) {
+      consulta.where(cb.greaterThan(raiz.get(ID), despuesDe));
+    }
+
+    TypedQuery<Tuple> query = entityManager.createQuery(consulta);
+    if (limite != null) {
+      query.setMaxResults(limite);
+    }
+    List<Map<String, Object>> filas = new ArrayList<>();
+    for (Tuple tupla : query.getResultList()) {
+      Map<String, Object> fila = new LinkedHashMap<>();
+      for (String campo : seleccion) {
+        fila.put(campo, tupla.get(campo));
+      }
+      filas.add(fila);
+    }
+    return filas;
+  }
+}
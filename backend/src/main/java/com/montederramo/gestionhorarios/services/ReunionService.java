@@ -1,12 +1,29 @@
 package com.montederramo.gestionhorarios.services;
+import com.montederramo.gestionhorarios.dto.Hueco;
 import com.montederramo.gestionhorarios.dto.Reunion;
+import com.montederramo.gestionhorarios.repositories.HuecosRepository;
 import com.montederramo.gestionhorarios.repositories.ReunionRepository;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Servicio encargado de gestionar las operaciones relacionadas con las reuniones.
@@ -19,17 +36,30 @@ import java.util.Optional;
 @Transactional // Esta anotación se pone para indicar que deben realizarse transacciones para las operaciones indicadas.
 public class ReunionService {
 
+  /** Duración, en minutos, que se supone a las reuniones que no la indican. */
+  public static final int DURACION_POR_DEFECTO = 60;
+
   private final ReunionRepository reunionRepository;
+  private final EntityManager entityManager;
+  private final VersionesTablas versionesTablas;
+  private final HuecosRepository huecosRepository;
 
   /**
    * Constructor para inyección de dependencias.
    *
    * @param reunionRepository El repositorio de reuniones para interactuar con los datos.
+   * @param entityManager El gestor de entidades, usado para desvincular las filas ya recorridas.
+   * @param versionesTablas El contador de versiones, que se incrementa en cada escritura para invalidar los ETags.
+   * @param huecosRepository El repositorio que lee las reuniones y descansos de los asistentes al buscar huecos.
    * @since 1.0
    */
   @Autowired
-  public ReunionService(ReunionRepository reunionRepository) {
+  public ReunionService(ReunionRepository reunionRepository, EntityManager entityManager,
+      VersionesTablas versionesTablas, HuecosRepository huecosRepository) {
     this.reunionRepository = reunionRepository;
+    this.entityManager = entityManager;
+    this.versionesTablas = versionesTablas;
+    this.huecosRepository = huecosRepository;
   }
 
   /**
@@ -40,6 +70,7 @@ public class ReunionService {
    * @since 1.0
    */
   public Reunion crearReunion(Reunion reunion) {
+    versionesTablas.incrementar(VersionesTablas.REUNIONES);
     return (Reunion) reunionRepository.save(reunion);
   }
 
@@ -53,6 +84,68 @@ public class ReunionService {
     return reunionRepository.findAll();
   }
 
+  /**
+   * Obtiene una página de reuniones ordenadas por ID a partir de un cursor.
+   * La consulta usa la clave primaria como cursor, por lo que su coste no depende de la página pedida.
+   *
+   * @param despuesDe El ID a partir del cual se devuelven resultados (excluido), o null para empezar por el principio.
+   * @param limite El número máximo de resultados a devolver.
+   * @return Una lista con como mucho {@code limite} elementos cuyo ID es mayor que {@code despuesDe}.
+   * @since 1.1
+   */
+  public List<Reunion> obtenerReunions(Integer despuesDe, int limite) {
+    return reunionRepository.findByIdGreaterThanOrderByIdAsc(despuesDe == null ? 0 : despuesDe, Limit.of(limite));
+  }
+
+  /**
+   * Obtiene solo los campos indicados de las reuniones, ordenadas por ID, con una consulta que lee únicamente
+   * esas columnas. El ID se incluye siempre, porque sirve de cursor para pedir la página siguiente.
+   *
+   * @param campos Los nombres de los campos a devolver.
+   * @param despuesDe El ID a partir del cual se devuelven resultados (excluido), o null para empezar por el principio.
+   * @param limite El número máximo de resultados a devolver, o null para devolverlos todos.
+   * @return Una fila por elemento, con el valor de cada campo por su nombre.
+   * @since 1.1
+   */
+  public List<Map<String, Object>> obtenerReunions(Set<String> campos, Integer despuesDe, Integer limite) {
+    return Proyecciones.listar(entityManager, Reunion.class, campos, despuesDe, limite);
+  }
+
+  /**
+   * Obtiene las reuniones entre dos días, ambos incluidos, agrupadas por día.
+   * La consulta recorre el índice de la fecha, de modo que solo se leen las reuniones del rango.
+   *
+   * @param desde El primer día del rango.
+   * @param hasta El último día del rango.
+   * @return Las reuniones de cada día que tiene alguna, por orden de día y, dentro del día, de hora.
+   * @since 1.1
+   */
+  public Map<LocalDate, List<Reunion>> obtenerCalendario(LocalDate desde, LocalDate hasta) {
+    Map<LocalDate, List<Reunion>> calendario = new LinkedHashMap<>();
+    for (Reunion reunion : reunionRepository.findByFechaEnRango(Fechas.inicioDelDia(desde), Fechas.finDelDia(hasta))) {
+      calendario.computeIfAbsent(Fechas.dia(reunion.getFecha()), dia -> new ArrayList<>()).add(reunion);
+    }
+    return calendario;
+  }
+
+  /**
+   * Recorre las reuniones ordenadas por ID sin cargarlas todas en memoria.
+   * Cada elemento se entrega al consumidor según llega del cursor JDBC y se desvincula después
+   * del contexto de persistencia, de modo que la memoria usada no crece con el tamaño de la tabla.
+   *
+   * @param consumidor La operación a aplicar a cada elemento.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public void recorrerReuniones(Consumer<Reunion> consumidor) {
+    try (Stream<Reunion> reunions = reunionRepository.streamAllByOrderByIdAsc()) {
+      reunions.forEach(reunion -> {
+        consumidor.accept(reunion);
+        entityManager.detach(reunion);
+      });
+    }
+  }
+
   /**
    * Obtiene una reunion por su ID.
    *
@@ -71,17 +164,42 @@ public class ReunionService {
    * @param reunion El objeto reunion con la nueva información.
    * @return La reunion actualizado, o lanza una excepción si la reunion no existe.
    * @throws RuntimeException Si la reunion con el ID proporcionado no se encuentra.
+   * @throws OptimisticLockingFailureException Si la petición trae una versión distinta de la actual.
    * @since 1.0
    */
   public Reunion actualizarReunion(Integer id, Reunion reunion) {
-    if (reunionRepository.findReunionById(id).isPresent()) {
+    Optional<Reunion> actual = reunionRepository.findReunionById(id);
+    if (actual.isPresent()) {
+      versionesTablas.incrementar(VersionesTablas.REUNIONES);
       reunion.setId(id);
+      // Sin versión en la petición, la actualización se aplica sobre la versión actual.
+      if (reunion.getVersion() == null) {
+        reunion.setVersion(actual.get().getVersion());
+      }
+      // Los asistentes no llegan en la petición; se conserva la colección sin cargar para que el merge no la vacíe.
+      reunion.setAsistentes(actual.get().getAsistentes());
       return (Reunion) reunionRepository.save(reunion);
     } else {
       throw new RuntimeException("Reunion no encontrado con id: " + id);
     }
   }
 
+  /**
+   * Actualiza solo los campos indicados de la reunion, con una única sentencia UPDATE y sin leerla antes.
+   * Si entre los campos está {@code version}, la reunion solo se actualiza si no ha cambiado desde esa versión.
+   *
+   * @param id El identificador de la reunion a actualizar.
+   * @param cambios Una reunion con los nuevos valores de los campos indicados.
+   * @param campos Los nombres de los campos a actualizar.
+   * @return true si la reunion se actualizó, false si no existe.
+   * @throws OptimisticLockingFailureException Si la reunion ha cambiado desde la versión indicada.
+   * @since 1.1
+   */
+  public boolean actualizarParcialmenteReunion(Integer id, Reunion cambios, Set<String> campos) {
+    versionesTablas.incrementar(VersionesTablas.REUNIONES);
+    return Parches.aplicar(entityManager, Reunion.class, id, cambios, campos);
+  }
+
   /**
    * Elimina una reunion por su ID.
    *
@@ -90,10 +208,83 @@ public class ReunionService {
    * @since 1.0
    */
   public boolean eliminarReunion(Integer id) {
-    if (reunionRepository.findReunionById(id).isPresent()) {
-      reunionRepository.deleteReunionById(id);
-      return true;
+    versionesTablas.incrementar(VersionesTablas.REUNIONES);
+    if (reunionRepository.deleteReunionById(id) == 0) {
+      return false;
+    }
+    reunionRepository.deleteAsistentesByIdReunion(id);
+    return true;
+  }
+
+  /**
+   * Obtiene los empleados convocados a una reunion.
+   *
+   * @param id El identificador de la reunion.
+   * @return Un objeto Optional con los IDs de los asistentes en orden ascendente, o vacío si la reunion no existe.
+   * @since 1.1
+   */
+  public Optional<List<Integer>> obtenerAsistentes(Integer id) {
+    return reunionRepository.findReunionById(id).map(reunion -> reunion.getAsistentes().stream().sorted().toList());
+  }
+
+  /**
+   * Sustituye los empleados convocados a una reunion.
+   *
+   * @param id El identificador de la reunion.
+   * @param asistentes Los IDs de los nuevos asistentes.
+   * @return true si la reunion existe y se actualizó, false si no existe.
+   * @since 1.1
+   */
+  public boolean asignarAsistentes(Integer id, Collection<Integer> asistentes) {
+    Optional<Reunion> reunion = reunionRepository.findReunionById(id);
+    if (reunion.isEmpty()) {
+      return false;
     }
-    return false;
+    versionesTablas.incrementar(VersionesTablas.REUNIONES);
+    reunion.get().getAsistentes().clear();
+    reunion.get().getAsistentes().addAll(asistentes);
+    return true;
+  }
+
+  /**
+   * Busca los primeros intervalos de un rango de días en los que ninguno de los empleados tiene una reunion ni un
+   * descanso, y que duran al menos lo indicado.
+   * Las reuniones y descansos de todos los empleados se leen con dos consultas desde el día anterior al rango, para
+   * tener en cuenta los que empiezan la víspera y terminan pasada la medianoche, y se recorren una sola vez por orden
+   * de inicio. Las reuniones sin duración cuentan como de {@value #DURACION_POR_DEFECTO} minutos, los descansos
+   * abiertos duran hasta el final del día y no se proponen huecos que ya hayan empezado.
+   *
+   * @param empleados Los IDs de los empleados que tienen que asistir.
+   * @param duracion La duración de la reunion, en minutos.
+   * @param desde El primer día del rango.
+   * @param hasta El último día del rango.
+   * @param horaInicio La hora a partir de la cual se buscan huecos cada día.
+   * @param horaFin La hora hasta la que se buscan huecos cada día, posterior a la de inicio.
+   * @param limite El número máximo de huecos a devolver.
+   * @return Los primeros huecos, por orden de inicio.
+   * @since 1.1
+   */
+  public List<Hueco> buscarHuecos(Collection<Integer> empleados, int duracion, LocalDate desde, LocalDate hasta,
+      LocalTime horaInicio, LocalTime horaFin, int limite) {
+    List<Huecos.Ocupacion> ocupados = new ArrayList<>();
+    Date inicioRango = Fechas.inicioDelDia(desde.minusDays(1));
+    Date finRango = Fechas.finDelDia(hasta);
+    huecosRepository.recorrerReuniones(empleados, inicioRango, finRango, fila -> {
+      LocalDateTime inicio = fila.getTimestamp("fecha").toLocalDateTime();
+      int minutos = fila.getObject("duracion") == null ? DURACION_POR_DEFECTO : fila.getInt("duracion");
+      ocupados.add(new Huecos.Ocupacion(inicio, inicio.plusMinutes(minutos)));
+    });
+    huecosRepository.recorrerDescansos(empleados, inicioRango, finRango, fila -> {
+      LocalDate dia = Fechas.dia(fila.getTimestamp("fecha"));
+      LocalTime inicio = fila.getObject("tiempo_inicio", LocalTime.class);
+      LocalTime fin = fila.getObject("tiempo_fin", LocalTime.class);
+      if (inicio != null) {
+        boolean cruzaMedianoche = fin == null || fin.isBefore(inicio);
+        ocupados.add(new Huecos.Ocupacion(dia.atTime(inicio),
+            fin == null ? dia.plusDays(1).atStartOfDay() : (cruzaMedianoche ? dia.plusDays(1) : dia).atTime(fin)));
+      }
+    });
+    return Huecos.buscar(ocupados, duracion, desde, hasta, horaInicio, horaFin,
+        LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1), limite);
   }
 }
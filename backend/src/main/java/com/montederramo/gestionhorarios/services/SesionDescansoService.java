@@ -1,12 +1,32 @@
 package com.montederramo.gestionhorarios.services;
+import com.montederramo.gestionhorarios.dto.CambioPresencia;
+import com.montederramo.gestionhorarios.dto.EstadoPresencia;
+import com.montederramo.gestionhorarios.dto.ResultadoLote;
+import com.montederramo.gestionhorarios.dto.ResultadoLote.FilaRechazada;
 import com.montederramo.gestionhorarios.dto.SesionDescanso;
+import com.montederramo.gestionhorarios.repositories.SesionLoteRepository;
 import com.montederramo.gestionhorarios.repositories.SesionDescansoRepository;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Servicio encargado de gestionar las operaciones relacionadas con las sesionDescansos.
@@ -20,16 +40,37 @@ import java.util.Optional;
 public class SesionDescansoService {
 
   private final SesionDescansoRepository sesionDescansoRepository;
+  private final EntityManager entityManager;
+  private final JornadaTotalesService jornadaTotalesService;
+  private final SesionLoteRepository sesionLoteRepository;
+  private final Validator validator;
+  private final ApplicationEventPublisher eventPublisher;
+  private final SolapamientoService solapamientoService;
 
   /**
    * Constructor para inyección de dependencias.
    *
    * @param sesionDescansoRepository El repositorio de sesionDescansos para interactuar con los datos.
+   * @param entityManager El gestor de entidades, usado para desvincular las filas ya recorridas.
+   * @param jornadaTotalesService El servicio que mantiene los totales de cada jornada.
+   * @param sesionLoteRepository El repositorio para las escrituras en lote.
+   * @param validator El validador con el que se comprueba cada fila de un lote.
+   * @param eventPublisher El publicador de los cambios de presencia.
+   * @param solapamientoService El servicio que comprueba que las sesiones de una jornada no se solapan.
    * @since 1.0
    */
   @Autowired
-  public SesionDescansoService(SesionDescansoRepository sesionDescansoRepository) {
+  public SesionDescansoService(SesionDescansoRepository sesionDescansoRepository, EntityManager entityManager,
+      JornadaTotalesService jornadaTotalesService, SesionLoteRepository sesionLoteRepository,
+      Validator validator, ApplicationEventPublisher eventPublisher,
+      SolapamientoService solapamientoService) {
     this.sesionDescansoRepository = sesionDescansoRepository;
+    this.entityManager = entityManager;
+    this.jornadaTotalesService = jornadaTotalesService;
+    this.sesionLoteRepository = sesionLoteRepository;
+    this.validator = validator;
+    this.eventPublisher = eventPublisher;
+    this.solapamientoService = solapamientoService;
   }
 
   /**
@@ -37,10 +78,62 @@ public class SesionDescansoService {
    *
    * @param sesionDescanso El objeto sesionDescanso que se desea crear.
    * @return  La sesion de descanso creada, incluyendo el ID asignado.
+   * @throws SesionSolapadaException Si no está dentro de ninguna sesión de trabajo de su jornada.
    * @since 1.0
    */
   public SesionDescanso crearSesionDescanso(SesionDescanso sesionDescanso) {
-    return (SesionDescanso) sesionDescansoRepository.save(sesionDescanso);
+    solapamientoService.comprobarSesionDescanso(sesionDescanso);
+    SesionDescanso creada = (SesionDescanso) sesionDescansoRepository.save(sesionDescanso);
+    jornadaTotalesService.registrarCambioDescanso(null, null, null,
+        creada.getIdJornada(), creada.getTiempoInicio(), creada.getTiempoFin());
+    publicarCambioPresencia(false, creada);
+    return creada;
+  }
+
+  /**
+   * Guarda un lote de sesiones de descanso en una sola transacción.
+   * Las filas sin ID se insertan y las que tienen ID se actualizan, enviándolas al servidor en lotes JDBC; una fila
+   * con un ID que no existe se rechaza en lugar de insertarse con ese ID, y una con una versión distinta de la
+   * guardada se rechaza como en las actualizaciones de una sola sesión.
+   * Cada fila se valida por separado: las incorrectas se devuelven con su motivo y no impiden guardar las demás.
+   * También se rechazan las filas que se solapan con otra anterior del lote en la misma jornada. Las jornadas del
+   * lote, y las que dejan las sesiones que cambian de jornada, se bloquean antes de validar las filas y, una vez
+   * guardado, se comprueba que ninguna tiene sesiones en conflicto; si alguna los tiene, no se guarda ninguna fila.
+   * Los totales de las jornadas afectadas se recalculan al final con una sola sentencia, y las filas que abren o
+   * cierran una sesión se publican como cambios de presencia.
+   *
+   * @param sesiones Las sesiones de descanso a guardar.
+   * @return El número de filas guardadas y las filas rechazadas.
+   * @throws SesionSolapadaException Si, una vez guardado el lote, alguna de sus jornadas tiene sesiones en conflicto.
+   * @since 1.1
+   */
+  public ResultadoLote guardarSesionDescansosEnLote(List<SesionDescanso> sesiones) {
+    // Las sesiones que ya existían se bloquean al leerlas, para que su versión no cambie antes de guardarlas. Una
+    // puede cambiar de jornada, así que también se bloquean, comprueban y recalculan las jornadas que abandona.
+    Map<Integer, SesionDescanso> actuales = sesionLoteRepository.bloquearSesionesDescanso(
+        sesiones.stream().filter(Objects::nonNull).map(SesionDescanso::getId).filter(Objects::nonNull).toList());
+    Set<Integer> jornadasAfectadas = new HashSet<>(Lotes.jornadas(sesiones, SesionDescanso::getIdJornada));
+    jornadasAfectadas.addAll(Lotes.jornadas(List.copyOf(actuales.values()), SesionDescanso::getIdJornada));
+    solapamientoService.bloquearJornadas(jornadasAfectadas);
+
+    Set<Integer> jornadasExistentes = sesionLoteRepository.filtrarJornadasExistentes(
+        Lotes.jornadas(sesiones, SesionDescanso::getIdJornada));
+    List<SesionDescanso> validas = new ArrayList<>();
+    List<FilaRechazada> rechazadas = Lotes.validarSesiones(sesiones, validator, SesionDescanso::getIdJornada,
+        SesionDescanso::getTiempoInicio, jornadasExistentes, validas);
+    Lotes.compararConGuardadas(sesiones, SesionDescanso::getId, SesionDescanso::getVersion, actuales, validas,
+        rechazadas);
+    Lotes.rechazarSolapadas(sesiones, SesionDescanso::getIdJornada, SesionDescanso::getTiempoInicio,
+        SesionDescanso::getTiempoFin, validas, rechazadas);
+
+    sesionLoteRepository.guardarSesionesDescanso(validas);
+    solapamientoService.comprobarJornadas(jornadasAfectadas);
+    jornadaTotalesService.recalcularTotales(jornadasAfectadas);
+    for (SesionDescanso sesion : validas) {
+      SesionDescanso actual = sesion.getId() == null ? null : actuales.get(sesion.getId());
+      publicarCambioPresencia(actual != null && actual.getTiempoFin() == null, sesion);
+    }
+    return new ResultadoLote(validas.size(), rechazadas);
   }
 
   /**
@@ -49,10 +142,84 @@ public class SesionDescansoService {
    * @return Una lista con todas las sesiones de descanso.
    * @since 1.0
    */
+  @Transactional(readOnly = true)
   public List<SesionDescanso> obtenerSesionDescansos() {
     return sesionDescansoRepository.findAll();
   }
 
+  /**
+   * Obtiene una página de sesiones de descanso ordenadas por ID a partir de un cursor.
+   * La consulta usa la clave primaria como cursor, por lo que su coste no depende de la página pedida.
+   *
+   * @param despuesDe El ID a partir del cual se devuelven resultados (excluido), o null para empezar por el principio.
+   * @param limite El número máximo de resultados a devolver.
+   * @return Una lista con como mucho {@code limite} elementos cuyo ID es mayor que {@code despuesDe}.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public List<SesionDescanso> obtenerSesionDescansos(Integer despuesDe, int limite) {
+    return sesionDescansoRepository.findByIdGreaterThanOrderByIdAsc(despuesDe == null ? 0 : despuesDe, Limit.of(limite));
+  }
+
+  /**
+   * Obtiene solo los campos indicados de las sesiones de descanso, ordenadas por ID, con una consulta que lee únicamente
+   * esas columnas. El ID se incluye siempre, porque sirve de cursor para pedir la página siguiente.
+   *
+   * @param campos Los nombres de los campos a devolver.
+   * @param despuesDe El ID a partir del cual se devuelven resultados (excluido), o null para empezar por el principio.
+   * @param limite El número máximo de resultados a devolver, o null para devolverlos todos.
+   * @return Una fila por elemento, con el valor de cada campo por su nombre.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> obtenerSesionDescansos(Set<String> campos, Integer despuesDe, Integer limite) {
+    return Proyecciones.listar(entityManager, SesionDescanso.class, campos, despuesDe, limite);
+  }
+
+  /**
+   * Obtiene las sesiones de descanso de una jornada ordenadas por hora de inicio.
+   *
+   * @param idJornada El identificador de la jornada.
+   * @return Una lista con las sesiones de descanso de la jornada.
+   * @since 1.1
+   */
+  public List<SesionDescanso> obtenerSesionDescansosPorJornada(Integer idJornada) {
+    return sesionDescansoRepository.findByIdJornadaOrderByTiempoInicioAsc(idJornada);
+  }
+
+  /**
+   * Obtiene las sesiones de descanso de un empleado cuyas jornadas caen entre dos días, ambos incluidos.
+   * El resultado se ordena por jornada y hora de inicio.
+   *
+   * @param empleadoId El identificador del empleado.
+   * @param desde El primer día del rango.
+   * @param hasta El último día del rango.
+   * @return Una lista con las sesiones de descanso del empleado en ese rango.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public List<SesionDescanso> obtenerSesionDescansosPorEmpleado(Integer empleadoId, LocalDate desde, LocalDate hasta) {
+    return sesionDescansoRepository.findByEmpleadoIdAndFechaEnRango(empleadoId, Fechas.inicioDelDia(desde), Fechas.finDelDia(hasta));
+  }
+
+  /**
+   * Recorre las sesiones de descanso ordenadas por ID sin cargarlas todas en memoria.
+   * Cada elemento se entrega al consumidor según llega del cursor JDBC y se desvincula después
+   * del contexto de persistencia, de modo que la memoria usada no crece con el tamaño de la tabla.
+   *
+   * @param consumidor La operación a aplicar a cada elemento.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public void recorrerSesionesDescanso(Consumer<SesionDescanso> consumidor) {
+    try (Stream<SesionDescanso> sesionDescansos = sesionDescansoRepository.streamAllByOrderByIdAsc()) {
+      sesionDescansos.forEach(sesionDescanso -> {
+        consumidor.accept(sesionDescanso);
+        entityManager.detach(sesionDescanso);
+      });
+    }
+  }
+
   /**
    * Obtiene una sesionDescanso por su ID.
    *
@@ -71,17 +238,75 @@ public class SesionDescansoService {
    * @param sesionDescanso El objeto sesionDescanso con la nueva información.
    * @return  La sesion de descanso actualizada, o lanza una excepción si la sesionDescanso no existe.
    * @throws RuntimeException Si la sesionDescanso con el ID proporcionado no se encuentra.
+   * @throws SesionSolapadaException Si no está dentro de ninguna sesión de trabajo de su jornada.
+   * @throws OptimisticLockingFailureException Si la petición trae una versión distinta de la actual.
    * @since 1.0
    */
   public SesionDescanso actualizarSesionDescanso(Integer id, SesionDescanso sesionDescanso) {
-    if (sesionDescansoRepository.findSesionDescansoById(id).isPresent()) {
+    Optional<SesionDescanso> actual = sesionDescansoRepository.findSesionDescansoById(id);
+    if (actual.isPresent()) {
+      // Se copian los valores anteriores antes de guardar, porque save() sobrescribe la entidad gestionada.
+      Integer idJornadaAnterior = actual.get().getIdJornada();
+      LocalTime inicioAnterior = actual.get().getTiempoInicio();
+      LocalTime finAnterior = actual.get().getTiempoFin();
       sesionDescanso.setId(id);
-      return (SesionDescanso) sesionDescansoRepository.save(sesionDescanso);
+      // Sin versión en la petición, la actualización se aplica sobre la versión actual.
+      if (sesionDescanso.getVersion() == null) {
+        sesionDescanso.setVersion(actual.get().getVersion());
+      }
+      solapamientoService.bloquearJornadas(
+          SolapamientoService.jornadas(idJornadaAnterior, sesionDescanso.getIdJornada()));
+      solapamientoService.comprobarSesionDescanso(sesionDescanso);
+      SesionDescanso actualizada = (SesionDescanso) sesionDescansoRepository.save(sesionDescanso);
+      jornadaTotalesService.registrarCambioDescanso(idJornadaAnterior, inicioAnterior, finAnterior,
+          actualizada.getIdJornada(), actualizada.getTiempoInicio(), actualizada.getTiempoFin());
+      publicarCambioPresencia(finAnterior == null, actualizada);
+      return actualizada;
     } else {
       throw new RuntimeException("SesionDescanso no encontrado con id: " + id);
     }
   }
 
+  /**
+   * Actualiza solo los campos indicados de una sesión de descanso con una única sentencia UPDATE.
+   * A diferencia de las demás entidades, la sesión se lee antes, porque los totales de la jornada, la
+   * comprobación de solapamientos y la presencia necesitan sus valores anteriores.
+   * Si entre los campos está {@code version}, la sesión solo se actualiza si no ha cambiado desde esa versión.
+   *
+   * @param id El identificador de la sesión de descanso a actualizar.
+   * @param cambios Una sesión de descanso con los nuevos valores de los campos indicados.
+   * @param campos Los nombres de los campos a actualizar.
+   * @return true si la sesión se actualizó, false si no existe.
+   * @throws SesionSolapadaException Si no está dentro de ninguna sesión de trabajo de su jornada.
+   * @throws OptimisticLockingFailureException Si la sesión ha cambiado desde la versión indicada.
+   * @since 1.1
+   */
+  public boolean actualizarParcialmenteSesionDescanso(Integer id, SesionDescanso cambios, Set<String> campos) {
+    Optional<SesionDescanso> actual = sesionDescansoRepository.findSesionDescansoById(id);
+    if (actual.isEmpty()) {
+      return false;
+    }
+    SesionDescanso anterior = actual.get();
+    SesionDescanso resultado = new SesionDescanso();
+    resultado.setId(id);
+    resultado.setIdJornada(campos.contains("idJornada") ? cambios.getIdJornada() : anterior.getIdJornada());
+    resultado.setTiempoInicio(campos.contains("tiempoInicio") ? cambios.getTiempoInicio() : anterior.getTiempoInicio());
+    resultado.setTiempoFin(campos.contains("tiempoFin") ? cambios.getTiempoFin() : anterior.getTiempoFin());
+    solapamientoService.bloquearJornadas(
+        SolapamientoService.jornadas(anterior.getIdJornada(), resultado.getIdJornada()));
+    solapamientoService.comprobarSesionDescanso(resultado);
+
+    // La sentencia UPDATE no pasa por el contexto de persistencia, así que la sesión leída se desvincula.
+    entityManager.detach(anterior);
+    if (!Parches.aplicar(entityManager, SesionDescanso.class, id, cambios, campos)) {
+      return false;
+    }
+    jornadaTotalesService.registrarCambioDescanso(anterior.getIdJornada(), anterior.getTiempoInicio(),
+        anterior.getTiempoFin(), resultado.getIdJornada(), resultado.getTiempoInicio(), resultado.getTiempoFin());
+    publicarCambioPresencia(anterior.getTiempoFin() == null, resultado);
+    return true;
+  }
+
   /**
    * Elimina una sesionDescanso por su ID.
    *
@@ -90,10 +315,36 @@ public class SesionDescansoService {
    * @since 1.0
    */
   public boolean eliminarSesionDescanso(Integer id) {
-    if (sesionDescansoRepository.findSesionDescansoById(id).isPresent()) {
-      sesionDescansoRepository.deleteSesionDescansoById(id);
-      return true;
+    Optional<SesionDescanso> sesion = sesionDescansoRepository.findSesionDescansoById(id);
+    if (sesion.isEmpty()) {
+      return false;
+    }
+    // Los totales se descuentan antes de borrar, porque se leen las horas de la sesión en la misma sentencia.
+    jornadaTotalesService.descontarSesionDescanso(id);
+    entityManager.detach(sesion.get());
+    if (sesionDescansoRepository.deleteSesionDescansoById(id) == 0) {
+      return false;
+    }
+    // Borrar el descanso abierto devuelve al empleado al trabajo.
+    if (sesion.get().getIdJornada() != null && sesion.get().getTiempoFin() == null) {
+      eventPublisher.publishEvent(new CambioPresencia(null, sesion.get().getIdJornada(), EstadoPresencia.TRABAJANDO,
+          LocalTime.now().truncatedTo(ChronoUnit.SECONDS)));
+    }
+    return true;
+  }
+
+  // Una sesión que pasa a estar abierta significa que el empleado empieza un descanso; una que se cierra, que
+  // vuelve al trabajo. Las correcciones que no cambian si la sesión está abierta no cambian la presencia.
+  private void publicarCambioPresencia(boolean abiertaAntes, SesionDescanso sesionDescanso) {
+    if (sesionDescanso.getIdJornada() == null) {
+      return;
+    }
+    if (!abiertaAntes && sesionDescanso.getTiempoFin() == null) {
+      eventPublisher.publishEvent(new CambioPresencia(null, sesionDescanso.getIdJornada(),
+          EstadoPresencia.EN_PAUSA, sesionDescanso.getTiempoInicio()));
+    } else if (abiertaAntes && sesionDescanso.getTiempoFin() != null) {
+      eventPublisher.publishEvent(new CambioPresencia(null, sesionDescanso.getIdJornada(),
+          EstadoPresencia.TRABAJANDO, sesionDescanso.getTiempoFin()));
     }
-    return false;
   }
 }
@@ -0,0 +1,24 @@
+package com.montederramo.gestionhorarios.services;
+
+/**
+ * Se lanza al crear o actualizar una sesión que se solapa con otra sesión de trabajo de la misma jornada,
+ * o una sesión de descanso que no cae dentro de ninguna sesión de trabajo.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+public class SesionSolapadaException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Crea la excepción con el motivo del rechazo.
+   *
+   * @param mensaje El motivo del rechazo.
+   * @since 1.1
+   */
+  public SesionSolapadaException(String mensaje) {
+    super(mensaje);
+  }
+}
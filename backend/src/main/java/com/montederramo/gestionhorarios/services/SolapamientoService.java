@@ -0,0 +1,234 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.montederramo.gestionhorarios.dto.SesionDescanso;
+import com.montederramo.gestionhorarios.dto.SesionTrabajo;
+import com.montederramo.gestionhorarios.dto.Solapamiento;
+import com.montederramo.gestionhorarios.dto.TipoSolapamiento;
+import com.montederramo.gestionhorarios.repositories.JornadaRepository;
+import com.montederramo.gestionhorarios.repositories.SesionTrabajoRepository;
+import com.montederramo.gestionhorarios.repositories.SolapamientoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Time;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Servicio que comprueba que las sesiones de una jornada no se solapan.
+ * Dos sesiones de trabajo de la misma jornada no pueden coincidir en el tiempo, y cada sesión de descanso
+ * tiene que caer dentro de una sesión de trabajo. Una sesión abierta, o que cruza la medianoche, se
+ * considera que llega hasta el final de la jornada.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Service
+@Transactional // Esta anotación se pone para indicar que deben realizarse transacciones para las operaciones indicadas.
+public class SolapamientoService {
+
+  private static final long FIN_DE_JORNADA = Long.MAX_VALUE;
+
+  private final JornadaRepository jornadaRepository;
+  private final SesionTrabajoRepository sesionTrabajoRepository;
+  private final SolapamientoRepository solapamientoRepository;
+
+  /**
+   * Constructor para inyección de dependencias.
+   *
+   * @param jornadaRepository El repositorio de jornadas, usado para bloquear la jornada mientras se comprueba.
+   * @param sesionTrabajoRepository El repositorio de sesiones de trabajo.
+   * @param solapamientoRepository El repositorio que recorre todas las sesiones ordenadas.
+   * @since 1.1
+   */
+  @Autowired
+  public SolapamientoService(JornadaRepository jornadaRepository, SesionTrabajoRepository sesionTrabajoRepository,
+      SolapamientoRepository solapamientoRepository) {
+    this.jornadaRepository = jornadaRepository;
+    this.sesionTrabajoRepository = sesionTrabajoRepository;
+    this.solapamientoRepository = solapamientoRepository;
+  }
+
+  /**
+   * Comprueba que una sesión de trabajo no se solapa con otra de su jornada.
+   * La jornada queda bloqueada hasta el final de la transacción, de modo que otra escritura concurrente
+   * en la misma jornada espera a que esta termine antes de hacer su propia comprobación.
+   *
+   * @param id El ID de la sesión si se está actualizando, o null si se está creando.
+   * @param sesionTrabajo La sesión de trabajo que se quiere guardar.
+   * @throws SesionSolapadaException Si la sesión se solapa con otra.
+   * @since 1.1
+   */
+  public void comprobarSesionTrabajo(Integer id, SesionTrabajo sesionTrabajo) {
+    if (sesionTrabajo.getIdJornada() == null || sesionTrabajo.getTiempoInicio() == null) {
+      return;
+    }
+    jornadaRepository.bloquearJornadaById(sesionTrabajo.getIdJornada());
+    List<Integer> solapadas = sesionTrabajoRepository.buscarSolapadas(sesionTrabajo.getIdJornada(), id,
+        sesionTrabajo.getTiempoInicio(), finComparable(sesionTrabajo.getTiempoInicio(), sesionTrabajo.getTiempoFin()),
+        Limit.of(1));
+    if (!solapadas.isEmpty()) {
+      throw new SesionSolapadaException("La sesión de trabajo se solapa con la sesión " + solapadas.get(0)
+          + " de la jornada " + sesionTrabajo.getIdJornada());
+    }
+  }
+
+  /**
+   * Comprueba que una sesión de descanso cae dentro de una sesión de trabajo de su jornada.
+   *
+   * @param sesionDescanso La sesión de descanso que se quiere guardar.
+   * @throws SesionSolapadaException Si ninguna sesión de trabajo la contiene.
+   * @since 1.1
+   */
+  public void comprobarSesionDescanso(SesionDescanso sesionDescanso) {
+    if (sesionDescanso.getIdJornada() == null || sesionDescanso.getTiempoInicio() == null) {
+      return;
+    }
+    jornadaRepository.bloquearJornadaById(sesionDescanso.getIdJornada());
+    if (!sesionTrabajoRepository.existeQueContiene(sesionDescanso.getIdJornada(), sesionDescanso.getTiempoInicio(),
+        finComparable(sesionDescanso.getTiempoInicio(), sesionDescanso.getTiempoFin()))) {
+      throw new SesionSolapadaException("La sesión de descanso no está dentro de ninguna sesión de trabajo de la jornada "
+          + sesionDescanso.getIdJornada());
+    }
+  }
+
+  /**
+   * Bloquea varias jornadas hasta el final de la transacción, como {@link #comprobarSesionTrabajo} bloquea la suya.
+   * Las escrituras en lote lo hacen antes de leer nada, para comprobar después sus jornadas con los datos que
+   * ya no puede cambiar otra transacción.
+   *
+   * @param idsJornada Los IDs de las jornadas.
+   * @since 1.1
+   */
+  public void bloquearJornadas(Collection<Integer> idsJornada) {
+    if (!idsJornada.isEmpty()) {
+      jornadaRepository.bloquearJornadasByIds(idsJornada);
+    }
+  }
+
+  /**
+   * Devuelve las jornadas de una sesión antes y después de un cambio, sin repetir y sin las nulas.
+   * Una escritura que mueve, acorta o borra una sesión bloquea y comprueba las dos, porque puede dejar fuera de
+   * cualquier sesión de trabajo un descanso de la jornada que abandona.
+   *
+   * @param idJornadaAnterior La jornada de la sesión antes del cambio, o null si es un alta.
+   * @param idJornadaNueva La jornada de la sesión después del cambio, o null si es una baja.
+   * @return Los IDs de las jornadas, ordenados.
+   * @since 1.1
+   */
+  static Set<Integer> jornadas(Integer idJornadaAnterior, Integer idJornadaNueva) {
+    Set<Integer> jornadas = new TreeSet<>();
+    if (idJornadaAnterior != null) {
+      jornadas.add(idJornadaAnterior);
+    }
+    if (idJornadaNueva != null) {
+      jornadas.add(idJornadaNueva);
+    }
+    return jornadas;
+  }
+
+  /**
+   * Comprueba, con las sesiones ya guardadas, que unas jornadas no tienen sesiones en conflicto.
+   * Se usa tras una escritura en lote, que guarda todas sus filas con unas pocas sentencias, y tras cambiar o borrar
+   * una sesión de trabajo, que puede dejar fuera un descanso. Las jornadas tienen que estar ya bloqueadas.
+   *
+   * @param idsJornada Los IDs de las jornadas.
+   * @throws SesionSolapadaException Si alguna jornada tiene sesiones en conflicto, con el primero encontrado.
+   * @since 1.1
+   */
+  public void comprobarJornadas(Collection<Integer> idsJornada) {
+    List<Solapamiento> solapamientos =
+        barrer(manejador -> solapamientoRepository.recorrerSesionesOrdenadas(idsJornada, manejador));
+    if (solapamientos.isEmpty()) {
+      return;
+    }
+    Solapamiento primero = solapamientos.get(0);
+    if (primero.tipo() == TipoSolapamiento.TRABAJO_SOLAPADO) {
+      throw new SesionSolapadaException("La sesión de trabajo " + primero.idSesion() + " se solapa con la sesión "
+          + primero.idSesionConflicto() + " de la jornada " + primero.idJornada());
+    }
+    throw new SesionSolapadaException("La sesión de descanso " + primero.idSesion()
+        + " no está dentro de ninguna sesión de trabajo de la jornada " + primero.idJornada());
+  }
+
+  /**
+   * Busca todas las sesiones en conflicto de todas las jornadas.
+   * Las sesiones se leen una sola vez, ordenadas por jornada y hora de inicio, y se recorren guardando solo
+   * la sesión de trabajo que más tarde termina hasta el momento: una sesión de trabajo que empieza antes de
+   * ese fin se solapa con ella, y un descanso que termina después no está dentro de ningún trabajo.
+   *
+   * @return Los conflictos encontrados, ordenados por jornada y hora de inicio.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public List<Solapamiento> buscarSolapamientos() {
+    return barrer(solapamientoRepository::recorrerSesionesOrdenadas);
+  }
+
+  private static List<Solapamiento> barrer(Consumer<RowCallbackHandler> recorrido) {
+    Barrido barrido = new Barrido();
+    recorrido.accept(fila -> {
+      Time tiempoFin = fila.getTime("tiempo_fin");
+      barrido.procesar(fila.getInt("tipo"), fila.getInt("id_jornada"), fila.getInt("id"),
+          fila.getTime("tiempo_inicio").toLocalTime(), tiempoFin == null ? null : tiempoFin.toLocalTime());
+    });
+    return barrido.solapamientos;
+  }
+
+  /**
+   * Recorrido de las sesiones ordenadas por jornada, hora de inicio y tipo, que guarda de la jornada actual solo la
+   * sesión de trabajo que más tarde termina hasta el momento.
+   *
+   * @since 1.1
+   */
+  static final class Barrido {
+    final List<Solapamiento> solapamientos = new ArrayList<>();
+    private int idJornada = -1;
+    private Integer idTrabajo;
+    private long finTrabajo = -1;
+
+    /**
+     * Procesa la siguiente sesión del recorrido y añade los conflictos que encuentra.
+     *
+     * @param tipo {@link SolapamientoRepository#TRABAJO} o {@link SolapamientoRepository#DESCANSO}.
+     * @param idJornada El ID de la jornada de la sesión.
+     * @param id El ID de la sesión.
+     * @param inicio La hora de inicio.
+     * @param fin La hora de fin, o null si la sesión está abierta.
+     * @since 1.1
+     */
+    void procesar(int tipo, int idJornada, int id, LocalTime inicio, LocalTime fin) {
+      long finSegundos = finComparable(inicio, fin) == null ? FIN_DE_JORNADA : fin.toSecondOfDay();
+      if (idJornada != this.idJornada) {
+        this.idJornada = idJornada;
+        idTrabajo = null;
+        finTrabajo = -1;
+      }
+      if (tipo == SolapamientoRepository.TRABAJO) {
+        if (inicio.toSecondOfDay() < finTrabajo) {
+          solapamientos.add(new Solapamiento(TipoSolapamiento.TRABAJO_SOLAPADO, idJornada, id, idTrabajo));
+        }
+        if (finSegundos > finTrabajo) {
+          idTrabajo = id;
+          finTrabajo = finSegundos;
+        }
+      } else if (finSegundos > finTrabajo) {
+        solapamientos.add(new Solapamiento(TipoSolapamiento.DESCANSO_FUERA_DE_TRABAJO, idJornada, id, null));
+      }
+    }
+  }
+
+  // Una sesión abierta o que cruza la medianoche llega hasta el final de la jornada.
+  private static LocalTime finComparable(LocalTime inicio, LocalTime fin) {
+    return fin == null || fin.isBefore(inicio) ? null : fin;
+  }
+}
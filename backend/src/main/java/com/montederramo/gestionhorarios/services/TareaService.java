@@ -1,12 +1,23 @@
 package com.montederramo.gestionhorarios.services;
+import com.montederramo.gestionhorarios.dto.ColumnaTablero;
 import com.montederramo.gestionhorarios.dto.Tarea;
 import com.montederramo.gestionhorarios.repositories.TareaRepository;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Servicio encargado de gestionar las operaciones relacionadas con las tareas.
@@ -20,16 +31,19 @@ import java.util.Optional;
 public class TareaService {
 
   private final TareaRepository tareaRepository;
+  private final EntityManager entityManager;
 
   /**
    * Constructor para inyección de dependencias.
    *
    * @param tareaRepository El repositorio de tareas para interactuar con los datos.
+   * @param entityManager El gestor de entidades, usado para desvincular las filas ya recorridas.
    * @since 1.0
    */
   @Autowired
-  public TareaService(TareaRepository tareaRepository) {
+  public TareaService(TareaRepository tareaRepository, EntityManager entityManager) {
     this.tareaRepository = tareaRepository;
+    this.entityManager = entityManager;
   }
 
   /**
@@ -49,10 +63,106 @@ public class TareaService {
    * @return Una lista con todas las tareas.
    * @since 1.0
    */
+  @Transactional(readOnly = true)
   public List<Tarea> obtenerTareas() {
     return tareaRepository.findAll();
   }
 
+  /**
+   * Obtiene una página de tareas ordenadas por ID a partir de un cursor.
+   * La consulta usa la clave primaria como cursor, por lo que su coste no depende de la página pedida.
+   *
+   * @param despuesDe El ID a partir del cual se devuelven resultados (excluido), o null para empezar por el principio.
+   * @param limite El número máximo de resultados a devolver.
+   * @return Una lista con como mucho {@code limite} elementos cuyo ID es mayor que {@code despuesDe}.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public List<Tarea> obtenerTareas(Integer despuesDe, int limite) {
+    return tareaRepository.findByIdGreaterThanOrderByIdAsc(despuesDe == null ? 0 : despuesDe, Limit.of(limite));
+  }
+
+  /**
+   * Obtiene solo los campos indicados de las tareas, ordenadas por ID, con una consulta que lee únicamente
+   * esas columnas. El ID se incluye siempre, porque sirve de cursor para pedir la página siguiente.
+   *
+   * @param campos Los nombres de los campos a devolver.
+   * @param despuesDe El ID a partir del cual se devuelven resultados (excluido), o null para empezar por el principio.
+   * @param limite El número máximo de resultados a devolver, o null para devolverlos todos.
+   * @return Una fila por elemento, con el valor de cada campo por su nombre.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> obtenerTareas(Set<String> campos, Integer despuesDe, Integer limite) {
+    return Proyecciones.listar(entityManager, Tarea.class, campos, despuesDe, limite);
+  }
+
+  /**
+   * Obtiene el tablero de las tareas entre dos días, ambos incluidos: una columna por estado con el número total
+   * de tareas y su primera página. Los recuentos de todas las columnas salen de una sola consulta agrupada.
+   *
+   * @param desde El primer día del rango.
+   * @param hasta El último día del rango.
+   * @param limite El número máximo de tareas de cada columna.
+   * @return Una columna por cada estado que tiene tareas en el rango, ordenadas por estado.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public List<ColumnaTablero> obtenerTablero(LocalDate desde, LocalDate hasta, int limite) {
+    Date inicio = Fechas.inicioDelDia(desde);
+    Date fin = Fechas.finDelDia(hasta);
+    List<ColumnaTablero> columnas = new ArrayList<>();
+    for (ColumnaTablero recuento : tareaRepository.contarPorEstado(inicio, fin)) {
+      columnas.add(new ColumnaTablero(recuento.estado(), recuento.total(),
+          tareaRepository.findByEstadoAndFechaEnRango(recuento.estado(), inicio, fin, Limit.of(limite))));
+    }
+    return columnas;
+  }
+
+  /**
+   * Obtiene una página de las tareas de una columna del tablero, ordenadas por fecha e ID.
+   * El cursor lleva la fecha de la última tarea recibida, así que sigue funcionando aunque esa tarea se haya
+   * borrado o movido a otra columna entre dos páginas.
+   *
+   * @param estado El estado de la columna.
+   * @param desde El primer día del rango.
+   * @param hasta El último día del rango.
+   * @param despuesDeFecha La fecha de la última tarea de la página anterior, o null para empezar por el principio.
+   * @param despuesDe El ID de la última tarea de la página anterior (excluida); se ignora si no hay fecha.
+   * @param limite El número máximo de tareas a devolver.
+   * @return Una lista con como mucho {@code limite} tareas con ese estado que van después del cursor.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public List<Tarea> obtenerColumnaTablero(String estado, LocalDate desde, LocalDate hasta, Date despuesDeFecha,
+      Integer despuesDe, int limite) {
+    Date inicio = Fechas.inicioDelDia(desde);
+    Date fin = Fechas.finDelDia(hasta);
+    if (despuesDeFecha == null || despuesDe == null) {
+      return tareaRepository.findByEstadoAndFechaEnRango(estado, inicio, fin, Limit.of(limite));
+    }
+    return tareaRepository.findByEstadoAndFechaEnRangoDespuesDe(estado, inicio, fin, despuesDeFecha, despuesDe,
+        Limit.of(limite));
+  }
+
+  /**
+   * Recorre las tareas ordenadas por ID sin cargarlas todas en memoria.
+   * Cada elemento se entrega al consumidor según llega del cursor JDBC y se desvincula después
+   * del contexto de persistencia, de modo que la memoria usada no crece con el tamaño de la tabla.
+   *
+   * @param consumidor La operación a aplicar a cada elemento.
+   * @since 1.1
+   */
+  @Transactional(readOnly = true)
+  public void recorrerTareas(Consumer<Tarea> consumidor) {
+    try (Stream<Tarea> tareas = tareaRepository.streamAllByOrderByIdAsc()) {
+      tareas.forEach(tarea -> {
+        consumidor.accept(tarea);
+        entityManager.detach(tarea);
+      });
+    }
+  }
+
   /**
    * Obtiene una tarea por su ID.
    *
@@ -71,17 +181,38 @@ public class TareaService {
    * @param tarea El objeto tarea con la nueva información.
    * @return La tarea actualizado, o lanza una excepción si la tarea no existe.
    * @throws RuntimeException Si la tarea con el ID proporcionado no se encuentra.
+   * @throws OptimisticLockingFailureException Si la petición trae una versión distinta de la actual.
    * @since 1.0
    */
   public Tarea actualizarTarea(Integer id, Tarea tarea) {
-    if (tareaRepository.findTareaById(id).isPresent()) {
+    Optional<Tarea> actual = tareaRepository.findTareaById(id);
+    if (actual.isPresent()) {
       tarea.setId(id);
+      // Sin versión en la petición, la actualización se aplica sobre la versión actual.
+      if (tarea.getVersion() == null) {
+        tarea.setVersion(actual.get().getVersion());
+      }
       return (Tarea) tareaRepository.save(tarea);
     } else {
       throw new RuntimeException("Tarea no encontrado con id: " + id);
     }
   }
 
+  /**
+   * Actualiza solo los campos indicados de la tarea, con una única sentencia UPDATE y sin leerla antes.
+   * Si entre los campos está {@code version}, la tarea solo se actualiza si no ha cambiado desde esa versión.
+   *
+   * @param id El identificador de la tarea a actualizar.
+   * @param cambios Una tarea con los nuevos valores de los campos indicados.
+   * @param campos Los nombres de los campos a actualizar.
+   * @return true si la tarea se actualizó, false si no existe.
+   * @throws OptimisticLockingFailureException Si la tarea ha cambiado desde la versión indicada.
+   * @since 1.1
+   */
+  public boolean actualizarParcialmenteTarea(Integer id, Tarea cambios, Set<String> campos) {
+    return Parches.aplicar(entityManager, Tarea.class, id, cambios, campos);
+  }
+
   /**
    * Elimina una tarea por su ID.
    *
@@ -90,10 +221,6 @@ public class TareaService {
    * @since 1.0
    */
   public boolean eliminarTarea(Integer id) {
-    if (tareaRepository.findTareaById(id).isPresent()) {
-      tareaRepository.deleteTareaById(id);
-      return true;
-    }
-    return false;
+    return tareaRepository.deleteTareaById(id) > 0;
   }
 }
@@ -0,0 +1,85 @@
+package com.montederramo.gestionhorarios.services;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Contador de versión por tabla, que los servicios incrementan en cada escritura y los controladores usan
+ * como ETag de los listados. Así una petición condicional se responde con 304 (Not Modified) sin consultar
+ * la base de datos ni serializar la respuesta.
+ * Los contadores viven en memoria; el ETag incluye el instante de arranque para que, tras un reinicio,
+ * ningún ETag antiguo coincida con uno nuevo.
+ *
+ * @author Lucas Villa (k4ts0v@protonmail.com)
+ * @since 1.1
+ * @version 1.1
+ */
+@Component
+public class VersionesTablas {
+
+  /** Tabla de empleados. */
+  public static final String EMPLEADOS = "empleados";
+
+  /** Tabla de reuniones. */
+  public static final String REUNIONES = "reuniones";
+
+  private final long arranque = System.currentTimeMillis();
+  private final String epoca = Long.toString(arranque, 36);
+  private final Map<String, Version> versiones = new ConcurrentHashMap<>();
+
+  /**
+   * Marca una tabla como modificada. Dentro de una transacción, el contador avanza cuando termina con éxito
+   * y después de vaciar las cachés, para que nunca se asocie un ETag nuevo a datos antiguos.
+   *
+   * @param tabla El nombre de la tabla.
+   * @since 1.1
+   */
+  public void incrementar(String tabla) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      avanzar(tabla);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int estado) {
+        if (estado == STATUS_COMMITTED) {
+          avanzar(tabla);
+        }
+      }
+    });
+  }
+
+  /**
+   * Devuelve la versión actual de una tabla. Hay que leerla antes de consultar los datos, de modo que una
+   * escritura concurrente haga, como mucho, que la siguiente petición condicional no se resuelva con 304.
+   *
+   * @param tabla El nombre de la tabla.
+   * @return El ETag y el instante de la última modificación.
+   * @since 1.1
+   */
+  public Version version(String tabla) {
+    return versiones.computeIfAbsent(tabla, t -> new Version('"' + t + "-" + epoca + "-0\"", 0, arranque));
+  }
+
+  private void avanzar(String tabla) {
+    versiones.compute(tabla, (t, actual) -> {
+      long numero = actual == null ? 1 : actual.numero() + 1;
+      return new Version('"' + t + "-" + epoca + "-" + numero + '"', numero, System.currentTimeMillis());
+    });
+  }
+
+  /**
+   * La versión de una tabla.
+   *
+   * @param etag El ETag fuerte que identifica la versión.
+   * @param numero El número de escrituras desde el arranque.
+   * @param modificada El instante de la última escritura, en milisegundos, o el del arranque si no ha habido ninguna.
+   * @since 1.1
+   */
+  public record Version(String etag, long numero, long modificada) {
+  }
+}
@@ -0,0 +1,91 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.montederramo.gestionhorarios.dto.Hueco;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HuecosTest {
+
+  private static final LocalDate LUNES = LocalDate.of(2026, 3, 2);
+  private static final LocalDate MARTES = LUNES.plusDays(1);
+  private static final LocalTime NUEVE = LocalTime.of(9, 0);
+  private static final LocalTime DIECIOCHO = LocalTime.of(18, 0);
+  private static final LocalDateTime PASADO = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+  private static Huecos.Ocupacion ocupado(LocalDate dia, String inicio, LocalDate diaFin, String fin) {
+    return new Huecos.Ocupacion(dia.atTime(LocalTime.parse(inicio)), diaFin.atTime(LocalTime.parse(fin)));
+  }
+
+  private static Hueco hueco(LocalDate dia, String inicio, String fin) {
+    return new Hueco(dia.atTime(LocalTime.parse(inicio)), dia.atTime(LocalTime.parse(fin)));
+  }
+
+  @Test
+  void unaOcupacionQueSolapaConOtraNoAbreUnHuecoEntreAmbas() {
+    List<Huecos.Ocupacion> ocupados = new ArrayList<>(List.of(
+        ocupado(LUNES, "11:00", LUNES, "12:00"),
+        ocupado(LUNES, "10:00", LUNES, "13:00"),
+        ocupado(LUNES, "12:30", LUNES, "14:00")));
+
+    List<Hueco> huecos = Huecos.buscar(ocupados, 30, LUNES, LUNES, NUEVE, DIECIOCHO, PASADO, 10);
+
+    assertEquals(List.of(hueco(LUNES, "09:00", "10:00"), hueco(LUNES, "14:00", "18:00")), huecos);
+  }
+
+  @Test
+  void losHuecosMasCortosQueLaDuracionNoSeProponen() {
+    List<Huecos.Ocupacion> ocupados = new ArrayList<>(List.of(
+        ocupado(LUNES, "09:15", LUNES, "10:00"),
+        ocupado(LUNES, "10:45", LUNES, "17:30")));
+
+    List<Hueco> huecos = Huecos.buscar(ocupados, 45, LUNES, LUNES, NUEVE, DIECIOCHO, PASADO, 10);
+
+    assertEquals(List.of(hueco(LUNES, "10:00", "10:45")), huecos);
+  }
+
+  @Test
+  void unaOcupacionQuePasaLaMedianocheOcupaElDiaSiguiente() {
+    List<Huecos.Ocupacion> ocupados = new ArrayList<>(List.of(
+        ocupado(LUNES, "17:00", MARTES, "10:00"),
+        ocupado(LUNES, "17:30", LUNES, "18:30")));
+
+    List<Hueco> huecos = Huecos.buscar(ocupados, 60, LUNES, MARTES, NUEVE, DIECIOCHO, PASADO, 10);
+
+    assertEquals(List.of(hueco(LUNES, "09:00", "17:00"), hueco(MARTES, "10:00", "18:00")), huecos);
+  }
+
+  @Test
+  void unaOcupacionQueEmpiezaLaVisperaDelRangoOcupaSuPrimerDia() {
+    List<Huecos.Ocupacion> ocupados = new ArrayList<>(List.of(ocupado(LUNES, "22:00", MARTES, "11:00")));
+
+    List<Hueco> huecos = Huecos.buscar(ocupados, 60, MARTES, MARTES, NUEVE, DIECIOCHO, PASADO, 10);
+
+    assertEquals(List.of(hueco(MARTES, "11:00", "18:00")), huecos);
+  }
+
+  @Test
+  void noSeProponenHuecosQueYaHanEmpezado() {
+    List<Huecos.Ocupacion> ocupados = new ArrayList<>(List.of(ocupado(MARTES, "12:00", MARTES, "13:00")));
+    LocalDateTime ahora = MARTES.atTime(11, 30);
+
+    List<Hueco> huecos = Huecos.buscar(ocupados, 60, LUNES, MARTES, NUEVE, DIECIOCHO, ahora, 10);
+
+    assertEquals(List.of(hueco(MARTES, "13:00", "18:00")), huecos);
+  }
+
+  @Test
+  void seDetieneAlLlegarAlLimite() {
+    List<Huecos.Ocupacion> ocupados = new ArrayList<>(List.of(ocupado(LUNES, "12:00", LUNES, "13:00")));
+
+    List<Hueco> huecos = Huecos.buscar(ocupados, 60, LUNES, MARTES, NUEVE, DIECIOCHO, PASADO, 2);
+
+    assertEquals(List.of(hueco(LUNES, "09:00", "12:00"), hueco(LUNES, "13:00", "18:00")), huecos);
+  }
+}
@@ -0,0 +1,89 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.montederramo.gestionhorarios.dto.ResultadoLote.FilaRechazada;
+import com.montederramo.gestionhorarios.dto.SesionTrabajo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LotesTest {
+
+  private static SesionTrabajo sesion(int idJornada, String inicio, String fin) {
+    SesionTrabajo sesion = new SesionTrabajo();
+    sesion.setIdJornada(idJornada);
+    sesion.setTiempoInicio(LocalTime.parse(inicio));
+    sesion.setTiempoFin(fin == null ? null : LocalTime.parse(fin));
+    return sesion;
+  }
+
+  private static List<FilaRechazada> rechazarSolapadas(List<SesionTrabajo> sesiones, List<SesionTrabajo> validas) {
+    List<FilaRechazada> rechazadas = new ArrayList<>();
+    Lotes.rechazarSolapadas(sesiones, SesionTrabajo::getIdJornada, SesionTrabajo::getTiempoInicio,
+        SesionTrabajo::getTiempoFin, validas, rechazadas);
+    return rechazadas;
+  }
+
+  @Test
+  void lasFilasQueSeTocanNoSeSolapan() {
+    List<SesionTrabajo> sesiones = List.of(sesion(1, "12:00", "16:00"), sesion(1, "08:00", "12:00"));
+    List<SesionTrabajo> validas = new ArrayList<>(sesiones);
+
+    List<FilaRechazada> rechazadas = rechazarSolapadas(sesiones, validas);
+
+    assertEquals(List.of(), rechazadas);
+    assertEquals(sesiones, validas);
+  }
+
+  @Test
+  void dosFilasSolapadasDelMismoLoteRechazanLaPosterior() {
+    List<SesionTrabajo> sesiones = List.of(
+        sesion(1, "08:00", "12:00"), sesion(2, "08:00", "12:00"), sesion(1, "08:00", "12:00"));
+    List<SesionTrabajo> validas = new ArrayList<>(sesiones);
+
+    List<FilaRechazada> rechazadas = rechazarSolapadas(sesiones, validas);
+
+    assertEquals(List.of(new FilaRechazada(2, "Se solapa con la fila 0")), rechazadas);
+    assertEquals(List.of(sesiones.get(0), sesiones.get(1)), validas);
+  }
+
+  @Test
+  void unaFilaQueCruzaLaMedianocheLlegaHastaElFinalDeLaJornada() {
+    List<SesionTrabajo> sesiones = List.of(sesion(1, "23:30", "23:45"), sesion(1, "22:00", "02:00"));
+    List<SesionTrabajo> validas = new ArrayList<>(sesiones);
+
+    List<FilaRechazada> rechazadas = rechazarSolapadas(sesiones, validas);
+
+    assertEquals(List.of(new FilaRechazada(0, "Se solapa con la fila 1")), rechazadas);
+    assertEquals(List.of(sesiones.get(1)), validas);
+  }
+
+  @Test
+  void unaFilaAbiertaLlegaHastaElFinalDeLaJornada() {
+    List<SesionTrabajo> sesiones = List.of(
+        sesion(1, "08:00", null), sesion(1, "07:00", "08:00"), sesion(1, "20:00", "21:00"));
+    List<SesionTrabajo> validas = new ArrayList<>(sesiones);
+
+    List<FilaRechazada> rechazadas = rechazarSolapadas(sesiones, validas);
+
+    assertEquals(List.of(new FilaRechazada(2, "Se solapa con la fila 0")), rechazadas);
+    assertEquals(List.of(sesiones.get(0), sesiones.get(1)), validas);
+  }
+
+  @Test
+  void lasFilasYaRechazadasNoSolapanALasDemas() {
+    List<SesionTrabajo> sesiones = List.of(
+        sesion(1, "08:00", "12:00"), sesion(1, "09:00", "10:00"), sesion(1, "11:00", "13:00"));
+    List<SesionTrabajo> validas = new ArrayList<>(List.of(sesiones.get(1), sesiones.get(2)));
+    List<FilaRechazada> rechazadas = new ArrayList<>(List.of(new FilaRechazada(0, "Falta tiempoInicio")));
+
+    Lotes.rechazarSolapadas(sesiones, SesionTrabajo::getIdJornada, SesionTrabajo::getTiempoInicio,
+        SesionTrabajo::getTiempoFin, validas, rechazadas);
+
+    assertEquals(List.of(new FilaRechazada(0, "Falta tiempoInicio")), rechazadas);
+    assertEquals(List.of(sesiones.get(1), sesiones.get(2)), validas);
+  }
+}
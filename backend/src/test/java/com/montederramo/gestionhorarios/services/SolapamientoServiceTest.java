@@ -0,0 +1,97 @@
+package com.montederramo.gestionhorarios.services;
+
+import com.montederramo.gestionhorarios.dto.Solapamiento;
+import com.montederramo.gestionhorarios.dto.TipoSolapamiento;
+import com.montederramo.gestionhorarios.repositories.SolapamientoRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SolapamientoServiceTest {
+
+  private static void trabajo(SolapamientoService.Barrido barrido, int idJornada, int id, String inicio, String fin) {
+    barrido.procesar(SolapamientoRepository.TRABAJO, idJornada, id, LocalTime.parse(inicio),
+        fin == null ? null : LocalTime.parse(fin));
+  }
+
+  private static void descanso(SolapamientoService.Barrido barrido, int idJornada, int id, String inicio, String fin) {
+    barrido.procesar(SolapamientoRepository.DESCANSO, idJornada, id, LocalTime.parse(inicio),
+        fin == null ? null : LocalTime.parse(fin));
+  }
+
+  private static Solapamiento trabajoSolapado(int idJornada, int id, int idConflicto) {
+    return new Solapamiento(TipoSolapamiento.TRABAJO_SOLAPADO, idJornada, id, idConflicto);
+  }
+
+  private static Solapamiento descansoFuera(int idJornada, int id) {
+    return new Solapamiento(TipoSolapamiento.DESCANSO_FUERA_DE_TRABAJO, idJornada, id, null);
+  }
+
+  @Test
+  void lasSesionesQueSeTocanNoSeSolapan() {
+    SolapamientoService.Barrido barrido = new SolapamientoService.Barrido();
+    trabajo(barrido, 1, 1, "08:00", "12:00");
+    descanso(barrido, 1, 1, "11:45", "12:00");
+    trabajo(barrido, 1, 2, "12:00", "16:00");
+    descanso(barrido, 1, 2, "12:00", "12:15");
+
+    assertEquals(List.of(), barrido.solapamientos);
+  }
+
+  @Test
+  void unaSesionDeTrabajoQueEmpiezaAntesDelFinDeOtraSeSolapaConLaQueMasTardeTermina() {
+    SolapamientoService.Barrido barrido = new SolapamientoService.Barrido();
+    trabajo(barrido, 1, 1, "08:00", "14:00");
+    trabajo(barrido, 1, 2, "09:00", "10:00");
+    trabajo(barrido, 1, 3, "13:00", "15:00");
+
+    assertEquals(List.of(trabajoSolapado(1, 2, 1), trabajoSolapado(1, 3, 1)), barrido.solapamientos);
+  }
+
+  @Test
+  void unaSesionQueCruzaLaMedianocheLlegaHastaElFinalDeLaJornada() {
+    SolapamientoService.Barrido barrido = new SolapamientoService.Barrido();
+    trabajo(barrido, 1, 1, "22:00", "02:00");
+    descanso(barrido, 1, 1, "23:00", "23:30");
+    descanso(barrido, 1, 2, "23:30", "00:30");
+    trabajo(barrido, 1, 2, "23:45", "23:50");
+
+    assertEquals(List.of(trabajoSolapado(1, 2, 1)), barrido.solapamientos);
+  }
+
+  @Test
+  void unaSesionAbiertaLlegaHastaElFinalDeLaJornada() {
+    SolapamientoService.Barrido barrido = new SolapamientoService.Barrido();
+    trabajo(barrido, 1, 1, "08:00", null);
+    descanso(barrido, 1, 1, "20:00", null);
+    trabajo(barrido, 1, 2, "21:00", "22:00");
+
+    assertEquals(List.of(trabajoSolapado(1, 2, 1)), barrido.solapamientos);
+  }
+
+  @Test
+  void unDescansoQueNoEstaDentroDeNingunTrabajoQuedaFuera() {
+    SolapamientoService.Barrido barrido = new SolapamientoService.Barrido();
+    descanso(barrido, 1, 1, "07:30", "07:45");
+    trabajo(barrido, 1, 1, "08:00", "12:00");
+    descanso(barrido, 1, 2, "11:50", "12:10");
+    descanso(barrido, 1, 3, "12:30", "12:45");
+    descanso(barrido, 1, 4, "12:50", null);
+
+    assertEquals(List.of(descansoFuera(1, 1), descansoFuera(1, 2), descansoFuera(1, 3), descansoFuera(1, 4)),
+        barrido.solapamientos);
+  }
+
+  @Test
+  void cadaJornadaSeRecorrePorSeparado() {
+    SolapamientoService.Barrido barrido = new SolapamientoService.Barrido();
+    trabajo(barrido, 1, 1, "08:00", null);
+    trabajo(barrido, 2, 2, "09:00", "10:00");
+    descanso(barrido, 2, 1, "10:30", "10:45");
+
+    assertEquals(List.of(descansoFuera(2, 1)), barrido.solapamientos);
+  }
+}